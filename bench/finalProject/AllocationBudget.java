@@ -0,0 +1,103 @@
+package finalProject;
+
+import java.lang.management.ManagementFactory;
+
+/**	Checks that a steady-state frame of a match allocates nothing.
+ * 
+ * 	A frame is one simulation tick followed by the drawing of both fighters and their
+ * 	faces (into a NullGraphics, so that only our own code is measured).  The players 
+ * 	keep walking, jumping and punching during the whole run.  After a warm-up, the 
+ * 	bytes allocated by the current thread over a number of frames are read from 
+ * 	the JVM's ThreadMXBean.  The program exits with status 1 if a single byte was 
+ * 	allocated, so it can be used as a check in a build script.
+ * 
+ * 	Usage:  java finalProject.AllocationBudget [numFrames]
+ * 
+ */
+public class AllocationBudget implements ApplicationConstants
+{
+	/**	Number of frames run before measuring, so that class loading and
+	 * 	JIT compilation are out of the way
+	 */
+	private static final int WARM_UP_FRAMES = 20000;
+	
+	/**	Number of frames between two commands of a player
+	 */
+	private static final int FRAMES_BETWEEN_COMMANDS = 7;
+	
+	private final Simulation sim_;
+	private final NullGraphics g_;
+	private long frame_;
+	
+	public AllocationBudget()
+	{
+		sim_ = new Simulation(null, null);
+		g_ = new NullGraphics(WINDOW_WIDTH, WINDOW_HEIGHT);
+		frame_ = 0;
+	}
+	
+	/**	Runs one frame:  scripted commands, one simulation tick, and the
+	 * 	rendering of both players
+	 */
+	public void frame()
+	{
+		if (frame_ % FRAMES_BETWEEN_COMMANDS == 0)
+		{
+			int player = (int) (frame_ / FRAMES_BETWEEN_COMMANDS) % Simulation.NUM_PLAYERS;
+			switch ((int) (frame_ / (FRAMES_BETWEEN_COMMANDS*Simulation.NUM_PLAYERS)) % 5) {
+			case 0: sim_.moveLeft(player); break;
+			case 1: sim_.punchLeft(player); break;
+			case 2: sim_.jump(player); break;
+			case 3: sim_.punchRight(player); break;
+			default: sim_.moveRight(player); break;
+			}
+		}
+		
+		sim_.step();
+		
+		for (int p=0; p<Simulation.NUM_PLAYERS; p++)
+			sim_.getFighter(p).draw(g_);
+		for (int p=0; p<Simulation.NUM_PLAYERS; p++)
+			sim_.getFace(p).draw(g_);
+		
+		frame_++;
+	}
+	
+	/**	Runs frames and measures what they allocate
+	 * 
+	 * @param numFrames	number of frames to run
+	 * @return	number of bytes allocated by the current thread while running the frames
+	 */
+	public long measure(int numFrames)
+	{
+		com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		
+		long before = bean.getThreadAllocatedBytes(threadId);
+		for (int k=0; k<numFrames; k++)
+			frame();
+		long after = bean.getThreadAllocatedBytes(threadId);
+		
+		//	reading the counter twice in a row tells us what the measurement itself costs
+		long overhead = bean.getThreadAllocatedBytes(threadId) - after;
+		return Math.max(0, after - before - overhead);
+	}
+	
+	public static void main(String[] argv)
+	{
+		int numFrames = argv.length > 0 ? Integer.parseInt(argv[0]) : 100000;
+		
+		AllocationBudget harness = new AllocationBudget();
+		harness.measure(WARM_UP_FRAMES);
+		long bytes = harness.measure(numFrames);
+		
+		System.out.printf("%d frames: %d bytes allocated (%.3f bytes/frame)%n", 
+						  numFrames, bytes, (double) bytes/numFrames);
+		if (bytes > 0)
+		{
+			System.out.println("FAILED: the steady-state frame must not allocate");
+			System.exit(1);
+		}
+		System.out.println("OK");
+	}
+}
@@ -0,0 +1,34 @@
+package finalProject;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**	Runs the JMH benchmarks of the bench source folder, with the GC profiler on so that
+ * 	every result comes with its allocation rate (bytes per operation).
+ * 
+ * 	The bench folder is compiled after src, with jmh-core and the jmh-generator-annprocess
+ * 	annotation processor on the class path, which build.sh does when JMH_CP lists the
+ * 	JMH jars, e.g.
+ * 
+ * 		CORE_JAR=core.jar JMH_CP=jmh-core.jar:jmh-generator-annprocess.jar:... ./build.sh
+ * 		java -cp out:core.jar:jmh-core.jar:... finalProject.BenchmarkMain [JMH options] [benchmark regexp]
+ * 
+ * 	Any JMH command line option can be passed, e.g. "-f 1 -wi 3 -i 5 FigureBenchmark".
+ * 
+ */
+public class BenchmarkMain 
+{
+	public static void main(String[] argv) throws RunnerException, CommandLineOptionException
+	{
+		Options options = new OptionsBuilder()
+				.parent(new CommandLineOptions(argv))
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,99 @@
+package finalProject;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**	Compares the collision engines on the same scripted match:  a whole scenario of the
+ * 	ScenarioRunner is replayed (without drawing) by a match using each engine, and a single
+ * 	punch test is timed with the fist on the target and away from it.
+ *
+ * 	The engine is created once per trial, so the rasterisation of the bitmask engine's
+ * 	poses isn't part of the measurements.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CollisionBenchmark implements ApplicationConstants
+{
+	/**	The collision engine of the match
+	 */
+	@Param({"geometry", "bitmask"})
+	public String engine;
+
+	/**	The scenario replayed
+	 */
+	@Param({"punchSpam", "mixed"})
+	public String scenario;
+
+	private CollisionEngine engine_;
+	private Scenario scenario_;
+	private StickFigure attacker_, target_, farTarget_;
+
+	@Setup
+	public void setup()
+	{
+		engine_ = engine.equals("bitmask") ? new BitmaskCollisionEngine() : new GeometryCollisionEngine();
+		for (Scenario s : ScenarioRunner.standardScenarios())
+			if (s.getName().equals(scenario))
+				scenario_ = s;
+		if (scenario_ == null)
+			throw new IllegalArgumentException("no scenario named " + scenario);
+
+		//	an attacker in the middle of a left punch, close to a target and far from another
+		attacker_ = new StickFigure();
+		attacker_.punchLeft();
+		for (int k=0; k<12; k++)
+			attacker_.update(Simulation.TICK_DURATION);
+		float []fist = attacker_.getLeftFist();
+		target_ = new StickFigure();
+		target_.x_ = fist[0] + 1;
+		target_.update(0);
+		farTarget_ = new StickFigure();
+		farTarget_.x_ = fist[0] + 15;
+		farTarget_.update(0);
+	}
+
+	@Benchmark
+	public Simulation playMatch()
+	{
+		Simulation sim = new Simulation(null, null, engine_);
+		List<Scenario.KeyEvent> events = scenario_.getEvents();
+		int numTicks = (int) Math.ceil(scenario_.getDuration() * Simulation.TICK_RATE);
+		int nextEvent = 0;
+		for (int k=0; k<numTicks; k++)
+		{
+			float time = sim.getTime();
+			while (nextEvent < events.size() && events.get(nextEvent).time <= time)
+			{
+				Scenario.KeyEvent event = events.get(nextEvent++);
+				MainClass.applyGameKey(sim, event.key, event.keyCode);
+			}
+			sim.step();
+		}
+		return sim;
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public boolean punchNear()
+	{
+		return engine_.punchLands(attacker_, target_);
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public boolean punchFar()
+	{
+		return engine_.punchLands(attacker_, farTarget_);
+	}
+}
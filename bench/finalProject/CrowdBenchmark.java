@@ -0,0 +1,105 @@
+package finalProject;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**	Compares a crowd of StickFigure objects with the same crowd stored in a FighterBatch:
+ * 	one tick of every figure, and one punch hit-tested against every figure.
+ * 	Every figure starts a new clip every 48 ticks, staggered over the crowd.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CrowdBenchmark
+{
+	/**	Number of figures in the crowd
+	 */
+	@Param({"256", "4096"})
+	public int figures;
+
+	private StickFigure []objects_;
+	private FighterBatch batch_;
+	private long tick_;
+
+	@Setup
+	public void setup()
+	{
+		objects_ = new StickFigure[figures];
+		batch_ = new FighterBatch(figures);
+		for (int i=0; i<figures; i++)
+		{
+			float x = (i % 64) * 3 - 96;
+			objects_[i] = new StickFigure();
+			objects_[i].x_ = x;
+			objects_[i].update(0);
+			batch_.add(x, 0);
+		}
+		tick_ = 0;
+	}
+
+	// the command each figure receives on this tick, if any
+	private int command_(int i)
+	{
+		return (int) ((tick_ + i) % 48) == 0 ? (int) ((tick_ / 48 + i) % 5) : -1;
+	}
+
+	@Benchmark
+	public StickFigure []objectsTick()
+	{
+		for (int i=0; i<figures; i++)
+		{
+			switch (command_(i)) {
+			case 0: objects_[i].moveLeft(); break;
+			case 1: objects_[i].moveRight(); break;
+			case 2: objects_[i].jump(); break;
+			case 3: objects_[i].punchLeft(); break;
+			case 4: objects_[i].punchRight(); break;
+			}
+			objects_[i].update(Simulation.TICK_DURATION);
+		}
+		tick_++;
+		return objects_;
+	}
+
+	@Benchmark
+	public FighterBatch batchTick()
+	{
+		for (int i=0; i<figures; i++)
+		{
+			switch (command_(i)) {
+			case 0: batch_.moveLeft(i); break;
+			case 1: batch_.moveRight(i); break;
+			case 2: batch_.jump(i); break;
+			case 3: batch_.punchLeft(i); break;
+			case 4: batch_.punchRight(i); break;
+			}
+		}
+		batch_.update(Simulation.TICK_DURATION);
+		tick_++;
+		return batch_;
+	}
+
+	@Benchmark
+	public int objectsHitTest()
+	{
+		for (int i=0; i<figures; i++)
+			if (objects_[i].isInside(1000, 1000))
+				return i;
+		return -1;
+	}
+
+	@Benchmark
+	public int batchHitTest()
+	{
+		return batch_.hitTest(1000, 1000, -1);
+	}
+}
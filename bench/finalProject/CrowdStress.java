@@ -0,0 +1,114 @@
+package finalProject;
+
+import java.util.Random;
+
+/**	Stress mode for the hit detection among many fighters.
+ *
+ * 	For growing crowd sizes, spawns fighters in a line on the ground (the crowd gets
+ * 	longer, not denser), makes them walk, jump and punch at random, and times the punch
+ * 	resolution of every tick three ways:  with resolvePunches (which picks the search by
+ * 	the size of the crowd, see FighterBatch.BROADPHASE_MIN_FIGURES), always with the
+ * 	broadphase grid, and always with the brute force search.  The speedups are over the
+ * 	brute force search.  All three must find exactly the same hits;  the program exits
+ * 	with status 1 if they don't.  A first, untimed pass warms up the JIT, so that the
+ * 	smallest crowds aren't timed with interpreted code.
+ * 	(The clips set the height of a figure rather than offset it, so jumping and punching
+ * 	bring every figure back to the ground:  a crowd can't be laid out in rows.)
+ *
+ * 	With the grid, the cost per fighter stays about the same as the crowd grows;
+ * 	without it, it grows with the size of the crowd.  Rebuilding the grid every tick
+ * 	has a cost of its own, so the grid only wins on large crowds.
+ *
+ * 	Usage:  java finalProject.CrowdStress [maxFighters [ticks [seed]]]
+ *
+ */
+public class CrowdStress
+{
+	/**	Distance between two neighbours (in world units), close enough to punch each other
+	 */
+	static final float SPACING = 4;
+
+	public static void main(String[] argv)
+	{
+		int maxFighters = argv.length > 0 ? Integer.parseInt(argv[0]) : 1600;
+		int ticks = argv.length > 1 ? Integer.parseInt(argv[1]) : 600;
+		long seed = argv.length > 2 ? Long.parseLong(argv[2]) : 406L;
+
+		for (int n=100; n<=maxFighters; n*=2)
+			run(n, ticks/4, seed, false);
+
+		System.out.printf("%8s %8s %10s %10s %10s %9s %9s%n", "fighters", "hits", "ns/tick", "grid", "brute",
+						  "speedup", "grid only");
+		boolean ok = true;
+		for (int n=100; n<=maxFighters; n*=2)
+			ok &= run(n, ticks, seed, true);
+
+		if (!ok)
+			System.exit(1);
+	}
+
+	/**	Plays a crowd for a number of ticks, and compares the three ways of resolving the punches
+	 *
+	 * @param n			number of fighters
+	 * @param ticks		number of ticks
+	 * @param seed		seed of the fighters' commands
+	 * @param report	true to print the times
+	 * @return	true if the three ways found the same hits
+	 */
+	static boolean run(int n, int ticks, long seed, boolean report)
+	{
+		FighterBatch batch = new FighterBatch(n);
+		for (int i=0; i<n; i++)
+			batch.add(i * SPACING, 0);
+
+		int []targets = new int[n], gridTargets = new int[n], bruteTargets = new int[n];
+		Random rand = new Random(seed);
+		long time = 0, gridTime = 0, bruteTime = 0;
+		int hits = 0;
+		boolean ok = true;
+
+		for (int t=0; t<ticks; t++)
+		{
+			for (int i=0; i<n; i++)
+			{
+				if (rand.nextInt(8) == 0)
+				{
+					switch (rand.nextInt(5)) {
+					case 0: batch.moveLeft(i); break;
+					case 1: batch.moveRight(i); break;
+					case 2: batch.jump(i); break;
+					case 3: batch.punchLeft(i); break;
+					default: batch.punchRight(i); break;
+					}
+				}
+			}
+			batch.update(Simulation.TICK_DURATION);
+
+			long start = System.nanoTime();
+			hits += batch.resolvePunches(targets);
+			long afterAdaptive = System.nanoTime();
+			batch.resolvePunchesWithGrid(gridTargets);
+			long afterGrid = System.nanoTime();
+			batch.resolvePunchesBruteForce(bruteTargets);
+			long end = System.nanoTime();
+			time += afterAdaptive - start;
+			gridTime += afterGrid - afterAdaptive;
+			bruteTime += end - afterGrid;
+
+			for (int i=0; i<n; i++)
+			{
+				if (targets[i] != bruteTargets[i] || gridTargets[i] != bruteTargets[i])
+				{
+					System.out.printf("tick %d, fighter %d:  hit %d, grid hit %d, brute force hit %d%n",
+									  t, i, targets[i], gridTargets[i], bruteTargets[i]);
+					ok = false;
+				}
+			}
+		}
+
+		if (report)
+			System.out.printf("%8d %8d %10d %10d %10d %8.1fx %8.1fx%n", n, hits, time/ticks, gridTime/ticks,
+							  bruteTime/ticks, (double) bruteTime / time, (double) bruteTime / gridTime);
+		return ok;
+	}
+}
@@ -0,0 +1,125 @@
+package finalProject;
+
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import processing.core.PImage;
+
+/**	Microbenchmarks of the stick figure and face hot paths:  the absolute box updates,
+ * 	the hit test against hit, near-miss and far-miss points, the hit test of a batch
+ * 	of points around the figure, and a full tick of a match.
+ * 
+ * 	The batch hit test uses the Vector API only if the forked JVMs get the module, 
+ * 	e.g. with the JMH option  -jvmArgsAppend "--add-modules jdk.incubator.vector".
+ * 
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FigureBenchmark 
+{
+	/**	Where the hit test point is:  on the figure's head, just outside the figure's
+	 * 	body box, or far away from the figure
+	 */
+	@Param({"hit", "nearMiss", "farMiss"})
+	public String point;
+	
+	/**	Number of points of the batch hit test
+	 */
+	private static final int BATCH_SIZE = 64;
+	
+	private StickFigure figure_;
+	private PlayerFace face_;
+	private Simulation sim_;
+	private float px_, py_;
+	private float []batchX_, batchY_;
+	private BitSet batchHits_;
+	private long tick_;
+	
+	@Setup
+	public void setup() 
+	{
+		figure_ = new StickFigure();
+		figure_.x_ = 0;
+		figure_.y_ = 0;
+		figure_.update(0);
+		face_ = new PlayerFace(0, 0, (PImage) null, figure_.getHeadDiameter());
+		sim_ = new Simulation(null, null);
+		tick_ = 0;
+		
+		//	a grid of points over the figure, some on it and some off it
+		batchX_ = new float[BATCH_SIZE];
+		batchY_ = new float[BATCH_SIZE];
+		for (int k=0; k<BATCH_SIZE; k++) {
+			batchX_[k] = -3 + 6 * (k % 8) / 7.f;
+			batchY_[k] = 1.5f - 9 * (k / 8) / 7.f;
+		}
+		batchHits_ = new BitSet(BATCH_SIZE);
+		
+		if (point.equals("hit")) {
+			px_ = 0.2f;
+			py_ = -0.3f;
+		}
+		else if (point.equals("nearMiss")) {
+			px_ = 3.3f;
+			py_ = -2.f;
+		}
+		else {
+			px_ = 15.f;
+			py_ = 10.f;
+		}
+	}
+	
+	@Benchmark
+	public StickFigure stickFigureUpdateAbsoluteBoxes() 
+	{
+		figure_.updateAbsoluteBoxes_();
+		return figure_;
+	}
+	
+	@Benchmark
+	public boolean stickFigureIsInside() 
+	{
+		return figure_.isInside(px_, py_);
+	}
+	
+	/**	The 64 points of the grid tested at once (the result is per batch, not per point)
+	 */
+	@Benchmark
+	public BitSet stickFigureIsInsideBatch() 
+	{
+		figure_.isInside(batchX_, batchY_, BATCH_SIZE, batchHits_);
+		return batchHits_;
+	}
+	
+	@Benchmark
+	public PlayerFace playerFaceUpdateAbsoluteBoxes() 
+	{
+		face_.updateAbsoluteBoxes_();
+		return face_;
+	}
+	
+	/**	One tick of a two-fighter match, with both players punching and walking
+	 */
+	@Benchmark
+	public Simulation matchTick() 
+	{
+		switch ((int) (tick_++ % 48)) {
+		case 0: sim_.punchLeft(Simulation.PLAYER_ONE); break;
+		case 12: sim_.punchRight(Simulation.PLAYER_TWO); break;
+		case 24: sim_.moveRight(Simulation.PLAYER_ONE); break;
+		case 36: sim_.moveLeft(Simulation.PLAYER_TWO); break;
+		}
+		sim_.step();
+		return sim_;
+	}
+}
@@ -0,0 +1,88 @@
+package finalProject;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import processing.core.PGraphics;
+import processing.core.PImage;
+
+/**	Cost, per frame, of keeping the previous frame of the world, at the window's size.
+ * 
+ * 	Before the frame ring, the sketch copied each frame into lastBuffer_ with a
+ * 	per-pixel loop (perPixelCopy), on top of a blit by Processing's renderer that
+ * 	isn't measured here.  The frame ring only moves to its next slot (ringNext).  A
+ * 	frame copied out of the ring goes through System.arraycopy (copyFrame).
+ * 
+ * 	The buffers are NullGraphics with pixels, so that only the copies are measured.
+ * 
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FrameRingBenchmark implements ApplicationConstants
+{
+	private PGraphics frame_, lastBuffer_;
+	private FrameRing ring_;
+	private PImage capture_;
+	
+	@Setup
+	public void setup()
+	{
+		frame_ = buffer_();
+		lastBuffer_ = buffer_();
+		
+		PGraphics [][]buffers = new PGraphics[MainClass.FRAME_RING_SIZE][1];
+		for (int f=0; f<buffers.length; f++)
+			buffers[f][0] = buffer_();
+		ring_ = new FrameRing(buffers);
+		capture_ = buffer_();
+	}
+	
+	// a window-sized buffer with pixels
+	private static PGraphics buffer_()
+	{
+		NullGraphics g = new NullGraphics(WINDOW_WIDTH, WINDOW_HEIGHT);
+		g.pixelWidth = WINDOW_WIDTH;
+		g.pixelHeight = WINDOW_HEIGHT;
+		g.pixels = new int[WINDOW_WIDTH * WINDOW_HEIGHT];
+		for (int k=0; k<g.pixels.length; k++)
+			g.pixels[k] = k;
+		return g;
+	}
+	
+	/**	The copy of the frame into lastBuffer_ done by the sketch before
+	 */
+	@Benchmark
+	public int []perPixelCopy()
+	{
+		int []pixelLB = lastBuffer_.pixels;
+		int []pixelOB = frame_.pixels;
+		for (int k=0; k<WINDOW_WIDTH*WINDOW_HEIGHT; k++)
+			pixelLB[k] = pixelOB[k];
+		return pixelLB;
+	}
+	
+	/**	Starting a frame in the ring:  the previous frames stay where they are
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public PGraphics ringNext()
+	{
+		return ring_.next(0);
+	}
+	
+	/**	Copying the previous frame out of the ring, e.g. for a capture
+	 */
+	@Benchmark
+	public PImage copyFrame()
+	{
+		return ring_.copyFrame(1, capture_);
+	}
+}
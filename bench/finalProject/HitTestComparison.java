@@ -0,0 +1,226 @@
+package finalProject;
+
+import java.util.Random;
+
+/**	Checks that the hierarchical hit test of the stick figure (StickFigure.contains)
+ * 	gives the same result, bit for bit, as the flat test it stands for.
+ *
+ * 	The flat test brings the point into the figure's frame the same way, then checks
+ * 	the head and hand circles (squared distance below the squared radius) and every
+ * 	limb's capsule, with nothing skipped.  The hierarchical test rejects points with
+ * 	the figure's hit bounds, the box around each circle and the box around each limb
+ * 	first:  none of these may ever reject a point the flat test accepts.
+ *
+ * 	The figures get random joint angles, positions and orientations.  Some of the
+ * 	points are spread over the hit bounds and around them, the others are placed
+ * 	within NEAR of the limit of a circle, of the side of a limb or of the end of a
+ * 	limb, where rounding could make the two tests disagree.  The program exits with
+ * 	status 1 if they disagree on any point.
+ *
+ * 	Usage:  java finalProject.HitTestComparison [points [seed]]
+ *
+ */
+public class HitTestComparison
+{
+	/**	Number of points tested against each pose
+	 */
+	static final int POINTS_PER_POSE = 1000;
+
+	/**	Relative distance to a limit within which the points near the limits are placed
+	 */
+	static final float NEAR = 1E-5f;
+
+	/**	Margin around the hit bounds over which the spread points are placed (in world units)
+	 */
+	static final float MARGIN = 1;
+
+	/**	Kinds of points:  spread over the hit bounds, or near a circle, the side of a limb or the end of a limb
+	 */
+	static final int SPREAD = 0, CIRCLE = 1, LIMB_SIDE = 2, LIMB_END = 3, NUM_KINDS = 4;
+	static final String []KIND_NAMES = {"spread", "circle", "limb side", "limb end"};
+
+	// largest number of mismatches printed
+	private static final int MAX_PRINTED = 10;
+
+	public static void main(String[] argv)
+	{
+		long numPoints = argv.length > 0 ? Long.parseLong(argv[0]) : 4000000L;
+		long seed = argv.length > 1 ? Long.parseLong(argv[1]) : 406L;
+		Random rand = new Random(seed);
+
+		Skeleton skeleton = StickFigure.SKELETON;
+		float []joints = new float[StickFigure.NUM_JOINTS];
+		float []nodeX = new float[StickFigure.NUM_NODES], nodeY = new float[StickFigure.NUM_NODES];
+		float []nodeCos = new float[StickFigure.NUM_NODES], nodeSin = new float[StickFigure.NUM_NODES];
+		float []bounds = new float[StickFigure.BOX_SIZE];
+		float []local = new float[2];
+
+		long []tested = new long[NUM_KINDS], hits = new long[NUM_KINDS], mismatches = new long[NUM_KINDS];
+
+		for (long done=0; done<numPoints; done+=POINTS_PER_POSE)
+		{
+			for (int j=0; j<joints.length; j++)
+				joints[j] = (rand.nextFloat()*2 - 1) * (float) Math.PI;
+			skeleton.computePose(0, 0, 0, joints, 0, nodeX, nodeY, nodeCos, nodeSin, 0);
+			StickFigure.computeHitBounds(nodeX, nodeY, 0, bounds, 0);
+
+			//	half of the figures stand at the origin, unrotated, so that the points near
+			//	the limits reach the test exactly as they were placed
+			float figureX = 0, figureY = 0, angle = 0;
+			if (rand.nextBoolean())
+			{
+				figureX = (rand.nextFloat()*2 - 1) * 40;
+				figureY = (rand.nextFloat()*2 - 1) * 10;
+				angle = (rand.nextFloat()*2 - 1) * (float) Math.PI;
+			}
+			float cosAngle = (float) Math.cos(angle), sinAngle = (float) Math.sin(angle);
+
+			for (int k=0; k<POINTS_PER_POSE && done+k<numPoints; k++)
+			{
+				int kind = rand.nextInt(NUM_KINDS);
+				placePoint(kind, rand, nodeX, nodeY, bounds, local);
+
+				//	the point in the world
+				float x = figureX + cosAngle*local[0] - sinAngle*local[1];
+				float y = figureY + sinAngle*local[0] + cosAngle*local[1];
+
+				boolean hit = StickFigure.contains(figureX, figureY, cosAngle, sinAngle, nodeX, nodeY, 0,
+												   bounds, 0, x, y);
+				boolean expected = flatContains(figureX, figureY, cosAngle, sinAngle, nodeX, nodeY, x, y);
+				tested[kind]++;
+				if (expected)
+					hits[kind]++;
+				if (hit != expected)
+				{
+					if (mismatches[0] + mismatches[1] + mismatches[2] + mismatches[3] < MAX_PRINTED)
+						System.out.printf("%s point (%s, %s), figure at (%s, %s) angle %s:  hierarchical %b, flat %b%n",
+										  KIND_NAMES[kind], x, y, figureX, figureY, angle, hit, expected);
+					mismatches[kind]++;
+				}
+			}
+		}
+
+		System.out.printf("%-10s %10s %10s %10s%n", "points", "tested", "hits", "mismatches");
+		long total = 0;
+		for (int kind=0; kind<NUM_KINDS; kind++)
+		{
+			System.out.printf("%-10s %10d %10d %10d%n", KIND_NAMES[kind], tested[kind], hits[kind], mismatches[kind]);
+			total += mismatches[kind];
+		}
+
+		if (total != 0)
+			System.exit(1);
+		System.out.println("OK");
+	}
+
+	/**	The flat hit test:  the same tests as StickFigure.contains, without any of the
+	 * 	boxes that let it skip them
+	 *
+	 * @param figureX		x coordinate of the figure
+	 * @param figureY		y coordinate of the figure
+	 * @param cosAngle		cosine of the orientation of the figure
+	 * @param sinAngle		sine of the orientation of the figure
+	 * @param nodeX			x coordinate of the figure's skeleton nodes, in the figure's frame
+	 * @param nodeY			y coordinate of the figure's skeleton nodes, in the figure's frame
+	 * @param x				x coordinate of a point in the world reference frame
+	 * @param y				y coordinate of a point in the world reference frame
+	 * @return	true if the point at (x, y) lies on the figure
+	 */
+	static boolean flatContains(float figureX, float figureY, float cosAngle, float sinAngle,
+								float []nodeX, float []nodeY, float x, float y)
+	{
+		float dx = x - figureX, dy = y - figureY;
+		float localX = cosAngle*dx + sinAngle*dy, localY = cosAngle*dy - sinAngle*dx;
+
+		if (inCircle_(localX - StickFigure.HEAD_X, localY - StickFigure.HEAD_Y, StickFigure.HEAD_HIT_RADIUS) ||
+			inCircle_(localX - StickFigure.LEFT_HAND_X, localY - StickFigure.HAND_Y, StickFigure.HAND_HIT_RADIUS) ||
+			inCircle_(localX - StickFigure.RIGHT_HAND_X, localY - StickFigure.HAND_Y, StickFigure.HAND_HIT_RADIUS))
+			return true;
+
+		Skeleton skeleton = StickFigure.SKELETON;
+		boolean hit = false;
+		for (int i=0; i<skeleton.getNumLimbs(); i++)
+		{
+			int s = skeleton.getLimbStart(i), e = skeleton.getLimbEnd(i);
+			float r = skeleton.getLimbRadius(i);
+			hit |= Skeleton.capsuleContains(nodeX[s], nodeY[s], nodeX[e], nodeY[e], r*r, localX, localY);
+		}
+		return hit;
+	}
+
+	// squared distance to the center below the squared radius
+	private static boolean inCircle_(float dx, float dy, float radius)
+	{
+		return dx*dx + dy*dy < radius*radius;
+	}
+
+	/**	Places a point of a kind, in the figure's frame
+	 *
+	 * @param kind		SPREAD, CIRCLE, LIMB_SIDE or LIMB_END
+	 * @param rand		the random numbers
+	 * @param nodeX		x coordinate of the figure's skeleton nodes, in the figure's frame
+	 * @param nodeY		y coordinate of the figure's skeleton nodes, in the figure's frame
+	 * @param bounds	hit bounds of the figure, as computed by computeHitBounds
+	 * @param out		receives the x and y coordinates of the point
+	 */
+	static void placePoint(int kind, Random rand, float []nodeX, float []nodeY, float []bounds, float []out)
+	{
+		//	distance to the limit:  within NEAR of it, or right at it, a few floats away
+		float scale = 1 + (rand.nextFloat()*2 - 1) * NEAR;
+		float theta = rand.nextFloat() * 2 * (float) Math.PI;
+		float ux = (float) Math.cos(theta), uy = (float) Math.sin(theta);
+		Skeleton skeleton = StickFigure.SKELETON;
+
+		switch (kind) {
+		case CIRCLE:
+		{
+			int c = rand.nextInt(3);
+			float cx = c == 0 ? StickFigure.HEAD_X : c == 1 ? StickFigure.LEFT_HAND_X : StickFigure.RIGHT_HAND_X;
+			float cy = c == 0 ? StickFigure.HEAD_Y : StickFigure.HAND_Y;
+			float r = (c == 0 ? StickFigure.HEAD_HIT_RADIUS : StickFigure.HAND_HIT_RADIUS) * scale;
+			out[0] = nudge_(rand, cx + r*ux);
+			out[1] = nudge_(rand, cy + r*uy);
+			break;
+		}
+		case LIMB_SIDE:
+		{
+			int i = rand.nextInt(skeleton.getNumLimbs());
+			int s = skeleton.getLimbStart(i), e = skeleton.getLimbEnd(i);
+			float limbX = nodeX[e] - nodeX[s], limbY = nodeY[e] - nodeY[s];
+			float length = (float) Math.sqrt(limbX*limbX + limbY*limbY);
+			float t = rand.nextFloat();
+			float r = skeleton.getLimbRadius(i) * scale * (rand.nextBoolean() ? 1 : -1);
+			//	the normal to the limb, any direction for a limb of length 0
+			float nx = length > 0 ? -limbY / length : ux, ny = length > 0 ? limbX / length : uy;
+			out[0] = nudge_(rand, nodeX[s] + t*limbX + r*nx);
+			out[1] = nudge_(rand, nodeY[s] + t*limbY + r*ny);
+			break;
+		}
+		case LIMB_END:
+		{
+			int i = rand.nextInt(skeleton.getNumLimbs());
+			int n = rand.nextBoolean() ? skeleton.getLimbStart(i) : skeleton.getLimbEnd(i);
+			float r = skeleton.getLimbRadius(i) * scale;
+			out[0] = nudge_(rand, nodeX[n] + r*ux);
+			out[1] = nudge_(rand, nodeY[n] + r*uy);
+			break;
+		}
+		default:
+		{
+			float xmin = bounds[StickFigure.XMIN_INDEX] - MARGIN, xmax = bounds[StickFigure.XMAX_INDEX] + MARGIN;
+			float ymin = bounds[StickFigure.YMIN_INDEX] - MARGIN, ymax = bounds[StickFigure.YMAX_INDEX] + MARGIN;
+			out[0] = xmin + rand.nextFloat() * (xmax - xmin);
+			out[1] = ymin + rand.nextFloat() * (ymax - ymin);
+			break;
+		}
+		}
+	}
+
+	// moves a coordinate by a few floats, so that the points fall on both sides of the exact limit
+	private static float nudge_(Random rand, float v)
+	{
+		for (int steps=rand.nextInt(7)-3; steps!=0; steps+=steps>0 ? -1 : 1)
+			v = steps > 0 ? Math.nextUp(v) : Math.nextDown(v);
+		return v;
+	}
+}
@@ -0,0 +1,86 @@
+package finalProject;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**	Microbenchmarks of LinearKeyframeInterpolator.computeStateVector, on a clip the size
+ * 	of the punch clips (11 keyframes) and on a long clip (2000 keyframes), both with
+ * 	the same number of channels as the stick figure's clips.
+ * 
+ * 	The time moves forward by one tick per call and wraps around at the end of the clip,
+ * 	like a playback would.  The seek version jumps to a pseudo-random time at every call.
+ * 
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InterpolatorBenchmark 
+{
+	@Param({"short", "long"})
+	public String clip;
+	
+	// number of channels of the stick figure clips (8 joint angles and y or vx)
+	private static final int DIM = 9;
+	
+	private KeyframeInterpolator interpolator_;
+	private float []out_;
+	private float duration_;
+	private float t_;
+	private int seed_;
+	
+	@Setup
+	public void setup() 
+	{
+		int numFrames = clip.equals("short") ? 11 : 2000;
+		float [][]keyframes = new float[numFrames][DIM+1];
+		for (int i=0; i<numFrames; i++)
+		{
+			for (int k=0; k<DIM; k++)
+				keyframes[i][k] = (float) Math.sin(0.37*i + k);
+			keyframes[i][DIM] = 0.04f*i;
+		}
+		interpolator_ = new LinearKeyframeInterpolator(keyframes);
+		out_ = new float[DIM];
+		duration_ = keyframes[numFrames-1][DIM];
+		t_ = 0;
+		seed_ = 406;
+	}
+	
+	private float nextTime_()
+	{
+		t_ += Simulation.TICK_DURATION;
+		if (t_ > duration_)
+			t_ = 0;
+		return t_;
+	}
+	
+	@Benchmark
+	public float[] playback() 
+	{
+		interpolator_.computeStateVector(nextTime_(), out_, 0);
+		return out_;
+	}
+	
+	@Benchmark
+	public float[] playbackAllocating() 
+	{
+		return interpolator_.computeStateVector(nextTime_());
+	}
+	
+	@Benchmark
+	public float[] seek() 
+	{
+		seed_ = seed_*1103515245 + 12345;
+		float t = ((seed_ >>> 8) & 0xFFFF) * duration_ / 0xFFFF;
+		interpolator_.computeStateVector(t, out_, 0);
+		return out_;
+	}
+}
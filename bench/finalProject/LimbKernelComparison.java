@@ -0,0 +1,127 @@
+package finalProject;
+
+import java.util.BitSet;
+import java.util.Random;
+
+/**	Checks that the vector kernel of the limb hit test (VectorLimbKernel) gives the same
+ * 	results, bit for bit, as the scalar one (ScalarLimbKernel), and that both give the
+ * 	same results as Skeleton.limbsContain tested point by point.
+ *
+ * 	The figures get random joint angles, positions and orientations, and each one is
+ * 	tested against a batch of points of random size, so that the points left over after
+ * 	the last full vector are tested too.  Some of the points are spread over the hit
+ * 	bounds and around them, the others are placed within HitTestComparison.NEAR of the
+ * 	side or of the end of a limb.  A few bits of each batch are set beforehand, and
+ * 	must be left set.  The program exits with status 1 if the kernels disagree on any
+ * 	point, or if the vector kernel can't be loaded:  it is in the src-vector source
+ * 	folder, and needs the Vector API at run time.
+ *
+ * 	Usage:  java --add-modules jdk.incubator.vector finalProject.LimbKernelComparison [points [seed]]
+ *
+ */
+public class LimbKernelComparison
+{
+	/**	Largest number of points in a batch
+	 */
+	static final int MAX_BATCH = 257;
+
+	// kinds of points tested
+	private static final int []KINDS = {HitTestComparison.SPREAD, HitTestComparison.LIMB_SIDE, HitTestComparison.LIMB_END};
+
+	// largest number of mismatches printed
+	private static final int MAX_PRINTED = 10;
+
+	public static void main(String[] argv)
+	{
+		long numPoints = argv.length > 0 ? Long.parseLong(argv[0]) : 4000000L;
+		long seed = argv.length > 1 ? Long.parseLong(argv[1]) : 406L;
+		Random rand = new Random(seed);
+
+		LimbKernel scalar = new ScalarLimbKernel(), vector;
+		try {
+			//	loaded by name, so that the bench compiles without the Vector API
+			vector = (LimbKernel) Class.forName("finalProject.VectorLimbKernel").getDeclaredConstructor().newInstance();
+		}
+		catch (ReflectiveOperationException | LinkageError e) {
+			System.out.println("the vector kernel can't be loaded (" + e + "):  compile src-vector, and run with " +
+							   "--add-modules jdk.incubator.vector");
+			System.exit(1);
+			return;
+		}
+
+		Skeleton skeleton = StickFigure.SKELETON;
+		float []joints = new float[StickFigure.NUM_JOINTS];
+		float []nodeX = new float[StickFigure.NUM_NODES], nodeY = new float[StickFigure.NUM_NODES];
+		float []nodeCos = new float[StickFigure.NUM_NODES], nodeSin = new float[StickFigure.NUM_NODES];
+		float []bounds = new float[StickFigure.BOX_SIZE];
+		float []local = new float[2];
+		float []xs = new float[MAX_BATCH], ys = new float[MAX_BATCH];
+		BitSet preset = new BitSet(MAX_BATCH), scalarHits = new BitSet(MAX_BATCH), vectorHits = new BitSet(MAX_BATCH);
+
+		long tested = 0, hits = 0, mismatches = 0;
+		while (tested < numPoints)
+		{
+			for (int j=0; j<joints.length; j++)
+				joints[j] = (rand.nextFloat()*2 - 1) * (float) Math.PI;
+			skeleton.computePose(0, 0, 0, joints, 0, nodeX, nodeY, nodeCos, nodeSin, 0);
+			StickFigure.computeHitBounds(nodeX, nodeY, 0, bounds, 0);
+
+			//	half of the figures stand at the origin, unrotated, so that the points near
+			//	the limits reach the kernels exactly as they were placed
+			float figureX = 0, figureY = 0, angle = 0;
+			if (rand.nextBoolean())
+			{
+				figureX = (rand.nextFloat()*2 - 1) * 40;
+				figureY = (rand.nextFloat()*2 - 1) * 10;
+				angle = (rand.nextFloat()*2 - 1) * (float) Math.PI;
+			}
+			float cosAngle = (float) Math.cos(angle), sinAngle = (float) Math.sin(angle);
+
+			int count = 1 + rand.nextInt(MAX_BATCH);
+			preset.clear();
+			for (int k=0; k<count; k++)
+			{
+				HitTestComparison.placePoint(KINDS[rand.nextInt(KINDS.length)], rand, nodeX, nodeY, bounds, local);
+				xs[k] = figureX + cosAngle*local[0] - sinAngle*local[1];
+				ys[k] = figureY + sinAngle*local[0] + cosAngle*local[1];
+				if (rand.nextInt(16) == 0)
+					preset.set(k);
+			}
+
+			scalarHits.clear();
+			scalarHits.or(preset);
+			scalar.limbsContain(skeleton, nodeX, nodeY, 0, figureX, figureY, cosAngle, sinAngle, xs, ys, count, scalarHits);
+			vectorHits.clear();
+			vectorHits.or(preset);
+			vector.limbsContain(skeleton, nodeX, nodeY, 0, figureX, figureY, cosAngle, sinAngle, xs, ys, count, vectorHits);
+
+			for (int k=0; k<count; k++)
+			{
+				float dx = xs[k] - figureX, dy = ys[k] - figureY;
+				boolean expected = preset.get(k) ||
+								   skeleton.limbsContain(nodeX, nodeY, 0, cosAngle*dx + sinAngle*dy, cosAngle*dy - sinAngle*dx);
+				if (expected)
+					hits++;
+				if (scalarHits.get(k) != expected || vectorHits.get(k) != expected)
+				{
+					if (mismatches < MAX_PRINTED)
+						System.out.printf("point %d of %d (%s, %s), figure at (%s, %s) angle %s:  scalar %b, vector %b, " +
+										  "point by point %b%n", k, count, xs[k], ys[k], figureX, figureY, angle,
+										  scalarHits.get(k), vectorHits.get(k), expected);
+					mismatches++;
+				}
+			}
+			if (scalarHits.nextSetBit(count) >= 0 || vectorHits.nextSetBit(count) >= 0)
+			{
+				System.out.printf("bits set past the %d points of a batch%n", count);
+				mismatches++;
+			}
+			tested += count;
+		}
+
+		System.out.printf("%d points, %d hits, %d mismatches%n", tested, hits, mismatches);
+		if (mismatches != 0)
+			System.exit(1);
+		System.out.println("OK");
+	}
+}
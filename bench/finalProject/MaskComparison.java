@@ -0,0 +1,115 @@
+package finalProject;
+
+import java.util.Arrays;
+
+import processing.core.PConstants;
+import processing.core.PImage;
+
+/**	Checks that the scanline mask of the faces (FaceTexture.maskEllipse) gives the same
+ * 	pixels as the mask it replaced, which tested each pixel against the ellipse.
+ *
+ * 	Every image size from 1x1 to MAX_SIZE x MAX_SIZE is masked both ways, as well as a
+ * 	few large images, which are masked in parallel.  The pixel by pixel mask is the one
+ * 	PlayerFace had before, equation included.  The program exits with status 1 if the
+ * 	two masks differ on any pixel.
+ *
+ * 	Usage:  java finalProject.MaskComparison [maxSize]
+ *
+ */
+public class MaskComparison
+{
+	/**	Largest width and height of the images of every size
+	 */
+	static final int MAX_SIZE = 260;
+
+	/**	Sizes of the large images, width then height
+	 */
+	static final int [][]LARGE_SIZES = {{864, 864}, {180, 1000}, {1999, 2401}};
+
+	// color of the pixels before they are masked
+	private static final int COLOR = 0xFF123456;
+
+	// largest number of mismatches printed
+	private static final int MAX_PRINTED = 10;
+
+	public static void main(String[] argv)
+	{
+		int maxSize = argv.length > 0 ? Integer.parseInt(argv[0]) : MAX_SIZE;
+
+		long images = 0, pixels = 0, mismatches = 0;
+		for (int w=1; w<=maxSize; w++)
+		{
+			for (int h=1; h<=maxSize; h++)
+			{
+				mismatches += compare_(w, h, mismatches < MAX_PRINTED);
+				images++;
+				pixels += w * h;
+			}
+		}
+		for (int []size : LARGE_SIZES)
+		{
+			mismatches += compare_(size[0], size[1], mismatches < MAX_PRINTED);
+			images++;
+			pixels += size[0] * size[1];
+		}
+
+		System.out.printf("%d images, %d pixels, %d mismatches%n", images, pixels, mismatches);
+		if (mismatches != 0)
+			System.exit(1);
+		System.out.println("OK");
+	}
+
+	/**	Masks an image of a size both ways, and compares the pixels
+	 *
+	 * @param w			width of the image
+	 * @param h			height of the image
+	 * @param report	true to print the first pixel that differs
+	 * @return	the number of pixels that differ
+	 */
+	private static int compare_(int w, int h, boolean report)
+	{
+		PImage img = new PImage(w, h, PConstants.ARGB);
+		Arrays.fill(img.pixels, COLOR);
+		FaceTexture.maskEllipse(img);
+
+		PImage expected = new PImage(w, h, PConstants.ARGB);
+		Arrays.fill(expected.pixels, COLOR);
+		maskPerPixel_(expected);
+
+		int mismatches = 0;
+		for (int k=0; k<w*h; k++)
+		{
+			if (img.pixels[k] != expected.pixels[k])
+			{
+				if (report && mismatches == 0)
+					System.out.printf("%dx%d image, pixel (%d, %d):  %08x, expected %08x%n", w, h,
+									  k % w, k / w, img.pixels[k], expected.pixels[k]);
+				mismatches++;
+			}
+		}
+		return mismatches;
+	}
+
+	// the mask PlayerFace had before:  each pixel tested against the ellipse
+	private static void maskPerPixel_(PImage img)
+	{
+		for (int i = 0; i < img.height; i++) {
+			for (int j = 0; j < img.width; j++){
+				if (isInside_(img, j, i) == false) {
+					img.pixels[i*img.pixelWidth + j] = 0x01FFFFFF;
+				}
+			}
+		}
+	}
+
+	// the equation PlayerFace.isInside had before
+	private static boolean isInside_(PImage img, float pixelX, float pixelY)
+	{
+		float distX = pixelX - img.width/2.0f;
+		float distY = pixelY - img.height/2.0f;
+		float a = img.width/2.0f;
+		float b = img.height/2.0f;
+		float value = 1.0f/(a*a) * (distX*distX) + 1.0f/(b*b) * (distY*distY);
+		return (value <= 1);
+	}
+}
@@ -0,0 +1,47 @@
+package finalProject;
+
+import processing.core.PGraphics;
+import processing.core.PImage;
+
+/**	A drawing surface that accepts every drawing call used by the graphic objects
+ * 	and does nothing with it.  It lets the harnesses run the full draw path of the
+ * 	figures without a window, and measure the cost of our own code separately
+ * 	from that of Processing's renderers.
+ * 
+ * 	It counts the primitives it receives, so that the work can't be optimized away.
+ * 
+ */
+public class NullGraphics extends PGraphics 
+{
+	// number of primitives (lines, ellipses, rectangles, images) received
+	public long primitiveCount = 0;
+	
+	public NullGraphics(int width, int height) {
+		this.width = width;
+		this.height = height;
+	}
+	
+	public void pushMatrix() {}
+	public void popMatrix() {}
+	public void translate(float x, float y) {}
+	public void rotate(float angle) {}
+	public void scale(float s) {}
+	public void scale(float sx, float sy) {}
+	
+	public void fill(int rgb) {}
+	public void fill(float v1, float v2, float v3) {}
+	public void noFill() {}
+	public void stroke(int rgb) {}
+	public void stroke(float v1, float v2, float v3) {}
+	public void noStroke() {}
+	public void strokeWeight(float weight) {}
+	
+	public void line(float x1, float y1, float x2, float y2) { primitiveCount++; }
+	public void ellipse(float a, float b, float c, float d) { primitiveCount++; }
+	public void rect(float a, float b, float c, float d) { primitiveCount++; }
+	public void image(PImage img, float a, float b) { primitiveCount++; }
+	public void image(PImage img, float a, float b, float c, float d) { primitiveCount++; }
+	
+	public void loadPixels() {}
+	public void updatePixels() {}
+}
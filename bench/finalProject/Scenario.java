@@ -0,0 +1,120 @@
+package finalProject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import processing.core.PConstants;
+
+/**	A scripted match:  a list of key presses at given simulated times, a duration,
+ * 	and the budgets the match must stay within when it is replayed by the ScenarioRunner.
+ * 
+ * 	The key presses are the ones a player would type (see MainClass), and they are
+ * 	replayed through the same key handler as the sketch.
+ * 
+ */
+public class Scenario implements PConstants
+{
+	/**	A key press at a given simulated time
+	 */
+	static class KeyEvent
+	{
+		final float time;
+		final char key;
+		final int keyCode;
+		
+		KeyEvent(float time, char key, int keyCode)
+		{
+			this.time = time;
+			this.key = key;
+			this.keyCode = keyCode;
+		}
+	}
+	
+	private final String name_;
+	private final float duration_;
+	
+	// budgets for the cost of a single tick (in ns) and for the whole run (in bytes)
+	private final long p99Budget_, maxBudget_, allocationBudget_;
+	
+	// the key presses, sorted by time
+	private final List<KeyEvent> events_ = new ArrayList<KeyEvent>();
+	
+	/**	Creates a scenario without any key press
+	 * 
+	 * @param name				name of the scenario, used in the reports
+	 * @param duration			simulated duration of the match (in seconds)
+	 * @param p99Budget			99th percentile of the tick cost that must not be exceeded (in ns)
+	 * @param maxBudget			maximum tick cost that must not be exceeded (in ns)
+	 * @param allocationBudget	maximum number of bytes allocated over the whole match
+	 */
+	public Scenario(String name, float duration, long p99Budget, long maxBudget, long allocationBudget)
+	{
+		name_ = name;
+		duration_ = duration;
+		p99Budget_ = p99Budget;
+		maxBudget_ = maxBudget;
+		allocationBudget_ = allocationBudget;
+	}
+	
+	/**	Adds the press of a character key
+	 * 
+	 * @param time	simulated time of the press (in seconds)
+	 * @param key	the key pressed
+	 */
+	public void press(float time, char key)
+	{
+		add_(new KeyEvent(time, key, 0));
+	}
+	
+	/**	Adds the press of a coded key (arrows, shift)
+	 * 
+	 * @param time		simulated time of the press (in seconds)
+	 * @param keyCode	the code of the key pressed
+	 */
+	public void pressCoded(float time, int keyCode)
+	{
+		add_(new KeyEvent(time, (char) CODED, keyCode));
+	}
+	
+	/**	Adds presses of a character key at a regular interval
+	 * 
+	 * @param start		simulated time of the first press (in seconds)
+	 * @param end		no press after this time (in seconds)
+	 * @param period	time between two presses (in seconds)
+	 * @param key		the key pressed
+	 */
+	public void repeat(float start, float end, float period, char key)
+	{
+		for (float t=start; t<=end; t+=period)
+			press(t, key);
+	}
+	
+	/**	Adds presses of a coded key at a regular interval
+	 * 
+	 * @param start		simulated time of the first press (in seconds)
+	 * @param end		no press after this time (in seconds)
+	 * @param period	time between two presses (in seconds)
+	 * @param keyCode	the code of the key pressed
+	 */
+	public void repeatCoded(float start, float end, float period, int keyCode)
+	{
+		for (float t=start; t<=end; t+=period)
+			pressCoded(t, keyCode);
+	}
+	
+	private void add_(KeyEvent event)
+	{
+		int i = events_.size();
+		while (i > 0 && events_.get(i-1).time > event.time)
+			i--;
+		events_.add(i, event);
+	}
+	
+	public String getName() { return name_; }
+	public float getDuration() { return duration_; }
+	public long getP99Budget() { return p99Budget_; }
+	public long getMaxBudget() { return maxBudget_; }
+	public long getAllocationBudget() { return allocationBudget_; }
+	
+	List<KeyEvent> getEvents() { return events_; }
+}
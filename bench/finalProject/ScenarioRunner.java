@@ -0,0 +1,185 @@
+package finalProject;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import processing.core.PConstants;
+
+/**	Replays scripted matches without a window and checks them against their budgets.
+ * 
+ * 	Every tick of a scenario is one simulation step followed by the drawing of both
+ * 	fighters and their faces into a NullGraphics.  The cost of each tick is measured 
+ * 	with System.nanoTime, and the bytes allocated over the whole match are read from 
+ * 	the JVM's ThreadMXBean.  Each scenario is played once to warm up, then measured.
+ * 
+ * 	The program prints p50/p99/max tick times and allocations for each scenario, and
+ * 	exits with status 1 if any scenario went over one of its budgets.
+ * 
+ * 	Usage:  java finalProject.ScenarioRunner [scenario name ...]
+ * 
+ */
+public class ScenarioRunner implements ApplicationConstants, PConstants
+{
+	/**	Default budgets:  generous enough for a shared CI machine, tight
+	 * 	enough to catch a change that makes the frame path heavier.
+	 * 	The maximum has to leave room for the thread being descheduled by the
+	 * 	OS once or twice during a run, which costs a few ms each time.
+	 */
+	static final long DEFAULT_P99_BUDGET = 100000L;			//	0.1 ms
+	static final long DEFAULT_MAX_BUDGET = 20000000L;		//	20 ms
+	static final long DEFAULT_ALLOCATION_BUDGET = 0L;
+	
+	/**	Number of times a scenario is played before being measured
+	 */
+	static final int WARM_UP_RUNS = 5;
+	
+	/**	Results of the replay of a scenario
+	 */
+	static class Result
+	{
+		long p50, p99, max;
+		long allocatedBytes;
+		int numTicks;
+	}
+	
+	/**	Builds the scenarios shipped with the project
+	 * 
+	 * @return	the list of scenarios
+	 */
+	static List<Scenario> standardScenarios()
+	{
+		List<Scenario> scenarios = new ArrayList<Scenario>();
+		
+		//	both players walk toward each other, then back
+		Scenario walk = new Scenario("walk", 20, DEFAULT_P99_BUDGET, DEFAULT_MAX_BUDGET, DEFAULT_ALLOCATION_BUDGET);
+		walk.repeatCoded(0, 5, 0.75f, RIGHT);
+		walk.repeat(0, 5, 0.75f, 'a');
+		walk.repeatCoded(10, 15, 0.75f, LEFT);
+		walk.repeat(10, 15, 0.75f, 'd');
+		scenarios.add(walk);
+		
+		//	both players keep jumping
+		Scenario jump = new Scenario("jump", 20, DEFAULT_P99_BUDGET, DEFAULT_MAX_BUDGET, DEFAULT_ALLOCATION_BUDGET);
+		jump.repeatCoded(0, 20, 1.5f, UP);
+		jump.repeat(0.7f, 20, 1.5f, 'w');
+		scenarios.add(jump);
+		
+		//	the players get in range, then hammer the punch keys faster than the punches last
+		Scenario punchSpam = new Scenario("punchSpam", 30, DEFAULT_P99_BUDGET, DEFAULT_MAX_BUDGET, DEFAULT_ALLOCATION_BUDGET);
+		punchSpam.repeatCoded(0, 1.5f, 0.75f, RIGHT);
+		punchSpam.repeat(0, 1.5f, 0.75f, 'a');
+		punchSpam.repeat(3, 30, 0.05f, '/');
+		punchSpam.repeatCoded(3.02f, 30, 0.07f, SHIFT);
+		punchSpam.repeat(3.01f, 30, 0.05f, 'q');
+		punchSpam.repeat(3.03f, 30, 0.07f, 'e');
+		scenarios.add(punchSpam);
+		
+		//	a bit of everything
+		Scenario mixed = new Scenario("mixed", 60, DEFAULT_P99_BUDGET, DEFAULT_MAX_BUDGET, DEFAULT_ALLOCATION_BUDGET);
+		mixed.repeatCoded(0, 60, 2.1f, RIGHT);
+		mixed.repeat(0.3f, 60, 1.9f, 'a');
+		mixed.repeatCoded(0.9f, 60, 3.3f, UP);
+		mixed.repeat(1.1f, 60, 2.9f, 'w');
+		mixed.repeat(0.5f, 60, 0.45f, '/');
+		mixed.repeat(0.6f, 60, 0.55f, 'e');
+		mixed.repeatCoded(1.4f, 60, 4.1f, LEFT);
+		mixed.repeat(1.6f, 60, 3.7f, 'd');
+		scenarios.add(mixed);
+		
+		return scenarios;
+	}
+	
+	/**	Plays a scenario from the start of a new match
+	 * 
+	 * @param scenario	the scenario to play
+	 * @return	the measurements of the run
+	 */
+	static Result play(Scenario scenario)
+	{
+		com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		
+		Simulation sim = new Simulation(null, null);
+		NullGraphics g = new NullGraphics(WINDOW_WIDTH, WINDOW_HEIGHT);
+		List<Scenario.KeyEvent> events = scenario.getEvents();
+		int numTicks = (int) Math.ceil(scenario.getDuration() * Simulation.TICK_RATE);
+		long []tickCost = new long[numTicks];
+		int nextEvent = 0;
+		
+		long bytesBefore = bean.getThreadAllocatedBytes(threadId);
+		for (int k=0; k<numTicks; k++)
+		{
+			long start = System.nanoTime();
+			
+			float time = sim.getTime();
+			while (nextEvent < events.size() && events.get(nextEvent).time <= time)
+			{
+				Scenario.KeyEvent event = events.get(nextEvent++);
+				MainClass.applyGameKey(sim, event.key, event.keyCode);
+			}
+			
+			sim.step();
+			for (int p=0; p<Simulation.NUM_PLAYERS; p++)
+				sim.getFighter(p).draw(g);
+			for (int p=0; p<Simulation.NUM_PLAYERS; p++)
+				sim.getFace(p).draw(g);
+			
+			tickCost[k] = System.nanoTime() - start;
+		}
+		long bytesAfter = bean.getThreadAllocatedBytes(threadId);
+		
+		Arrays.sort(tickCost);
+		Result result = new Result();
+		result.numTicks = numTicks;
+		result.p50 = tickCost[(numTicks-1)/2];
+		result.p99 = tickCost[(int) Math.ceil(0.99*numTicks) - 1];
+		result.max = tickCost[numTicks-1];
+		result.allocatedBytes = bytesAfter - bytesBefore;
+		return result;
+	}
+	
+	/**	Checks a result against the budgets of its scenario, and prints it
+	 * 
+	 * @param scenario	the scenario that was played
+	 * @param result	the measurements of the run
+	 * @return	true if the run stayed within all the budgets
+	 */
+	static boolean report(Scenario scenario, Result result)
+	{
+		boolean ok = result.p99 <= scenario.getP99Budget()
+					&& result.max <= scenario.getMaxBudget()
+					&& result.allocatedBytes <= scenario.getAllocationBudget();
+		
+		System.out.printf("%-10s %6d ticks   p50 %8.2f us   p99 %8.2f us   max %9.2f us   alloc %9d B   %s%n",
+						  scenario.getName(), result.numTicks, 
+						  result.p50*1E-3, result.p99*1E-3, result.max*1E-3,
+						  result.allocatedBytes, ok ? "OK" : "OVER BUDGET");
+		if (!ok)
+			System.out.printf("%-10s budgets:  p99 %8.2f us   max %9.2f us   alloc %9d B%n", "",
+							  scenario.getP99Budget()*1E-3, scenario.getMaxBudget()*1E-3, 
+							  scenario.getAllocationBudget());
+		return ok;
+	}
+	
+	public static void main(String[] argv)
+	{
+		List<String> selected = Arrays.asList(argv);
+		boolean allOk = true;
+		
+		for (Scenario scenario : standardScenarios())
+		{
+			if (!selected.isEmpty() && !selected.contains(scenario.getName()))
+				continue;
+			
+			//	first runs to get the code loaded and compiled
+			for (int k=0; k<WARM_UP_RUNS; k++)
+				play(scenario);
+			allOk &= report(scenario, play(scenario));
+		}
+		
+		if (!allOk)
+			System.exit(1);
+	}
+}
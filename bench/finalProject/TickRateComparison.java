@@ -0,0 +1,125 @@
+package finalProject;
+
+/**	Compares the punches that land at different tick rates, with the point and the
+ * 	swept fist tests of the GeometryCollisionEngine.
+ *
+ * 	A player throws a punch (left or right) at an opponent standing still, placed at
+ * 	a range of horizontal and vertical offsets.  Each punch is played in a match of its
+ * 	own, at each tick rate, until the punch is over;  the punch landed if the opponent
+ * 	lost health.  The ground truth is the point test at GROUND_TRUTH_RATE ticks per
+ * 	second, fine enough for the fist to move much less than its radius in a tick.
+ *
+ * 	Whole matches can't be compared this way:  at a lower tick rate, the walks and the
+ * 	commands fall on other ticks, so the players end up elsewhere.  Here the only thing
+ * 	that changes with the rate is how often the fist is tested.
+ *
+ * 	The program prints, for each rate and test, the number of punches that landed and
+ * 	the number of outcomes that differ from the ground truth.  It exits with status 1
+ * 	if the swept test differs from the ground truth on more than TOLERANCE of the punches.
+ *
+ * 	Usage:  java finalProject.TickRateComparison
+ *
+ */
+public class TickRateComparison
+{
+	/**	Tick rates compared
+	 */
+	static final float []TICK_RATES = {Simulation.TICK_RATE, 30, 20};
+
+	/**	Tick rate of the ground truth
+	 */
+	static final float GROUND_TRUTH_RATE = 1200;
+
+	/**	Largest fraction of the punches on which the swept test may differ from the ground truth
+	 */
+	static final float TOLERANCE = 0.01f;
+
+	/**	Offsets of the opponent:  from -MAX_DX to MAX_DX by STEP horizontally,
+	 * 	from -MAX_DY to MAX_DY by STEP vertically (in world units)
+	 */
+	static final float MAX_DX = 6, MAX_DY = 2, STEP = 0.05f;
+
+	/**	Simulated time a punch is played for (in seconds), longer than the punch clips
+	 */
+	static final float PUNCH_DURATION = 0.5f;
+
+	/**	Plays a punch
+	 *
+	 * @param engine	collision engine of the match
+	 * @param tickRate	number of ticks per simulated second
+	 * @param left		true for a left punch, false for a right punch
+	 * @param dx		horizontal offset of the opponent
+	 * @param dy		vertical offset of the opponent
+	 * @return	true if the punch landed
+	 */
+	static boolean punchLands(CollisionEngine engine, float tickRate, boolean left, float dx, float dy)
+	{
+		Simulation sim = new Simulation(null, null, engine, tickRate);
+		sim.getFighter(Simulation.PLAYER_ONE).x_ = 0;
+		sim.getFighter(Simulation.PLAYER_TWO).x_ = dx;
+		sim.getFighter(Simulation.PLAYER_TWO).y_ = dy;
+		if (left)
+			sim.punchLeft(Simulation.PLAYER_ONE);
+		else
+			sim.punchRight(Simulation.PLAYER_ONE);
+
+		int numTicks = (int) Math.ceil(PUNCH_DURATION * tickRate);
+		for (int k=0; k<numTicks; k++)
+			sim.step();
+		return sim.getHealth(Simulation.PLAYER_TWO) < Simulation.STARTING_HEALTH;
+	}
+
+	public static void main(String[] argv)
+	{
+		int numX = Math.round(2 * MAX_DX / STEP) + 1, numY = Math.round(2 * MAX_DY / STEP) + 1;
+		int numPunches = 2 * numX * numY;
+
+		CollisionEngine swept = new GeometryCollisionEngine(true), point = new GeometryCollisionEngine(false);
+		boolean []truth = new boolean[numPunches];
+		int truthHits = 0;
+		for (int k=0; k<numPunches; k++)
+		{
+			truth[k] = punchLands(point, GROUND_TRUTH_RATE, k % 2 == 0, dx_(k, numY), dy_(k, numY));
+			if (truth[k])
+				truthHits++;
+		}
+		System.out.printf("%d punches, %d landed at %.0f Hz%n", numPunches, truthHits, GROUND_TRUTH_RATE);
+		System.out.printf("%6s %6s %8s %8s%n", "rate", "test", "landed", "wrong");
+
+		boolean ok = true;
+		for (float rate : TICK_RATES)
+		{
+			for (CollisionEngine engine : new CollisionEngine[] {point, swept})
+			{
+				int hits = 0, wrong = 0;
+				for (int k=0; k<numPunches; k++)
+				{
+					boolean landed = punchLands(engine, rate, k % 2 == 0, dx_(k, numY), dy_(k, numY));
+					if (landed)
+						hits++;
+					if (landed != truth[k])
+						wrong++;
+				}
+
+				boolean isSwept = ((GeometryCollisionEngine) engine).isSwept();
+				System.out.printf("%6.0f %6s %8d %8d%n", rate, isSwept ? "swept" : "point", hits, wrong);
+				if (isSwept && wrong > TOLERANCE * numPunches)
+					ok = false;
+			}
+		}
+
+		if (!ok)
+			System.exit(1);
+	}
+
+	// offsets of the opponent for punch k:  both punches at each offset, row by row
+	private static float dx_(int k, int numY)
+	{
+		return -MAX_DX + (k / 2 / numY) * STEP;
+	}
+
+	private static float dy_(int k, int numY)
+	{
+		return -MAX_DY + (k / 2 % numY) * STEP;
+	}
+}
@@ -0,0 +1,27 @@
+#!/bin/sh
+#	Compiles the sketch into out (or $OUT):
+#
+#		CORE_JAR=path/to/core.jar ./build.sh
+#
+#	src is compiled with a plain javac.  The vector kernel of the hit test (src-vector)
+#	needs the jdk.incubator.vector module, so it is compiled after src, and only when
+#	the JDK has the module;  otherwise LimbKernel.select() uses the scalar kernel.
+#	The bench folder is compiled as well when JMH_CP lists the JMH jars (jmh-core,
+#	jmh-generator-annprocess and their dependencies).
+set -e
+cd "$(dirname "$0")"
+: "${CORE_JAR:?set CORE_JAR to the path of Processing's core.jar}"
+OUT=${OUT:-out}
+mkdir -p "$OUT"
+
+javac -encoding UTF-8 -cp "$CORE_JAR" -d "$OUT" src/finalProject/*.java
+
+if [ -n "$JMH_CP" ]; then
+	javac -encoding UTF-8 -cp "$OUT:$CORE_JAR:$JMH_CP" -d "$OUT" bench/finalProject/*.java
+fi
+
+if java --list-modules 2>/dev/null | grep -q '^jdk\.incubator\.vector@'; then
+	javac -encoding UTF-8 --add-modules jdk.incubator.vector -cp "$OUT:$CORE_JAR" -d "$OUT" src-vector/finalProject/*.java
+else
+	echo "build.sh: no jdk.incubator.vector module, the hit test will use the scalar kernel" >&2
+fi
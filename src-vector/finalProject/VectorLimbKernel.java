@@ -0,0 +1,88 @@
+package finalProject;
+
+import java.util.BitSet;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**	Tests the points against the limbs several points at a time, with the Vector API.
+ * 
+ * 	Each lane brings its point into the frame of the pose, then runs the same float 
+ * 	operations as Skeleton.capsuleContains, in the same order, so the results are the 
+ * 	same bit for bit.
+ * 
+ * 	This class needs the jdk.incubator.vector module, both to compile and to run, so
+ * 	it lives in a source folder of its own (src-vector), which build.sh compiles after
+ * 	src, and only when the JDK has the module.  Nothing in src refers to it:  it is
+ * 	only loaded by name, through LimbKernel.select(), which falls back to the scalar
+ * 	kernel when the class or the module is missing.
+ * 
+ */
+class VectorLimbKernel implements LimbKernel 
+{
+	private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+	
+	public void limbsContain(Skeleton skeleton, float []nodeX, float []nodeY, int nodeOffset, 
+							 float originX, float originY, float cosAngle, float sinAngle,
+							 float []xs, float []ys, int count, BitSet hits)
+	{
+		final int numLimbs = skeleton.getNumLimbs();
+		final int end = SPECIES.loopBound(count);
+		int k = 0;
+		
+		for (; k<end; k+=SPECIES.length())
+		{
+			//	the points in the frame of the pose
+			FloatVector dx0 = FloatVector.fromArray(SPECIES, xs, k).sub(originX);
+			FloatVector dy0 = FloatVector.fromArray(SPECIES, ys, k).sub(originY);
+			FloatVector x = dx0.mul(cosAngle).add(dy0.mul(sinAngle));
+			FloatVector y = dy0.mul(cosAngle).sub(dx0.mul(sinAngle));
+			VectorMask<Float> hit = SPECIES.maskAll(false);
+			
+			for (int i=0; i<numLimbs; i++)
+			{
+				int s = nodeOffset + skeleton.getLimbStart(i), e = nodeOffset + skeleton.getLimbEnd(i);
+				float x0 = nodeX[s], y0 = nodeY[s], x1 = nodeX[e], y1 = nodeY[e];
+				float r2 = skeleton.getLimbRadius(i) * skeleton.getLimbRadius(i);
+				
+				//	limb vector
+				float limbX = x1 - x0;
+				float limbY = y1 - y0;
+				float n2 = limbX * limbX + limbY * limbY;
+				
+				//	vector from the start of the limb to the points
+				FloatVector vectorX1 = x.sub(x0);
+				FloatVector vectorY1 = y.sub(y0);
+				
+				//	position of the closest point of the segment, 0 for a limb of length 0
+				FloatVector alpha = n2 > 0 ? vectorX1.mul(limbX).add(vectorY1.mul(limbY)).div(n2)
+										   : FloatVector.zero(SPECIES);
+				alpha = alpha.min(1).max(0);
+				
+				//	squared distance from the points to the closest point of the segment
+				FloatVector dx = vectorX1.sub(alpha.mul(limbX));
+				FloatVector dy = vectorY1.sub(alpha.mul(limbY));
+				hit = hit.or(dx.mul(dx).add(dy.mul(dy)).compare(VectorOperators.LT, r2));
+			}
+			
+			long bits = hit.toLong();
+			while (bits != 0)
+			{
+				hits.set(k + Long.numberOfTrailingZeros(bits));
+				bits &= bits - 1;
+			}
+		}
+		
+		//	the points left over, one at a time
+		for (; k<count; k++)
+		{
+			if (hits.get(k))
+				continue;
+			float dx = xs[k] - originX, dy = ys[k] - originY;
+			if (skeleton.limbsContain(nodeX, nodeY, nodeOffset, cosAngle*dx + sinAngle*dy, cosAngle*dy - sinAngle*dx))
+				hits.set(k);
+		}
+	}
+}
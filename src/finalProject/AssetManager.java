@@ -0,0 +1,256 @@
+package finalProject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**	Loads the assets of the sketch (images, faces) on a few threads of its own, while
+ * 	the sketch shows that it is loading.
+ *
+ * 	Each asset is loaded by a loader given to require or defer, and start hands them to
+ * 	a pool of at most MAX_THREADS threads:
+ * 		- the required assets (the ones the first frame needs) are loaded at once, all
+ * 		  of them at the same time;
+ * 		- the deferred ones (e.g. the win screen) are only loaded once all the required
+ * 		  assets are, so that they don't delay the first frame.
+ * 	isReady tells when the required assets are loaded.  The time each asset took to
+ * 	load is printed as it is loaded, and the time it took to load all the required
+ * 	ones is kept, so that the startup time can be measured.
+ *
+ * 	An asset whose loader throws, or gives null (as Processing's loadImage does when
+ * 	the file is missing), fails:  the failure is printed instead of the time, the asset
+ * 	still counts as loaded, and get gives null.  It is up to the sketch to do without
+ * 	it.
+ *
+ */
+public class AssetManager
+{
+	/**	Largest number of assets loaded at the same time
+	 */
+	public static final int MAX_THREADS = 4;
+
+	/**	An asset, loaded or not
+	 *
+	 * @param <T>	type of the asset
+	 */
+	public class Asset<T> implements Runnable
+	{
+		private final String name_;
+		private final boolean deferred_;
+		private final FutureTask<T> task_;
+
+		// time it took to load the asset (in nanoseconds), negative until it is loaded
+		private volatile long loadNanos_ = -1;
+
+		private Asset(String name, Callable<T> loader, boolean deferred)
+		{
+			name_ = name;
+			deferred_ = deferred;
+			task_ = new FutureTask<>(loader);
+		}
+
+		public void run()
+		{
+			long start = System.nanoTime();
+			task_.run();
+			loadNanos_ = System.nanoTime() - start;
+
+			String failure = null;
+			try {
+				if (task_.get() == null)
+					failure = "the loader returned null";
+			}
+			catch (ExecutionException e) {
+				failure = String.valueOf(e.getCause());
+			}
+			catch (InterruptedException e) {
+				failure = "interrupted";
+			}
+			if (failure != null)
+				System.out.println(String.format("%-20s could not be loaded (%s)%s", name_, failure,
+												 deferred_ ? "  (deferred)" : ""));
+			else
+				System.out.println(String.format("%-20s %8.1f ms%s", name_, getLoadTime(),
+												 deferred_ ? "  (deferred)" : ""));
+			if (!deferred_)
+				requiredLoaded_();
+		}
+
+		/** returns the asset, waiting for it to be loaded if it isn't yet
+		 *
+		 * @return	the asset, null if it failed to load
+		 */
+		public T get()
+		{
+			try {
+				return task_.get();
+			}
+			catch (ExecutionException e) {
+				return null;
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("interrupted while loading " + name_, e);
+			}
+		}
+
+		/** tells whether the asset is loaded
+		 *
+		 * @return	true if get won't wait
+		 */
+		public boolean isLoaded()
+		{
+			return task_.isDone();
+		}
+
+		/** returns the name of the asset
+		 *
+		 * @return	the name given when the asset was added
+		 */
+		public String getName()
+		{
+			return name_;
+		}
+
+		/** returns the time it took to load the asset
+		 *
+		 * @return	the load time (in milliseconds), negative if the asset isn't loaded yet
+		 */
+		public float getLoadTime()
+		{
+			return loadNanos_ < 0 ? -1 : loadNanos_ * 1E-6f;
+		}
+	}
+
+	private final List<Asset<?>> required_ = new ArrayList<>();
+	private final List<Asset<?>> deferred_ = new ArrayList<>();
+
+	private ExecutorService pool_;
+
+	// number of required assets not loaded yet
+	private final AtomicInteger pendingRequired_ = new AtomicInteger();
+
+	// when start was called, and the time it took to load the required assets (in
+	// nanoseconds, negative until they are)
+	private long startTime_;
+	private volatile long readyNanos_ = -1;
+
+	/**	Adds an asset the first frame needs.  Must be called before start.
+	 *
+	 * @param name		name of the asset, for the report
+	 * @param loader	loads the asset
+	 * @param <T>		type of the asset
+	 * @return	the asset
+	 */
+	public <T> Asset<T> require(String name, Callable<T> loader)
+	{
+		Asset<T> asset = new Asset<>(name, loader, false);
+		required_.add(asset);
+		return asset;
+	}
+
+	/**	Adds an asset the first frame doesn't need.  Must be called before start.
+	 *
+	 * @param name		name of the asset, for the report
+	 * @param loader	loads the asset
+	 * @param <T>		type of the asset
+	 * @return	the asset
+	 */
+	public <T> Asset<T> defer(String name, Callable<T> loader)
+	{
+		Asset<T> asset = new Asset<>(name, loader, true);
+		deferred_.add(asset);
+		return asset;
+	}
+
+	/**	Starts loading the assets
+	 *
+	 */
+	public void start()
+	{
+		AtomicInteger threads = new AtomicInteger();
+		pool_ = Executors.newFixedThreadPool(Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors()),
+											 r -> {
+												 Thread t = new Thread(r, "assets-" + threads.incrementAndGet());
+												 t.setDaemon(true);
+												 return t;
+											 });
+		startTime_ = System.nanoTime();
+		pendingRequired_.set(required_.size());
+		if (required_.isEmpty())
+			requiredLoaded_(0);
+		else
+			for (Asset<?> asset : required_)
+				pool_.execute(asset);
+	}
+
+	// called each time a required asset is loaded
+	private void requiredLoaded_()
+	{
+		requiredLoaded_(pendingRequired_.decrementAndGet());
+	}
+
+	// once the required assets are loaded, the deferred ones are started, and the
+	// pool ends once they are loaded as well
+	private void requiredLoaded_(int pending)
+	{
+		if (pending != 0 || pool_.isShutdown())
+			return;
+		readyNanos_ = System.nanoTime() - startTime_;
+		for (Asset<?> asset : deferred_)
+			pool_.execute(asset);
+		pool_.shutdown();
+	}
+
+	/**	Stops loading the assets:  the ones not started are dropped, and the threads
+	 * 	loading the others are interrupted
+	 *
+	 */
+	public void shutdownNow()
+	{
+		if (pool_ != null)
+			pool_.shutdownNow();
+	}
+
+	/** tells whether the assets the first frame needs are loaded
+	 *
+	 * @return	true if all the required assets are loaded
+	 */
+	public boolean isReady()
+	{
+		return readyNanos_ >= 0;
+	}
+
+	/** returns the number of required assets loaded
+	 *
+	 * @return	the number of required assets loaded so far
+	 */
+	public int getLoadedCount()
+	{
+		return required_.size() - pendingRequired_.get();
+	}
+
+	/** returns the number of required assets
+	 *
+	 * @return	the number of assets the first frame needs
+	 */
+	public int getRequiredCount()
+	{
+		return required_.size();
+	}
+
+	/** returns the time it took to load the assets the first frame needs
+	 *
+	 * @return	the time from start until the required assets were loaded (in milliseconds),
+	 * 			negative if they aren't loaded yet
+	 */
+	public float getReadyTime()
+	{
+		return readyNanos_ < 0 ? -1 : readyNanos_ * 1E-6f;
+	}
+}
@@ -0,0 +1,117 @@
+package finalProject;
+
+import java.util.Arrays;
+
+/**	An interpolator that samples another interpolator once into a flat table, and
+ * 	then answers lookups with a single index computation and a linear interpolation
+ * 	between the two neighboring samples.  No interval search is needed, whatever the
+ * 	number of keyframes of the original clip.
+ * 
+ * 	The clip is sampled at a fixed rate, and also at the time of every keyframe:  a
+ * 	keyframe that falls between two samples of the fixed rate (e.g. the 0.69 s stop of
+ * 	a walk, or the edges of a punch's active window) would otherwise be blurred, and
+ * 	tests such as "active >= 1" would change.  Between two samples, the clip is linear,
+ * 	as it is between two keyframes, so a baked clip gives the same values as the
+ * 	linear one up to rounding, and exactly the keyframe values at the keyframe times.
+ * 	A lookup finds the fixed-rate sample before it by an index computation, then skips
+ * 	the keyframe samples inserted after that one, if any.
+ * 
+ * 	The samples are stored one after the other:  channel k of sample s is at 
+ * 	s*dimension + k, so both samples needed by a lookup are next to each other.
+ * 
+ */
+public class BakedKeyframeInterpolator extends KeyframeInterpolator {
+
+	// the sampled state vectors, and the time of each sample
+	private final float []table_;
+	private final float []times_;
+	
+	private final int dimension_;
+	private final int numSamples_;
+	
+	// time of the first sample and inverse of the time between two fixed-rate samples
+	private final float t0_;
+	private final float samplesPerSecond_;
+	
+	// index in the table of each fixed-rate sample
+	private final int []fixedSample_;
+	
+	/**	Bakes an interpolator.  The sampling step is adjusted so that the first
+	 * 	and last samples fall exactly on the first and last keyframes.
+	 * 
+	 * @param source		the interpolator to sample
+	 * @param sampleRate	the minimum number of samples per second
+	 */
+	public BakedKeyframeInterpolator(KeyframeInterpolator source, float sampleRate)
+	{
+		super(source.getTimeline());
+		
+		dimension_ = source.getStateDimension();
+		t0_ = timeline_.getStartTime();
+		float duration = timeline_.getEndTime() - t0_;
+		int numIntervals = Math.max(1, (int) Math.ceil(duration*sampleRate));
+		samplesPerSecond_ = duration > 0 ? numIntervals/duration : 0;
+		
+		//	the times of the fixed-rate samples and of the keyframes, merged in order
+		float []times = new float[numIntervals+1 + timeline_.getNumFrames()];
+		fixedSample_ = new int[numIntervals+1];
+		int count = 0;
+		for (int s=0, i=0; s<=numIntervals; s++)
+		{
+			float t = (s == numIntervals) ? timeline_.getEndTime() : t0_ + s*duration/numIntervals;
+			for (; i<timeline_.getNumFrames() && timeline_.getTime(i) <= t; i++)
+				if (count == 0 || timeline_.getTime(i) > times[count-1])
+					times[count++] = timeline_.getTime(i);
+			if (count == 0 || t > times[count-1])
+				times[count++] = t;
+			fixedSample_[s] = count-1;
+		}
+		numSamples_ = count;
+		times_ = Arrays.copyOf(times, count);
+		
+		table_ = new float[numSamples_*dimension_];
+		KeyframeCursor cursor = new KeyframeCursor();
+		for (int s=0; s<numSamples_; s++)
+			source.computeStateVector(times_[s], table_, s*dimension_, cursor);
+	}
+
+	public void computeStateVector(float t, float []stateVect, int offset, KeyframeCursor cursor)
+	{
+		float u = (t - t0_)*samplesPerSecond_;
+		
+		//	Before the first sample, or after the last one, we stay on the end samples
+		if (u <= 0)
+		{
+			System.arraycopy(table_, 0, stateVect, offset, dimension_);
+		}
+		else if (t >= times_[numSamples_-1])
+		{
+			System.arraycopy(table_, (numSamples_-1)*dimension_, stateVect, offset, dimension_);
+		}
+		else
+		{
+			//	the fixed-rate sample before t, then the keyframe samples between it and t
+			int s = fixedSample_[Math.min((int) u, fixedSample_.length-1)];
+			while (s > 0 && times_[s] > t)
+				s--;
+			while (times_[s+1] <= t)
+				s++;
+			
+			float tau = (t - times_[s]) / (times_[s+1] - times_[s]);
+			int base = s*dimension_;
+			for (int k=0; k<dimension_; k++, base++)
+			{
+				stateVect[offset+k] = table_[base] + tau*(table_[base+dimension_]-table_[base]);
+			}
+		}
+	}
+	
+	/**	returns the number of samples in the table
+	 * 
+	 * @return	the number of samples, keyframe samples included
+	 */
+	public int getNumSamples()
+	{
+		return numSamples_;
+	}
+}
@@ -0,0 +1,73 @@
+package finalProject;
+
+import java.util.Random;
+
+/**	Plays matches without a window, as fast as the CPU allows.
+ *  Each player presses a random control every few ticks, and a match stops when
+ *  one of the players has lost all their health or after a maximum simulated duration.
+ *
+ *  Usage:  java finalProject.BatchMatchRunner [numMatches [maxSeconds [seed [baked]]]]
+ *
+ */
+public class BatchMatchRunner
+{
+	/**	Average number of ticks between two commands of the same player
+	 */
+	private static final int TICKS_BETWEEN_COMMANDS = 8;
+
+	/**	Plays a single match with random commands
+	 *
+	 * @param rand			source of the players' commands
+	 * @param maxTicks		maximum number of ticks the match can last
+	 * @return	the match, in the state it was in when it stopped
+	 */
+	public static Simulation playMatch(Random rand, long maxTicks)
+	{
+		Simulation sim = new Simulation(null, null);
+
+		while (!sim.isOver() && sim.getTick() < maxTicks)
+		{
+			for (int p=0; p<Simulation.NUM_PLAYERS; p++)
+			{
+				if (rand.nextInt(TICKS_BETWEEN_COMMANDS) == 0)
+				{
+					switch (rand.nextInt(5)) {
+					case 0: sim.moveLeft(p); break;
+					case 1: sim.moveRight(p); break;
+					case 2: sim.jump(p); break;
+					case 3: sim.punchLeft(p); break;
+					default: sim.punchRight(p); break;
+					}
+				}
+			}
+			sim.step();
+		}
+		return sim;
+	}
+
+	public static void main(String[] argv)
+	{
+		int numMatches = argv.length > 0 ? Integer.parseInt(argv[0]) : 1000;
+		float maxSeconds = argv.length > 1 ? Float.parseFloat(argv[1]) : 60;
+		long seed = argv.length > 2 ? Long.parseLong(argv[2]) : 406L;
+		GraphicObject.setBakeClips(argv.length > 3 && argv[3].equals("baked"));
+
+		long maxTicks = (long) (maxSeconds * Simulation.TICK_RATE);
+		Random rand = new Random(seed);
+		long totalTicks = 0;
+		int finished = 0;
+
+		long start = System.nanoTime();
+		for (int m=0; m<numMatches; m++)
+		{
+			Simulation sim = playMatch(rand, maxTicks);
+			totalTicks += sim.getTick();
+			if (sim.isOver())
+				finished++;
+		}
+		double elapsed = (System.nanoTime() - start) * 1E-9;
+
+		System.out.printf("%d matches (%d finished) in %.3f s: %.0f matches/s, %.0f ticks/s%n",
+						  numMatches, finished, elapsed, numMatches/elapsed, totalTicks/elapsed);
+	}
+}
@@ -0,0 +1,186 @@
+package finalProject;
+
+/**	Tests punches against pre-rendered masks of the figure's poses.
+ *
+ * 	When the engine is created, every clip is sampled POSE_SAMPLE_RATE times per second,
+ * 	and each sampled pose (plus the rest pose) is rasterised once, at world resolution
+ * 	(one bit per pixel of the window), into a packed bitmask:  a pixel is set if its
+ * 	center passes the geometric hit test of the figure.  A row of the mask is a few
+ * 	longs, bit c of the row being column c.
+ *
+ * 	The hit radii of the figure already count the fist in (see StickFigure.HAND_HIT_RADIUS),
+ * 	so the fist is a single point, as for GeometryCollisionEngine:  a punch lands if the
+ * 	pixel at the center of the fist is set in the target's mask, one shift and one AND.
+ *
+ * 	The figures are snapped to the pixel grid, their pose is the sample nearest to their
+ * 	animation time, and they are assumed to stand upright (the game never turns them).
+ * 	Creating the engine takes a while, but one engine can be shared by any number of matches.
+ *
+ */
+public class BitmaskCollisionEngine implements CollisionEngine, ApplicationConstants
+{
+	/**	Number of poses sampled per second of each clip
+	 */
+	public static final float POSE_SAMPLE_RATE = Simulation.TICK_RATE;
+
+	/**	Number of states of a figure (DO_NOTHING included)
+	 */
+	private static final int NUM_STATES = PUNCHING_RIGHT + 1;
+
+	// index of the first pose of each state's clip, and number of poses in the clip
+	private final int []firstPose_, numPoses_;
+
+	// mask of each pose:  numRows_ rows of numWords_ longs
+	private final long [][]mask_;
+	private final int []numRows_, numWords_;
+
+	// pixel of the figure's frame at the bottom left corner of each pose's mask
+	private final int []maskColumn_, maskRow_;
+
+	// pixel of the figure's frame the center of each fist falls on, for each pose
+	private final int []leftFistColumn_, leftFistRow_, rightFistColumn_, rightFistRow_;
+
+	/**	Creates the engine, and rasterises all the poses
+	 *
+	 */
+	public BitmaskCollisionEngine()
+	{
+		//	the poses of each clip
+		firstPose_ = new int[NUM_STATES];
+		numPoses_ = new int[NUM_STATES];
+		KeyframeInterpolator []clips = new KeyframeInterpolator[NUM_STATES];
+		int numPoses = 0;
+		for (int s=0; s<NUM_STATES; s++)
+		{
+			float [][]keyframes = StickFigure.clipKeyframes(s);
+			firstPose_[s] = numPoses;
+			if (keyframes == null)
+				numPoses_[s] = 1;
+			else
+			{
+				clips[s] = GraphicObject.createClipInterpolator_(keyframes);
+				numPoses_[s] = Math.round(clips[s].getTimeline().getEndTime() * POSE_SAMPLE_RATE) + 1;
+			}
+			numPoses += numPoses_[s];
+		}
+
+		mask_ = new long[numPoses][];
+		numRows_ = new int[numPoses];
+		numWords_ = new int[numPoses];
+		maskColumn_ = new int[numPoses];
+		maskRow_ = new int[numPoses];
+		leftFistColumn_ = new int[numPoses];
+		leftFistRow_ = new int[numPoses];
+		rightFistColumn_ = new int[numPoses];
+		rightFistRow_ = new int[numPoses];
+
+		float []joints = new float[StickFigure.NUM_CHANNELS];
+		for (int s=0; s<NUM_STATES; s++)
+			for (int k=0; k<numPoses_[s]; k++)
+			{
+				if (clips[s] != null)
+					clips[s].computeStateVector(k / POSE_SAMPLE_RATE, joints, 0);
+				rasterise_(firstPose_[s] + k, joints);
+			}
+	}
+
+	/**	Rasterises a pose
+	 *
+	 * @param pose		index of the pose
+	 * @param joints	joint angles of the pose
+	 */
+	private void rasterise_(int pose, float []joints)
+	{
+		int numNodes = StickFigure.NUM_NODES;
+		float []nodeX = new float[numNodes], nodeY = new float[numNodes];
+		float []nodeCos = new float[numNodes], nodeSin = new float[numNodes];
+		float []bounds = new float[StickFigure.BOX_SIZE];
+		StickFigure.SKELETON.computePose(0, 0, 0, joints, 0, nodeX, nodeY, nodeCos, nodeSin, 0);
+		StickFigure.computeHitBounds(nodeX, nodeY, 0, bounds, 0);
+
+		int column0 = (int) Math.floor(bounds[StickFigure.XMIN_INDEX] * WORLD_TO_PIXEL);
+		int column1 = (int) Math.ceil(bounds[StickFigure.XMAX_INDEX] * WORLD_TO_PIXEL);
+		int row0 = (int) Math.floor(bounds[StickFigure.YMIN_INDEX] * WORLD_TO_PIXEL);
+		int row1 = (int) Math.ceil(bounds[StickFigure.YMAX_INDEX] * WORLD_TO_PIXEL);
+		int numRows = row1 - row0, numWords = (column1 - column0 + 63) >>> 6;
+
+		long []mask = new long[numRows * numWords];
+		for (int r=0; r<numRows; r++)
+			for (int c=0; c<column1-column0; c++)
+			{
+				//	center of the pixel, in the figure's frame
+				float x = (column0 + c + 0.5f) * PIXEL_TO_WORLD;
+				float y = (row0 + r + 0.5f) * PIXEL_TO_WORLD;
+				if (StickFigure.contains(0, 0, 1, 0, nodeX, nodeY, 0, bounds, 0, x, y))
+					mask[r*numWords + (c >>> 6)] |= 1L << (c & 63);
+			}
+
+		mask_[pose] = mask;
+		numRows_[pose] = numRows;
+		numWords_[pose] = numWords;
+		maskColumn_[pose] = column0;
+		maskRow_[pose] = row0;
+		leftFistColumn_[pose] = (int) Math.floor(nodeX[StickFigure.LEFT_FIST_NODE] * WORLD_TO_PIXEL);
+		leftFistRow_[pose] = (int) Math.floor(nodeY[StickFigure.LEFT_FIST_NODE] * WORLD_TO_PIXEL);
+		rightFistColumn_[pose] = (int) Math.floor(nodeX[StickFigure.RIGHT_FIST_NODE] * WORLD_TO_PIXEL);
+		rightFistRow_[pose] = (int) Math.floor(nodeY[StickFigure.RIGHT_FIST_NODE] * WORLD_TO_PIXEL);
+	}
+
+	public boolean punchLands(StickFigure attacker, StickFigure target)
+	{
+		if (!attacker.isPunchActive())
+			return false;
+		int state = attacker.getState();
+
+		int a = pose_(state, attacker.getAnimationTime());
+		int t = pose_(target.getState(), target.getAnimationTime());
+
+		//	center of the fist, in pixels of the world
+		int fistColumn = pixel_(attacker.x_) + (state == PUNCHING_LEFT ? leftFistColumn_[a] : rightFistColumn_[a]);
+		int fistRow = pixel_(attacker.y_) + (state == PUNCHING_LEFT ? leftFistRow_[a] : rightFistRow_[a]);
+
+		//	center of the fist, in pixels of the target's mask
+		int column = fistColumn - (pixel_(target.x_) + maskColumn_[t]);
+		int row = fistRow - (pixel_(target.y_) + maskRow_[t]);
+
+		return isSet_(mask_[t], numRows_[t], numWords_[t], column, row);
+	}
+
+	/**	Checks whether a pixel is set in a pose's mask
+	 *
+	 * @param mask			the pose's mask
+	 * @param numRows		number of rows of the mask
+	 * @param numWords		number of longs per row of the mask
+	 * @param column		column of the pixel in the mask
+	 * @param row			row of the pixel in the mask
+	 * @return	true if the pixel is in the mask and set
+	 */
+	private static boolean isSet_(long []mask, int numRows, int numWords, int column, int row)
+	{
+		if (column < 0 || row < 0 || row >= numRows || column >= numWords << 6)
+			return false;
+		return (mask[row*numWords + (column >>> 6)] & (1L << (column & 63))) != 0;
+	}
+
+	// the pose nearest to a figure's animation time, in the clip of its state
+	private int pose_(int state, float animationTime)
+	{
+		int k = state == DO_NOTHING ? 0 : Math.round(animationTime * POSE_SAMPLE_RATE);
+		return firstPose_[state] + Math.max(0, Math.min(numPoses_[state] - 1, k));
+	}
+
+	// the pixel of the world a coordinate falls on
+	private static int pixel_(float v)
+	{
+		return Math.round(v * WORLD_TO_PIXEL);
+	}
+
+	/**	returns the number of poses rasterised
+	 *
+	 * @return	the number of poses, all clips together
+	 */
+	public int getNumPoses()
+	{
+		return mask_.length;
+	}
+}
@@ -0,0 +1,25 @@
+package finalProject;
+
+/**	Decides whether a punch lands.  A match (Simulation) is given one engine when it is
+ * 	created, so that different collision models can be compared on the same match.
+ *
+ * 	Two engines are provided:
+ * 		- GeometryCollisionEngine tests the fist, along the path it followed since the
+ * 		  last tick, against the figure's geometry (StickFigure.isSweptInside).  This is 
+ * 		  the default.
+ * 		- BitmaskCollisionEngine tests the fist against masks of the figure's poses,
+ * 		  rasterised once at world resolution.
+ *
+ */
+public interface CollisionEngine
+{
+	/**	Checks whether the fist of a punching figure is on another figure.  A punch can 
+	 * 	only land in the active window of its clip (see StickFigure.isPunchActive);  the
+	 * 	engine checks the window first, so that no collision work is done outside of it.
+	 *
+	 * @param attacker	the figure that may be punching
+	 * @param target	the figure that may get hit
+	 * @return	true if the attacker is punching and its fist is on the target
+	 */
+	boolean punchLands(StickFigure attacker, StickFigure target);
+}
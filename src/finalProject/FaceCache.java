@@ -0,0 +1,245 @@
+package finalProject;
+
+import java.awt.Image;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.ImageIcon;
+
+import processing.core.PApplet;
+import processing.core.PImage;
+
+/**	Keeps the masked faces on disk, so that a sketch started again doesn't decode and
+ * 	mask its images again.
+ *
+ * 	A face is stored in a file of its own, named after the SHA-256 hash of the bytes of
+ * 	the image it was made from, the face's width in the window, and the number of levels
+ * 	of its mip chain:  a changed image or a different size gets a file of its own, and a
+ * 	file never has to be checked against its image.  The file holds the pixels of each
+ * 	level of the mip chain, as they are.  It is written to a temporary file first, then
+ * 	moved in place, so that a file is either complete or missing.  On a miss, a JPEG
+ * 	image is decoded from the bytes already read for the hash, rather than read again.
+ *
+ * 	Any problem with the cache (a missing directory, a truncated file, a full disk)
+ * 	simply makes the face get decoded and masked again.  The cache is not used at all
+ * 	when the system property finalProject.noFaceCache is set to true.  Faces can be
+ * 	loaded from several threads at the same time (see AssetManager).
+ *
+ */
+public class FaceCache
+{
+	/**	Version of the layout of the files, part of their name
+	 */
+	public static final int VERSION = 1;
+
+	// start of a file
+	private static final int MAGIC = 0x46414345;
+
+	// values in the header of a file, and in the header of a level
+	private static final int HEADER_INTS = 5, LEVEL_HEADER_INTS = 3;
+
+	// where the files are
+	private final File directory_;
+
+	// number of faces read from the cache, and made from their image
+	private final AtomicInteger hits_ = new AtomicInteger(), misses_ = new AtomicInteger();
+
+	/**	Creates a cache in the default directory (finalProject-faces, in the temporary directory)
+	 *
+	 */
+	public FaceCache()
+	{
+		this(new File(System.getProperty("java.io.tmpdir"), "finalProject-faces"));
+	}
+
+	/**	Creates a cache
+	 *
+	 * @param directory		directory of the files, created when the first file is written
+	 */
+	public FaceCache(File directory)
+	{
+		directory_ = directory;
+	}
+
+	/**	Loads a face, from the cache if it is there, and from its image otherwise (it is
+	 * 	then added to the cache)
+	 *
+	 * @param app			the sketch, that finds the image
+	 * @param fileName		name of the image, as given to loadImage
+	 * @param pixelWidth	width of the face in the window (in pixels)
+	 * @return	the masked face, null if the image can't be loaded
+	 */
+	public FaceTexture load(PApplet app, String fileName, int pixelWidth)
+	{
+		File file = null;
+		byte []source = null;
+		if (!Boolean.getBoolean("finalProject.noFaceCache"))
+		{
+			source = app.loadBytes(fileName);
+			if (source != null)
+			{
+				file = new File(directory_, getKey(source, pixelWidth));
+				FaceTexture face = read_(file.toPath());
+				if (face != null)
+				{
+					hits_.incrementAndGet();
+					return face;
+				}
+			}
+		}
+
+		misses_.incrementAndGet();
+		//	the bytes already read are decoded if they can be, loadImage reads the file
+		//	again otherwise (e.g. for a JPEG ImageIcon can't decode)
+		PImage img = source != null && isJpeg_(fileName) ? decodeJpeg_(source) : null;
+		if (img == null)
+			img = app.loadImage(fileName);
+		if (img == null)
+			return null;
+		FaceTexture face = FaceTexture.create(img, pixelWidth);
+		if (file != null)
+			write_(file.toPath(), face);
+		return face;
+	}
+
+	/**	Computes the name of the file of a face
+	 *
+	 * @param source		bytes of the image the face is made from
+	 * @param pixelWidth	width of the face in the window (in pixels)
+	 * @return	the name of the file
+	 */
+	public static String getKey(byte []source, int pixelWidth)
+	{
+		byte []hash;
+		try {
+			hash = MessageDigest.getInstance("SHA-256").digest(source);
+		}
+		catch (NoSuchAlgorithmException e) {
+			//	every Java platform has SHA-256
+			throw new IllegalStateException(e);
+		}
+		StringBuilder key = new StringBuilder(hash.length*2 + 24);
+		for (byte b : hash)
+			key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		return key.append('-').append(pixelWidth).append('-').append(FaceTexture.NUM_MIP_LEVELS)
+				  .append(".v").append(VERSION).toString();
+	}
+
+	// tells whether an image is a JPEG, from its name, the way loadImage does
+	private static boolean isJpeg_(String fileName)
+	{
+		String name = fileName.toLowerCase();
+		return name.endsWith(".jpg") || name.endsWith(".jpeg");
+	}
+
+	// decodes a JPEG image from its bytes, the same way loadImage does (a JPEG has no
+	// alpha channel to check), null if the bytes aren't an image
+	private static PImage decodeJpeg_(byte []bytes)
+	{
+		Image awtImage = new ImageIcon(bytes).getImage();
+		PImage img = new PImage(awtImage);
+		return img.width > 0 && img.height > 0 ? img : null;
+	}
+
+	// reads a face, null if the file is missing or can't be read
+	private static FaceTexture read_(Path file)
+	{
+		if (!Files.isRegularFile(file))
+			return null;
+		try {
+			IntBuffer in = ByteBuffer.wrap(Files.readAllBytes(file)).asIntBuffer();
+			if (in.remaining() < HEADER_INTS || in.get() != MAGIC || in.get() != VERSION)
+				return null;
+			int sourceWidth = in.get(), sourceHeight = in.get();
+			PImage []levels = new PImage[in.get()];
+			if (levels.length != FaceTexture.NUM_MIP_LEVELS)
+				return null;
+			for (int k=0; k<levels.length; k++)
+			{
+				if (in.remaining() < LEVEL_HEADER_INTS)
+					return null;
+				int w = in.get(), h = in.get(), format = in.get();
+				if (w <= 0 || h <= 0 || in.remaining() < w*h)
+					return null;
+				levels[k] = new PImage(w, h, format);
+				levels[k].loadPixels();
+				in.get(levels[k].pixels, 0, w*h);
+				levels[k].updatePixels();
+			}
+			return new FaceTexture(sourceWidth, sourceHeight, levels);
+		}
+		catch (IOException | RuntimeException e) {
+			//	the face is made from its image again
+			return null;
+		}
+	}
+
+	// writes a face, and leaves the cache as it was if it can't
+	private void write_(Path file, FaceTexture face)
+	{
+		int size = HEADER_INTS;
+		for (int k=0; k<face.getNumLevels(); k++)
+			size += LEVEL_HEADER_INTS + face.getLevel(k).width * face.getLevel(k).height;
+
+		ByteBuffer bytes = ByteBuffer.allocate(4 * size);
+		IntBuffer out = bytes.asIntBuffer();
+		out.put(MAGIC).put(VERSION).put(face.getSourceWidth()).put(face.getSourceHeight()).put(face.getNumLevels());
+		for (int k=0; k<face.getNumLevels(); k++)
+		{
+			PImage level = face.getLevel(k);
+			level.loadPixels();
+			out.put(level.width).put(level.height).put(level.format);
+			out.put(level.pixels, 0, level.width * level.height);
+		}
+
+		Path temp = null;
+		try {
+			Files.createDirectories(directory_.toPath());
+			temp = Files.createTempFile(directory_.toPath(), "face", ".tmp");
+			Files.write(temp, bytes.array());
+			try {
+				Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		catch (IOException e) {
+			//	the face will be made from its image again next time
+			try {
+				if (temp != null)
+					Files.deleteIfExists(temp);
+			}
+			catch (IOException e2) {
+				//	left for the system to clean up
+			}
+		}
+	}
+
+	/** returns the number of faces read from the cache
+	 *
+	 * @return	the number of faces that didn't need to be decoded and masked
+	 */
+	public int getHits()
+	{
+		return hits_.get();
+	}
+
+	/** returns the number of faces made from their image
+	 *
+	 * @return	the number of faces decoded and masked
+	 */
+	public int getMisses()
+	{
+		return misses_.get();
+	}
+}
@@ -0,0 +1,188 @@
+package finalProject;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import processing.core.PImage;
+
+/**	The image of a player's face, masked to an ellipse and resampled to the sizes it is
+ * 	drawn at.
+ *
+ * 	The pixels of the image outside of the ellipse inscribed in it are made transparent.
+ * 	The mask is drawn a row at a time:  the ends of the row's span inside the ellipse are
+ * 	solved for once, and the pixels on either side of the span are filled, instead of
+ * 	testing each pixel against the ellipse.  The rows of a large image are masked in
+ * 	parallel.  The masked image is then resampled to the face's size in the window,
+ * 	and to NUM_MIP_LEVELS-1 smaller sizes, each half the one before (see PlayerFace).
+ *
+ */
+public class FaceTexture
+{
+	/**	Number of levels of the mip chain:  level 0 is the face at its size in the window,
+	 * 	each level after it is half the size of the one before.  The world is never drawn
+	 * 	below half of the window's resolution (see ResolutionController.SCALES), so no
+	 * 	level smaller than that would ever be drawn.
+	 */
+	public static final int NUM_MIP_LEVELS = 2;
+
+	/**	Color of the pixels outside of the ellipse (1 is the minimum transparency,
+	 * 	so the pixel is fully transparent)
+	 */
+	public static final int TRANSPARENT = 0x01FFFFFF;
+
+	/**	Number of pixels from which the rows of an image are masked in parallel
+	 */
+	public static final int PARALLEL_MASK_PIXELS = 1 << 16;
+
+	// size of the image the face was made from (in pixels)
+	private final int sourceWidth_, sourceHeight_;
+
+	// the mip chain, largest level first
+	private final PImage []levels_;
+
+	/**	Creates a face from its mip chain
+	 *
+	 * @param sourceWidth	width of the image the face was made from (in pixels)
+	 * @param sourceHeight	height of the image the face was made from (in pixels)
+	 * @param levels		the masked image at each level of the mip chain, largest first
+	 */
+	public FaceTexture(int sourceWidth, int sourceHeight, PImage []levels)
+	{
+		sourceWidth_ = sourceWidth;
+		sourceHeight_ = sourceHeight;
+		levels_ = levels;
+	}
+
+	/**	Masks an image and builds its mip chain.  The image itself is left untouched.
+	 *
+	 * @param img			the image of the face
+	 * @param pixelWidth	width of the face in the window (in pixels)
+	 * @return	the masked face
+	 */
+	public static FaceTexture create(PImage img, int pixelWidth)
+	{
+		PImage level = img.copy();
+		level.loadPixels();
+		maskEllipse(level);
+		level.updatePixels();
+
+		PImage []levels = new PImage[NUM_MIP_LEVELS];
+		for (int k=0; k<NUM_MIP_LEVELS; k++)
+		{
+			int w = Math.max(1, pixelWidth >> k);
+			int h = Math.max(1, Math.round((float) w * img.height / img.width));
+			level = level.copy();
+			level.resize(w, h);
+			levels[k] = level;
+		}
+		return new FaceTexture(img.width, img.height, levels);
+	}
+
+	/**	Makes the pixels of an image outside of the ellipse inscribed in it transparent.
+	 * 	The pixels must be loaded.  Gives the same pixels as testing each of them with
+	 * 	isInsideEllipse.
+	 *
+	 * @param img	the image
+	 */
+	public static void maskEllipse(PImage img)
+	{
+		if (img.width * img.height >= PARALLEL_MASK_PIXELS)
+			IntStream.range(0, img.height).parallel().forEach(i -> maskRow_(img, i));
+		else
+			for (int i=0; i<img.height; i++)
+				maskRow_(img, i);
+	}
+
+	// masks a row of an image
+	private static void maskRow_(PImage img, int i)
+	{
+		int w = img.width, h = img.height;
+		int start = i * img.pixelWidth;
+
+		//	the span of the row inside the ellipse, solved for from the ellipse's equation
+		float a = w/2.0f, b = h/2.0f;
+		float distY = i - b;
+		float t = 1 - distY*distY / (b*b);
+		if (t < 0)
+		{
+			Arrays.fill(img.pixels, start, start + w, TRANSPARENT);
+			return;
+		}
+		float half = a * (float) Math.sqrt(t);
+		int lo = Math.max(0, (int) Math.ceil(a - half));
+		int hi = Math.min(w-1, (int) Math.floor(a + half));
+
+		//	the ends are moved to agree with isInsideEllipse, whatever the rounding
+		while (lo <= hi && !isInsideEllipse(lo, i, w, h))
+			lo++;
+		while (lo > 0 && isInsideEllipse(lo-1, i, w, h))
+			lo--;
+		while (hi >= lo && !isInsideEllipse(hi, i, w, h))
+			hi--;
+		while (hi < w-1 && hi >= lo && isInsideEllipse(hi+1, i, w, h))
+			hi++;
+
+		if (hi < lo)
+			Arrays.fill(img.pixels, start, start + w, TRANSPARENT);
+		else
+		{
+			Arrays.fill(img.pixels, start, start + lo, TRANSPARENT);
+			Arrays.fill(img.pixels, start + hi + 1, start + w, TRANSPARENT);
+		}
+	}
+
+	/**	Tells whether a pixel is inside the ellipse inscribed in an image
+	 *
+	 * @param pixelX	x coordinate of the pixel
+	 * @param pixelY	y coordinate of the pixel
+	 * @param width		width of the image (in pixels)
+	 * @param height	height of the image (in pixels)
+	 * @return	true if the pixel is inside the ellipse
+	 */
+	public static boolean isInsideEllipse(float pixelX, float pixelY, int width, int height)
+	{
+		float distX = pixelX - width/2.0f;		// distance from pixel X to center of ellipse
+		float distY = pixelY - height/2.0f;		// distance from pixel Y to center of ellipse
+		float a = width/2.0f;					// half of the image's width
+		float b = height/2.0f;					// half of the image's height
+		float value = 1.0f/(a*a) * (distX*distX) + 1.0f/(b*b) * (distY*distY);
+		return (value <= 1);
+	}
+
+	/** returns a level of the mip chain
+	 *
+	 * @param k		0 for the face at its size in the window, 1 for half of it, and so on
+	 * @return	the masked image at that level
+	 */
+	public PImage getLevel(int k)
+	{
+		return levels_[k];
+	}
+
+	/** returns the number of levels of the mip chain
+	 *
+	 * @return	the number of levels
+	 */
+	public int getNumLevels()
+	{
+		return levels_.length;
+	}
+
+	/** returns the width of the image the face was made from
+	 *
+	 * @return	the width of the source image (in pixels)
+	 */
+	public int getSourceWidth()
+	{
+		return sourceWidth_;
+	}
+
+	/** returns the height of the image the face was made from
+	 *
+	 * @return	the height of the source image (in pixels)
+	 */
+	public int getSourceHeight()
+	{
+		return sourceHeight_;
+	}
+}
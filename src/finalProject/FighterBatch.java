@@ -0,0 +1,657 @@
+package finalProject;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import processing.core.PApplet;
+
+/**	A store for a large number of stick figures, laid out as a structure of arrays.
+ *
+ * 	Instead of one heap object per figure, every attribute of the figures (position,
+ * 	velocity, state, animation time, joint angles, skeleton nodes, absolute boxes)
+ * 	lives in a flat primitive array indexed by entity.  The update and hit-test
+ * 	kernels walk these arrays linearly, so thousands of figures can be simulated
+ * 	without chasing pointers.
+ *
+ * 	The figures behave exactly like StickFigure objects:  the animation clips, the
+ * 	skeleton, the boxes and the hit test are the ones StickFigure uses.  A FighterView
+ * 	makes a single entry of the batch look like a StickFigure to the rest of the code.
+ *
+ */
+public class FighterBatch implements ApplicationConstants
+{
+	/**	Number of values stored per figure in the joints array:  the joint angles,
+	 * 	followed by the clip channel and the active channel
+	 */
+	public static final int JOINT_STRIDE = StickFigure.NUM_CHANNELS;
+
+	/**	Number of skeleton nodes stored per figure
+	 */
+	public static final int NODE_STRIDE = StickFigure.NUM_NODES;
+
+	/**	Number of values stored per figure in the boxes array
+	 */
+	public static final int BOX_STRIDE = StickFigure.BOX_SIZE * (StickFigure.NUM_OF_PARTS + 1);
+
+	/**	Side of a cell of the broadphase grid (in world units).  A figure's hit bounds are
+	 * 	about 7 by 10 units, so a figure sits in a handful of cells.
+	 */
+	public static final float GRID_CELL_SIZE = 8;
+
+	/**	Number of figures from which resolvePunches uses the broadphase grid.  Below it,
+	 * 	rebuilding the grid costs more than testing every fist against every figure
+	 * 	(measured with CrowdStress, after warm-up:  the grid breaks even at 250 to 300 
+	 * 	figures, and is ahead from 350 on).
+	 */
+	public static final int BROADPHASE_MIN_FIGURES = 300;
+
+	/**	Number of states of a figure (DO_NOTHING included)
+	 */
+	private static final int NUM_STATES = PUNCHING_RIGHT + 1;
+
+	// maximum number of figures
+	private final int capacity_;
+
+	// number of figures in the batch
+	private int size_;
+
+	// position, velocity and orientation of each figure
+	private final float []x_, y_, vx_, vy_, angle_;
+
+	// cosine and sine of the orientation of each figure
+	private final float []cos_, sin_;
+
+	// state of each figure, and time elapsed since the start of its clip
+	private final int []state_;
+	private final float []animationTime_;
+
+	// interval of the clip's timeline each figure was at on the last tick
+	private final int []clipInterval_;
+
+	// joint angles (and clip channel) of each figure, JOINT_STRIDE values per figure
+	private final float []joints_;
+
+	// skeleton nodes (the limb endpoints) of each figure, in the figure's frame, NODE_STRIDE values per figure
+	private final float []nodeX_, nodeY_, nodeCos_, nodeSin_;
+
+	// absolute boxes of each figure, BOX_STRIDE values per figure
+	private final float []boxes_;
+
+	// bounds of everything the hit test of each figure accepts, in the figure's frame, BOX_SIZE values per figure
+	private final float []hitBounds_;
+
+	// broadphase:  the figures, inserted by their hit bounds
+	private final SpatialHash grid_;
+
+	// the clip played in each state, shared by all the figures (null for DO_NOTHING)
+	private final KeyframeInterpolator []clips_;
+
+	// scratch cursor, loaded from and saved to clipInterval_ around each lookup
+	private final KeyframeCursor cursor_;
+
+	/**	Creates an empty batch
+	 *
+	 * @param capacity	maximum number of figures the batch can hold
+	 */
+	public FighterBatch(int capacity)
+	{
+		capacity_ = capacity;
+		size_ = 0;
+
+		x_ = new float[capacity];
+		y_ = new float[capacity];
+		vx_ = new float[capacity];
+		vy_ = new float[capacity];
+		angle_ = new float[capacity];
+		cos_ = new float[capacity];
+		sin_ = new float[capacity];
+		state_ = new int[capacity];
+		animationTime_ = new float[capacity];
+		clipInterval_ = new int[capacity];
+		joints_ = new float[capacity * JOINT_STRIDE];
+		nodeX_ = new float[capacity * NODE_STRIDE];
+		nodeY_ = new float[capacity * NODE_STRIDE];
+		nodeCos_ = new float[capacity * NODE_STRIDE];
+		nodeSin_ = new float[capacity * NODE_STRIDE];
+		boxes_ = new float[capacity * BOX_STRIDE];
+		hitBounds_ = new float[capacity * StickFigure.BOX_SIZE];
+		grid_ = new SpatialHash(GRID_CELL_SIZE, 6 * capacity);
+
+		clips_ = new KeyframeInterpolator[NUM_STATES];
+		for (int s=0; s<NUM_STATES; s++)
+		{
+			float [][]keyframes = StickFigure.clipKeyframes(s);
+			if (keyframes != null)
+				clips_[s] = GraphicObject.createClipInterpolator_(keyframes);
+		}
+		cursor_ = new KeyframeCursor();
+	}
+
+	/**	Adds a figure to the batch, standing still and doing nothing
+	 *
+	 * @param x		x coordinate of the figure
+	 * @param y		y coordinate of the figure
+	 * @return	the index of the new figure
+	 */
+	public int add(float x, float y)
+	{
+		if (size_ == capacity_)
+			throw new IllegalStateException("the batch is full (" + capacity_ + " figures)");
+
+		int i = size_++;
+		x_[i] = x;
+		y_[i] = y;
+		vx_[i] = 0;
+		vy_[i] = 0;
+		angle_[i] = 0;
+		state_[i] = DO_NOTHING;
+		animationTime_[i] = 0;
+		clipInterval_[i] = 0;
+		for (int k=0; k<JOINT_STRIDE; k++)
+			joints_[i*JOINT_STRIDE + k] = 0;
+		updateGeometry_(i);
+		return i;
+	}
+
+	/**	Advances every figure of the batch by dt
+	 *
+	 * @param dt	time elapsed (in seconds)
+	 */
+	public void update(float dt)
+	{
+		for (int i=0; i<size_; i++)
+			update(i, dt);
+	}
+
+	/**	Advances a single figure by dt.  This follows StickFigure.update step by step.
+	 *
+	 * @param i		index of the figure
+	 * @param dt	time elapsed (in seconds)
+	 */
+	public void update(int i, float dt)
+	{
+		// handles the left and right movement of the player
+		x_[i] += vx_[i] * dt;
+		y_[i] += vy_[i] * dt;
+
+		int state = state_[i];
+		if (state != DO_NOTHING)
+		{
+			KeyframeInterpolator clip = clips_[state];
+			float t = animationTime_[i] += dt;
+			int j = i * JOINT_STRIDE;
+
+			cursor_.interval_ = clipInterval_[i];
+			clip.computeStateVector(t, joints_, j, cursor_);
+			clipInterval_[i] = cursor_.interval_;
+
+			// the clip channel drives y or vx, depending on the clip
+			float c = joints_[j + StickFigure.CLIP_CHANNEL_INDEX];
+			switch (state) {
+			case JUMPING:
+				y_[i] = c;
+				break;
+			case WALKING_LEFT:
+			case WALKING_RIGHT:
+				vx_[i] = c;
+				break;
+			case PUNCHING_LEFT:
+				y_[i] = c;
+				vx_[i] = c;
+				break;
+			case PUNCHING_RIGHT:
+				y_[i] = c;
+				vx_[i] = -c;
+				break;
+			}
+
+			if (clip.animationIsFinished(t))
+				state_[i] = DO_NOTHING;
+		}
+		updateGeometry_(i);
+	}
+
+	/**	Recomputes the absolute boxes of a figure, and its skeleton nodes in its own frame
+	 *
+	 * @param i		index of the figure
+	 */
+	private void updateGeometry_(int i)
+	{
+		StickFigure.computeAbsoluteBoxes(x_[i], y_[i], angle_[i], boxes_, i * BOX_STRIDE);
+		StickFigure.SKELETON.computePose(0, 0, 0, joints_, i * JOINT_STRIDE,
+										 nodeX_, nodeY_, nodeCos_, nodeSin_, i * NODE_STRIDE);
+		StickFigure.computeHitBounds(nodeX_, nodeY_, i * NODE_STRIDE, hitBounds_, i * StickFigure.BOX_SIZE);
+		cos_[i] = PApplet.cos(angle_[i]);
+		sin_[i] = PApplet.sin(angle_[i]);
+	}
+
+	/**	Starts a clip, if the figure is doing nothing
+	 *
+	 * @param i			index of the figure
+	 * @param state		the state of the clip
+	 */
+	private void start_(int i, int state)
+	{
+		if (state_[i] == DO_NOTHING)
+		{
+			state_[i] = state;
+			animationTime_[i] = 0;
+			clipInterval_[i] = 0;
+		}
+	}
+
+	/**	Makes a figure walk left, if it is doing nothing
+	 *
+	 * @param i		index of the figure
+	 */
+	public void moveLeft(int i)
+	{
+		start_(i, WALKING_LEFT);
+	}
+
+	/**	Makes a figure walk right, if it is doing nothing
+	 *
+	 * @param i		index of the figure
+	 */
+	public void moveRight(int i)
+	{
+		start_(i, WALKING_RIGHT);
+	}
+
+	/**	Makes a figure jump, if it is doing nothing
+	 *
+	 * @param i		index of the figure
+	 */
+	public void jump(int i)
+	{
+		start_(i, JUMPING);
+	}
+
+	/**	Makes a figure punch left, if it is doing nothing
+	 *
+	 * @param i		index of the figure
+	 */
+	public void punchLeft(int i)
+	{
+		start_(i, PUNCHING_LEFT);
+	}
+
+	/**	Makes a figure punch right, if it is doing nothing
+	 *
+	 * @param i		index of the figure
+	 */
+	public void punchRight(int i)
+	{
+		start_(i, PUNCHING_RIGHT);
+	}
+
+	/**	Checks whether a point lies on a figure (same test as StickFigure.isInside)
+	 *
+	 * @param i		index of the figure
+	 * @param x		x coordinate of a point in the world reference frame
+	 * @param y		y coordinate of a point in the world reference frame
+	 * @return	true if the point at (x, y) lies on figure i
+	 */
+	public boolean isInside(int i, float x, float y)
+	{
+		return StickFigure.contains(x_[i], y_[i], cos_[i], sin_[i], nodeX_, nodeY_, i * NODE_STRIDE,
+									hitBounds_, i * StickFigure.BOX_SIZE, x, y);
+	}
+
+	/**	Checks which of a set of points lie on a figure (same test as StickFigure.isInside)
+	 *
+	 * @param i			index of the figure
+	 * @param xs		x coordinates of the points
+	 * @param ys		y coordinates of the points
+	 * @param count		number of points
+	 * @param hits		bit k is set if point k lies on figure i, cleared otherwise
+	 */
+	public void isInside(int i, float []xs, float []ys, int count, BitSet hits)
+	{
+		StickFigure.contains(x_[i], y_[i], cos_[i], sin_[i], nodeX_, nodeY_, i * NODE_STRIDE,
+							 hitBounds_, i * StickFigure.BOX_SIZE, xs, ys, count, hits);
+	}
+
+	/**	Checks whether a point moving from (x0, y0) to (x1, y1) touches a figure along the way
+	 * 	(same test as StickFigure.isSweptInside)
+	 *
+	 * @param i		index of the figure
+	 * @param x0	x coordinate of the start of the path
+	 * @param y0	y coordinate of the start of the path
+	 * @param x1	x coordinate of the end of the path
+	 * @param y1	y coordinate of the end of the path
+	 * @return	true if the path touches figure i
+	 */
+	public boolean isSweptInside(int i, float x0, float y0, float x1, float y1)
+	{
+		return StickFigure.sweptContains(x_[i], y_[i], cos_[i], sin_[i], nodeX_, nodeY_, i * NODE_STRIDE,
+										 hitBounds_, i * StickFigure.BOX_SIZE, x0, y0, x1, y1);
+	}
+
+	/**	Finds the first figure a point lies on
+	 *
+	 * @param x			x coordinate of a point in the world reference frame
+	 * @param y			y coordinate of a point in the world reference frame
+	 * @param exclude	index of a figure to skip (e.g. the one that throws the punch), -1 for none
+	 * @return	the index of the first figure the point lies on, -1 if there is none
+	 */
+	public int hitTest(float x, float y, int exclude)
+	{
+		for (int i=0; i<size_; i++)
+			if (i != exclude && isInside(i, x, y))
+				return i;
+		return -1;
+	}
+
+	/**	Finds the figure hit by the fist of a punching figure
+	 *
+	 * @param attacker	index of the figure that may be punching
+	 * @return	the index of the figure hit, -1 if the attacker isn't in the active window of a punch or missed
+	 */
+	public int punchTarget(int attacker)
+	{
+		if (!isPunchActive(attacker))
+			return -1;
+		int fist = fistNode_(state_[attacker]);
+		int n = attacker * NODE_STRIDE + fist;
+		return hitTest(worldX_(attacker, n), worldY_(attacker, n), attacker);
+	}
+
+	/**	Finds the figure hit by the fist of every punching figure.  The result is the same
+	 * 	as calling punchTarget for every figure.  Nothing is tested if no fist is in the
+	 * 	active window of a punch, every fist is tested against every figure below 
+	 * 	BROADPHASE_MIN_FIGURES figures, and the broadphase grid is used above.
+	 *
+	 * @param targets	receives, for each figure, the index of the figure its punch hits,
+	 * 					-1 if it isn't in the active window of a punch or missed
+	 * @return	the number of punches that landed
+	 */
+	public int resolvePunches(int []targets)
+	{
+		int a = 0;
+		while (a < size_ && !isPunchActive(a))
+			a++;
+		if (a == size_)
+		{
+			Arrays.fill(targets, 0, size_, -1);
+			return 0;
+		}
+		
+		return size_ < BROADPHASE_MIN_FIGURES ? resolvePunchesBruteForce(targets) : resolvePunchesWithGrid(targets);
+	}
+
+	/**	Same as resolvePunches, always with the broadphase grid:  the grid is rebuilt from 
+	 * 	the figures' hit bounds (turned into world bounds), then each fist is only tested
+	 * 	against the figures of the cell it falls in.
+	 *
+	 * @param targets	receives, for each figure, the index of the figure its punch hits,
+	 * 					-1 if it isn't in the active window of a punch or missed
+	 * @return	the number of punches that landed
+	 */
+	public int resolvePunchesWithGrid(int []targets)
+	{
+		grid_.clear();
+		for (int i=0, b=0; i<size_; i++, b+=StickFigure.BOX_SIZE)
+		{
+			// the world box around the (rotated) hit bounds
+			float halfWidth = (hitBounds_[b + StickFigure.XMAX_INDEX] - hitBounds_[b + StickFigure.XMIN_INDEX]) / 2;
+			float halfHeight = (hitBounds_[b + StickFigure.YMAX_INDEX] - hitBounds_[b + StickFigure.YMIN_INDEX]) / 2;
+			float centerX = hitBounds_[b + StickFigure.XMIN_INDEX] + halfWidth;
+			float centerY = hitBounds_[b + StickFigure.YMIN_INDEX] + halfHeight;
+			float c = cos_[i], s = sin_[i];
+			float worldX = x_[i] + c*centerX - s*centerY, worldY = y_[i] + s*centerX + c*centerY;
+			float extentX = Math.abs(c)*halfWidth + Math.abs(s)*halfHeight + StickFigure.HIT_SLACK;
+			float extentY = Math.abs(s)*halfWidth + Math.abs(c)*halfHeight + StickFigure.HIT_SLACK;
+			grid_.insert(i, worldX - extentX, worldX + extentX, worldY - extentY, worldY + extentY);
+		}
+
+		int hits = 0;
+		for (int a=0; a<size_; a++)
+		{
+			int target = -1;
+			if (isPunchActive(a))
+			{
+				int n = a * NODE_STRIDE + fistNode_(state_[a]);
+				float x = worldX_(a, n), y = worldY_(a, n);
+				// the lowest index hit, as the linear search would find
+				for (int e=grid_.find(x, y); e>=0; e=grid_.next(e))
+				{
+					int i = grid_.getId(e);
+					if (i != a && (target < 0 || i < target) && isInside(i, x, y))
+						target = i;
+				}
+			}
+			targets[a] = target;
+			if (target >= 0)
+				hits++;
+		}
+		return hits;
+	}
+
+	/**	Same as resolvePunches, without the broadphase:  every fist is tested against every figure
+	 *
+	 * @param targets	receives, for each figure, the index of the figure its punch hits, -1 if none
+	 * @return	the number of punches that landed
+	 */
+	public int resolvePunchesBruteForce(int []targets)
+	{
+		int hits = 0;
+		for (int a=0; a<size_; a++)
+		{
+			targets[a] = punchTarget(a);
+			if (targets[a] >= 0)
+				hits++;
+		}
+		return hits;
+	}
+
+	// world coordinates of node n (an index in the node arrays) of figure i
+	private float worldX_(int i, int n)
+	{
+		return x_[i] + cos_[i]*nodeX_[n] - sin_[i]*nodeY_[n];
+	}
+
+	private float worldY_(int i, int n)
+	{
+		return y_[i] + sin_[i]*nodeX_[n] + cos_[i]*nodeY_[n];
+	}
+
+	/**	Computes the world position of the left fist of a figure
+	 *
+	 * @param i		index of the figure
+	 * @param out	receives the x and y coordinates of the fist
+	 * @return	out
+	 */
+	public float []getLeftFist(int i, float []out)
+	{
+		int n = i * NODE_STRIDE + StickFigure.LEFT_FIST_NODE;
+		out[0] = worldX_(i, n);
+		out[1] = worldY_(i, n);
+		return out;
+	}
+
+	/**	Computes the world position of the right fist of a figure
+	 *
+	 * @param i		index of the figure
+	 * @param out	receives the x and y coordinates of the fist
+	 * @return	out
+	 */
+	public float []getRightFist(int i, float []out)
+	{
+		int n = i * NODE_STRIDE + StickFigure.RIGHT_FIST_NODE;
+		out[0] = worldX_(i, n);
+		out[1] = worldY_(i, n);
+		return out;
+	}
+
+	// the node of the fist thrown in a state, -1 if the state isn't a punch
+	private static int fistNode_(int state)
+	{
+		switch (state) {
+		case PUNCHING_LEFT:
+			return StickFigure.LEFT_FIST_NODE;
+		case PUNCHING_RIGHT:
+			return StickFigure.RIGHT_FIST_NODE;
+		default:
+			return -1;
+		}
+	}
+
+	/**	returns the hit bounds of all the figures:  bounds of every point the hit test of
+	 * 	a figure accepts, in the figure's frame
+	 *
+	 * @return	the bounds, BOX_SIZE values per figure
+	 */
+	public float []getHitBounds()
+	{
+		return hitBounds_;
+	}
+
+	/**	returns the number of figures in the batch
+	 *
+	 * @return	the number of figures
+	 */
+	public int size()
+	{
+		return size_;
+	}
+
+	/**	returns the maximum number of figures
+	 *
+	 * @return	the capacity of the batch
+	 */
+	public int getCapacity()
+	{
+		return capacity_;
+	}
+
+	/**	returns the x coordinate of a figure
+	 *
+	 * @param i	index of the figure
+	 * @return	the x coordinate of figure i
+	 */
+	public float getX(int i)
+	{
+		return x_[i];
+	}
+
+	/**	returns the y coordinate of a figure
+	 *
+	 * @param i	index of the figure
+	 * @return	the y coordinate of figure i
+	 */
+	public float getY(int i)
+	{
+		return y_[i];
+	}
+
+	/**	returns the horizontal velocity of a figure
+	 *
+	 * @param i	index of the figure
+	 * @return	the horizontal velocity of figure i
+	 */
+	public float getVx(int i)
+	{
+		return vx_[i];
+	}
+
+	/**	returns the vertical velocity of a figure
+	 *
+	 * @param i	index of the figure
+	 * @return	the vertical velocity of figure i
+	 */
+	public float getVy(int i)
+	{
+		return vy_[i];
+	}
+
+	/**	returns the orientation of a figure
+	 *
+	 * @param i	index of the figure
+	 * @return	the orientation of figure i
+	 */
+	public float getAngle(int i)
+	{
+		return angle_[i];
+	}
+
+	/**	returns the state of a figure
+	 *
+	 * @param i	index of the figure
+	 * @return	the current state of figure i
+	 */
+	public int getState(int i)
+	{
+		return state_[i];
+	}
+
+	/**	tells whether a figure is throwing a punch that can hit (same test as StickFigure.isPunchActive)
+	 *
+	 * @param i	index of the figure
+	 * @return	true if the fist of figure i's current punch can land
+	 */
+	public boolean isPunchActive(int i)
+	{
+		return (state_[i] == PUNCHING_LEFT || state_[i] == PUNCHING_RIGHT)
+				&& joints_[i*JOINT_STRIDE + StickFigure.ACTIVE_CHANNEL_INDEX] >= 1;
+	}
+
+	/**	returns the time elapsed since the start of a figure's clip
+	 *
+	 * @param i	index of the figure
+	 * @return	the animation time of figure i (in seconds)
+	 */
+	public float getAnimationTime(int i)
+	{
+		return animationTime_[i];
+	}
+
+	/**	returns the joint angles of all the figures
+	 *
+	 * @return	the joint angles, JOINT_STRIDE values per figure
+	 */
+	public float []getJoints()
+	{
+		return joints_;
+	}
+
+	/**	returns the x coordinates of the skeleton nodes of all the figures, each in its figure's frame
+	 *
+	 * @return	the node x coordinates, NODE_STRIDE values per figure
+	 */
+	public float []getNodeX()
+	{
+		return nodeX_;
+	}
+
+	/**	returns the y coordinates of the skeleton nodes of all the figures, each in its figure's frame
+	 *
+	 * @return	the node y coordinates, NODE_STRIDE values per figure
+	 */
+	public float []getNodeY()
+	{
+		return nodeY_;
+	}
+
+	/**	returns the absolute boxes of all the figures
+	 *
+	 * @return	the boxes, BOX_STRIDE values per figure
+	 */
+	public float []getBoxes()
+	{
+		return boxes_;
+	}
+
+	/**	Sets the position of a figure
+	 *
+	 * @param i		index of the figure
+	 * @param x		new x coordinate
+	 * @param y		new y coordinate
+	 */
+	public void setPosition(int i, float x, float y)
+	{
+		x_[i] = x;
+		y_[i] = y;
+		updateGeometry_(i);
+	}
+}
@@ -0,0 +1,170 @@
+package finalProject;
+
+import java.util.BitSet;
+
+import processing.core.PGraphics;
+
+/**	Makes a single entry of a FighterBatch look like a StickFigure, so that the
+ * 	code written for StickFigure objects (drawing, hit tests, the match logic)
+ * 	works unchanged on a figure that lives in a batch.
+ *
+ * 	The batch holds the figure's data.  The view copies it into the fields of the
+ * 	StickFigure when it is updated or drawn;  call sync() before reading the fields
+ * 	of a view whose batch was updated as a whole.
+ *
+ */
+public class FighterView extends StickFigure
+{
+	// the batch that holds the figure, and the index of the figure in it
+	private final FighterBatch batch_;
+	private final int index_;
+
+	// world position of the fists, refreshed by sync()
+	private final float []leftFist_, rightFist_;
+
+	/**	Creates a view of an entry of a batch
+	 *
+	 * @param batch		the batch that holds the figure
+	 * @param index		index of the figure in the batch
+	 */
+	public FighterView(FighterBatch batch, int index)
+	{
+		super();
+
+		batch_ = batch;
+		index_ = index;
+		leftFist_ = new float[2];
+		rightFist_ = new float[2];
+		sync();
+		savePrevious_();
+	}
+
+	/**	Copies the figure's data from the batch into the fields of this view
+	 *
+	 */
+	public void sync()
+	{
+		int i = index_;
+		x_ = batch_.getX(i);
+		y_ = batch_.getY(i);
+		vx_ = batch_.getVx(i);
+		vy_ = batch_.getVy(i);
+		angle_ = batch_.getAngle(i);
+		System.arraycopy(batch_.getJoints(), i * FighterBatch.JOINT_STRIDE, joints_, 0, FighterBatch.JOINT_STRIDE);
+		
+		// the view is drawn from its own pose
+		updatePose_();
+
+		float []boxes = batch_.getBoxes();
+		for (int k=0, b=i * FighterBatch.BOX_STRIDE; k<=NUM_OF_PARTS; k++, b+=BOX_SIZE)
+			absoluteBox_[k].updatePosition(boxes[b + XMIN_INDEX], boxes[b + XMAX_INDEX],
+										   boxes[b + YMIN_INDEX], boxes[b + YMAX_INDEX]);
+
+		batch_.getLeftFist(i, leftFist_);
+		batch_.getRightFist(i, rightFist_);
+	}
+
+	/**	Advances the figure by dt, in the batch
+	 *
+	 * @param dt	time elapsed (in seconds)
+	 */
+	public void update(float dt)
+	{
+		savePrevious_();
+		batch_.update(index_, dt);
+		sync();
+	}
+
+	/**	renders the figure, as it is in the batch
+	 *
+	 * @param g		the graphic context to draw into
+	 */
+	public void draw(PGraphics g)
+	{
+		sync();
+		super.draw(g);
+	}
+
+	public boolean isInside(float x, float y)
+	{
+		return batch_.isInside(index_, x, y);
+	}
+
+	public void isInside(float []xs, float []ys, int count, BitSet hits)
+	{
+		batch_.isInside(index_, xs, ys, count, hits);
+	}
+
+	public boolean isSweptInside(float x0, float y0, float x1, float y1)
+	{
+		return batch_.isSweptInside(index_, x0, y0, x1, y1);
+	}
+
+	public int getState()
+	{
+		return batch_.getState(index_);
+	}
+
+	public boolean isPunchActive()
+	{
+		return batch_.isPunchActive(index_);
+	}
+
+	public float getAnimationTime()
+	{
+		return batch_.getAnimationTime(index_);
+	}
+
+	public float []getLeftFist()
+	{
+		return leftFist_;
+	}
+
+	public float []getRightFist()
+	{
+		return rightFist_;
+	}
+
+	public void moveLeft()
+	{
+		batch_.moveLeft(index_);
+	}
+
+	public void moveRight()
+	{
+		batch_.moveRight(index_);
+	}
+
+	public void jump()
+	{
+		batch_.jump(index_);
+	}
+
+	public void punchLeft()
+	{
+		batch_.punchLeft(index_);
+	}
+
+	public void punchRight()
+	{
+		batch_.punchRight(index_);
+	}
+
+	/**	returns the batch that holds the figure
+	 *
+	 * @return	the batch
+	 */
+	public FighterBatch getBatch()
+	{
+		return batch_;
+	}
+
+	/**	returns the index of the figure in its batch
+	 *
+	 * @return	the index of the figure
+	 */
+	public int getIndex()
+	{
+		return index_;
+	}
+}
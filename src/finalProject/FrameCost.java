@@ -0,0 +1,58 @@
+package finalProject;
+
+/**	Keeps track of what a rendered frame costs, for the controllers that keep the sketch
+ * 	on schedule (the ResolutionController and the FrameGovernor).
+ *
+ * 	The cost is an exponentially weighted average of the time it took to render the
+ * 	last frames.  Both controllers read the same average, so that a slow frame is only
+ * 	counted once, and each one is held back while the other one's change settles.
+ *
+ */
+public class FrameCost
+{
+	/**	Weight of the last rendered frame in the average cost
+	 */
+	public static final float SMOOTHING = 0.1f;
+
+	// time budget of a frame (in nanoseconds)
+	private final float budget_;
+
+	// average cost of a rendered frame (in nanoseconds), negative until a frame was rendered
+	private float average_ = -1;
+
+	/**	Creates an estimator
+	 *
+	 * @param frameRate		number of frames per second (rendered or not)
+	 */
+	public FrameCost(float frameRate)
+	{
+		budget_ = 1E9f / frameRate;
+	}
+
+	/**	Records the cost of a rendered frame
+	 *
+	 * @param cost	time it took to render the frame (in nanoseconds)
+	 */
+	public void frameRendered(long cost)
+	{
+		average_ = average_ < 0 ? cost : average_ + SMOOTHING * (cost - average_);
+	}
+
+	/** returns the average cost of a rendered frame
+	 *
+	 * @return	the average cost (in milliseconds), 0 if no frame was rendered
+	 */
+	public float getAverageCost()
+	{
+		return Math.max(0, average_) * 1E-6f;
+	}
+
+	/** returns the time budget of a frame
+	 *
+	 * @return	the budget (in milliseconds)
+	 */
+	public float getBudget()
+	{
+		return budget_ * 1E-6f;
+	}
+}
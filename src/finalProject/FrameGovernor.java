@@ -0,0 +1,158 @@
+package finalProject;
+
+/**	Decides which frames get rendered, so that the sketch keeps up on a slow machine.
+ *
+ * 	Only one frame out of every ratio frames is rendered (the ratio of animation frames
+ * 	over rendering frames of the sketch).  The governor compares the average cost of a
+ * 	rendered frame (see FrameCost), once spread over ratio frames, with the time budget
+ * 	of a frame:
+ * 		- above SLOW_DOWN of the budget, one more frame is skipped per rendered frame;
+ * 		- if one less frame could be skipped and stay under SPEED_UP of the budget,
+ * 		  it is.
+ * 	The ratio changes at most once every HOLD_FRAMES rendered frames, so that the
+ * 	average has time to settle.  Skipping frames is the last resort:  no frame is
+ * 	skipped while something cheaper is left, such as a lower resolution (see
+ * 	ResolutionController), and the hold only starts once nothing is.  The match runs on its own thread (see SimulationThread),
+ * 	so its ticks stay on schedule whatever the ratio.
+ *
+ */
+public class FrameGovernor
+{
+	/**	Largest number of frames per rendered frame
+	 */
+	public static final int MAX_RATIO = 4;
+
+	/**	Fraction of the budget above which more frames are skipped
+	 */
+	public static final float SLOW_DOWN = 0.9f;
+
+	/**	Fraction of the budget under which fewer frames are skipped
+	 */
+	public static final float SPEED_UP = 0.6f;
+
+	/**	Number of rendered frames between two changes of the ratio
+	 */
+	public static final int HOLD_FRAMES = 30;
+
+	// the average cost of a rendered frame
+	private final FrameCost cost_;
+
+	// one frame out of ratio_ is rendered, frame_ counts the frames
+	private int ratio_;
+	private long frame_;
+
+	// rendered frames since the ratio last changed
+	private int held_;
+
+	// what the governor did so far
+	private long renderedFrames_, skippedFrames_;
+	private int slowDowns_, speedUps_;
+
+	/**	Creates a governor
+	 *
+	 * @param cost		the average cost of a rendered frame, kept up to date by the caller
+	 * @param ratio		number of frames per rendered frame to start with
+	 */
+	public FrameGovernor(FrameCost cost, int ratio)
+	{
+		cost_ = cost;
+		ratio_ = Math.max(1, Math.min(MAX_RATIO, ratio));
+	}
+
+	/**	Starts a frame
+	 *
+	 * @return	true if the frame should be rendered
+	 */
+	public boolean shouldRender()
+	{
+		if (frame_++ % ratio_ == 0)
+			return true;
+
+		skippedFrames_++;
+		return false;
+	}
+
+	/**	Records that a frame was rendered, once its cost was added to the average, and
+	 * 	adjusts the ratio if needed
+	 *
+	 * @param canSlowDown	false while something cheaper than skipping frames is left to do
+	 */
+	public void frameRendered(boolean canSlowDown)
+	{
+		renderedFrames_++;
+
+		//	no frame is skipped yet:  the hold starts over, so that the average settles
+		//	once frames can be skipped, before any is
+		if (!canSlowDown && ratio_ == 1)
+		{
+			held_ = 0;
+			return;
+		}
+
+		if (++held_ < HOLD_FRAMES)
+			return;
+
+		float averageCost = cost_.getAverageCost(), budget = cost_.getBudget();
+		if (canSlowDown && averageCost > SLOW_DOWN * budget * ratio_ && ratio_ < MAX_RATIO)
+			setRatio_(ratio_ + 1);
+		else if (ratio_ > 1 && averageCost < SPEED_UP * budget * (ratio_ - 1))
+			setRatio_(ratio_ - 1);
+	}
+
+	// changes the ratio, starting with a rendered frame
+	private void setRatio_(int ratio)
+	{
+		if (ratio > ratio_)
+			slowDowns_++;
+		else
+			speedUps_++;
+		ratio_ = ratio;
+		frame_ = 0;
+		held_ = 0;
+	}
+
+	/** returns the number of frames per rendered frame
+	 *
+	 * @return	the current ratio of animation frames over rendering frames
+	 */
+	public int getRatio()
+	{
+		return ratio_;
+	}
+
+	/** returns the number of frames rendered
+	 *
+	 * @return	the number of frames rendered since the governor was created
+	 */
+	public long getRenderedFrames()
+	{
+		return renderedFrames_;
+	}
+
+	/** returns the number of frames skipped
+	 *
+	 * @return	the number of frames skipped since the governor was created
+	 */
+	public long getSkippedFrames()
+	{
+		return skippedFrames_;
+	}
+
+	/** returns the number of times more frames were skipped
+	 *
+	 * @return	the number of times the ratio went up
+	 */
+	public int getSlowDowns()
+	{
+		return slowDowns_;
+	}
+
+	/** returns the number of times fewer frames were skipped
+	 *
+	 * @return	the number of times the ratio went down
+	 */
+	public int getSpeedUps()
+	{
+		return speedUps_;
+	}
+}
@@ -0,0 +1,107 @@
+package finalProject;
+
+import processing.core.PGraphics;
+import processing.core.PImage;
+
+/**	The last few frames of the world, each in a buffer of its own.
+ *
+ * 	The ring has a slot per frame kept, and each slot has a buffer for each resolution
+ * 	the world can be rendered at (see ResolutionController), all of them created once.
+ * 	Starting a frame moves the ring to its oldest slot and hands out that slot's buffer
+ * 	for the frame's resolution:  the frames are never copied, the slots are reused in
+ * 	turn.  The frames rendered before stay untouched until their slot comes back, so
+ * 	the last size()-1 frames can be read (e.g. for effects) while the next one is drawn.
+ * 	A frame that must outlive the ring can be copied out with copyFrame.
+ *
+ */
+public class FrameRing
+{
+	// buffers_[slot][step] is the buffer of a slot for resolution step
+	private final PGraphics [][]buffers_;
+
+	// resolution step each slot was last rendered at
+	private final int []step_;
+
+	// slot of the current frame
+	private int head_;
+
+	/**	Creates a ring from its buffers
+	 *
+	 * @param buffers	buffers[slot][step] is the buffer of a slot for a resolution step
+	 */
+	public FrameRing(PGraphics [][]buffers)
+	{
+		buffers_ = buffers;
+		step_ = new int[buffers.length];
+		head_ = 0;
+	}
+
+	/**	Starts a new frame, in the slot of the oldest frame
+	 *
+	 * @param step	resolution step the frame is rendered at
+	 * @return	the buffer to render the frame into
+	 */
+	public PGraphics next(int step)
+	{
+		head_ = (head_ + 1) % buffers_.length;
+		step_[head_] = step;
+		return buffers_[head_][step];
+	}
+
+	/** returns a frame of the ring
+	 *
+	 * @param age	0 for the current frame, 1 for the one before it, and so on, up to size()-1
+	 * @return	the buffer the frame was rendered into
+	 */
+	public PGraphics getFrame(int age)
+	{
+		int slot = slot_(age);
+		return buffers_[slot][step_[slot]];
+	}
+
+	/** returns the resolution step a frame of the ring was rendered at
+	 *
+	 * @param age	0 for the current frame, 1 for the one before it, and so on, up to size()-1
+	 * @return	the resolution step of the frame
+	 */
+	public int getStep(int age)
+	{
+		return step_[slot_(age)];
+	}
+
+	/**	Copies the pixels of a frame of the ring into an image of the same size
+	 *
+	 * @param age	0 for the current frame, 1 for the one before it, and so on, up to size()-1
+	 * @param out	receives the pixels of the frame
+	 * @return	out
+	 */
+	public PImage copyFrame(int age, PImage out)
+	{
+		PGraphics frame = getFrame(age);
+		if (out.pixelWidth != frame.pixelWidth || out.pixelHeight != frame.pixelHeight)
+			throw new IllegalArgumentException("the image is " + out.pixelWidth + "x" + out.pixelHeight +
+											   ", the frame is " + frame.pixelWidth + "x" + frame.pixelHeight);
+		frame.loadPixels();
+		out.loadPixels();
+		System.arraycopy(frame.pixels, 0, out.pixels, 0, frame.pixels.length);
+		out.updatePixels();
+		return out;
+	}
+
+	/** returns the number of frames kept
+	 *
+	 * @return	the number of slots of the ring
+	 */
+	public int size()
+	{
+		return buffers_.length;
+	}
+
+	// the slot of a frame, from its age
+	private int slot_(int age)
+	{
+		if (age < 0 || age >= buffers_.length)
+			throw new IndexOutOfBoundsException("frame " + age + " of a ring of " + buffers_.length);
+		return (head_ - age + buffers_.length) % buffers_.length;
+	}
+}
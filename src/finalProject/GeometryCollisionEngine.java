@@ -0,0 +1,112 @@
+package finalProject;
+
+/**	Tests the fist of the attacker against the geometry of the target:  its head and
+ * 	hand circles and the capsules of its limbs (see StickFigure.isInside).
+ *
+ * 	By default the test is swept:  the fist is checked along the whole path it followed
+ * 	since the last tick, so that a fast punch can't jump over the target when the match
+ * 	ticks at a low rate.  Only the part of the tick that falls in the active window of
+ * 	the punch is swept.  The path is sampled from the punch clip at least every
+ * 	MAX_SWEEP_STEP seconds of animation (see StickFigure.getSweptFist), and each
+ * 	segment between samples is checked, relative to the target, against the target's
+ * 	current pose.  Otherwise, only the current position of the fist is tested, if the 
+ * 	punch is active.
+ *
+ * @author jyh, Sofia Rossi and PaigeCourtemanche
+ *
+ */
+public class GeometryCollisionEngine implements CollisionEngine, ApplicationConstants
+{
+	/**	Longest stretch of animation (in seconds) swept as a straight segment
+	 */
+	public static final float MAX_SWEEP_STEP = 1f / 120;
+
+	// true if the fist is tested along its path, false if only its current position is
+	private final boolean swept_;
+
+	/**	Creates an engine with the swept test
+	 *
+	 */
+	public GeometryCollisionEngine()
+	{
+		this(true);
+	}
+
+	/**	Creates an engine
+	 *
+	 * @param swept		true to test the fist along its path since the last tick,
+	 * 					false to only test its current position
+	 */
+	public GeometryCollisionEngine(boolean swept)
+	{
+		swept_ = swept;
+	}
+
+	public boolean punchLands(StickFigure attacker, StickFigure target)
+	{
+		switch (attacker.getState()) {
+		case PUNCHING_RIGHT:
+			return swept_ ? fistSweeps_(attacker, false, target) : 
+							attacker.isPunchActive() && fistLands_(attacker.getRightFist(), target);
+		case PUNCHING_LEFT:
+			return swept_ ? fistSweeps_(attacker, true, target) : 
+							attacker.isPunchActive() && fistLands_(attacker.getLeftFist(), target);
+		default:
+			return false;
+		}
+	}
+
+	/**	Checks whether a fist is on the target
+	 *
+	 * @param fist		position of the fist
+	 * @param target	the figure that may get hit
+	 * @return	true if the fist is on the target
+	 */
+	private boolean fistLands_(float []fist, StickFigure target)
+	{
+		return target.isInside(fist[0], fist[1]);
+	}
+
+	/**	Checks whether a fist went through the target since the last tick, while its
+	 * 	punch was active
+	 *
+	 * @param attacker	the figure that is punching
+	 * @param left		true for the left fist, false for the right one
+	 * @param target	the figure that may get hit
+	 * @return	true if the fist touched the target along its path
+	 */
+	private boolean fistSweeps_(StickFigure attacker, boolean left, StickFigure target)
+	{
+		float start = attacker.getActiveSpanStart(), end = attacker.getActiveSpanEnd();
+		if (start > end)
+			return false;
+
+		float duration = (end - start) * (attacker.getAnimationTime() - attacker.getPreviousAnimationTime());
+		int numSteps = Math.max(1, (int) Math.ceil(duration / MAX_SWEEP_STEP));
+
+		//	the path is taken relative to the target:  a point of the path moves along with 
+		//	the target for the rest of the tick
+		float targetDx = target.x_ - target.getPreviousX(), targetDy = target.y_ - target.getPreviousY();
+		float x0 = 0, y0 = 0;
+		for (int k=0; k<=numSteps; k++)
+		{
+			float fraction = start + (end - start) * k / numSteps;
+			float []fist = attacker.getSweptFist(left, fraction);
+			float x1 = fist[0] + (1 - fraction) * targetDx, y1 = fist[1] + (1 - fraction) * targetDy;
+			if (k > 0 && target.isSweptInside(x0, y0, x1, y1))
+				return true;
+			x0 = x1;
+			y0 = y1;
+		}
+		return false;
+	}
+
+	/**	tells whether the fist is tested along its path
+	 *
+	 * @return	true if the test is swept, false if only the current position of the fist is tested
+	 */
+	public boolean isSwept()
+	{
+		return swept_;
+	}
+}
@@ -1,6 +1,9 @@
 package finalProject;
 
 import java.awt.geom.Point2D;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 import processing.core.*;
 
@@ -73,6 +76,19 @@ public abstract class GraphicObject implements ApplicationConstants
 	 */
 	private static AnimationMode animationMode_ = AnimationMode.BOX_WORLD;
 
+	/**	Number of samples per second when the animation clips are baked
+	 */
+	public final static float CLIP_BAKE_RATE = 240;
+	
+	/**	Indicates whether objects created from now on should bake their animation clips
+	 */
+	private static boolean bakeClips_ = false;
+	
+	/**	Baked clips, shared by all the objects playing the same keyframe table.  
+	 * 	A baked clip has no playback state, so it can be shared safely.
+	 */
+	private static Map<float[][], KeyframeInterpolator> bakedClips_ = new IdentityHashMap<float[][], KeyframeInterpolator>();
+
 	
 	//-------------------------------------
 	//	Instance variables
@@ -435,6 +451,20 @@ public abstract class GraphicObject implements ApplicationConstants
 		return isInside(pt.x, pt.y);
 	}
 
+	/**	Determines which of a set of world points are inside the object.  Subclasses 
+	 * 	that can test many points faster than one at a time override this method.
+	 * 
+	 * @param xs		x coordinates of the points
+	 * @param ys		y coordinates of the points
+	 * @param count		number of points (the first count entries of xs and ys)
+	 * @param hits		bit k is set if point k is inside this object, cleared otherwise
+	 */
+	public void isInside(float []xs, float []ys, int count, BitSet hits)
+	{
+		for (int k=0; k<count; k++)
+			hits.set(k, isInside(xs[k], ys[k]));
+	}
+
 	/** draws the reference frame for the GraphicObject
 	 * 
 	 * @param g The Processing application in which the action takes place
@@ -474,6 +504,37 @@ public abstract class GraphicObject implements ApplicationConstants
 		animationMode_ = mode;
 	}
 	
+	/**	Called by the application to tell whether graphic objects created from now on
+	 * should sample their animation clips into lookup tables (baked clips) instead of
+	 * interpolating the keyframes at every update
+	 * 
+	 * @param mustBake	true if the clips should be baked
+	 */
+	public static void setBakeClips(boolean mustBake) {
+		bakeClips_ = mustBake;
+	}
+	
+	/**	Creates the interpolator for an animation clip, baked or not depending on
+	 * 	the current setting
+	 * 
+	 * @param keyframes	the keyframes of the clip, time in the last column (must not be modified
+	 * 					once the clip has been baked)
+	 * @return	an interpolator for the clip
+	 */
+	protected static KeyframeInterpolator createClipInterpolator_(float [][]keyframes) {
+		if (bakeClips_) {
+			synchronized (bakedClips_) {
+				KeyframeInterpolator baked = bakedClips_.get(keyframes);
+				if (baked == null) {
+					baked = new LinearKeyframeInterpolator(keyframes).bake(CLIP_BAKE_RATE);
+					bakedClips_.put(keyframes, baked);
+				}
+				return baked;
+			}
+		}
+		return new LinearKeyframeInterpolator(keyframes);
+	}
+	
 	/**	Creates a default single bounding box setup
 	 */ 
 	public void setupDefaultBoundingBoxes_() {		
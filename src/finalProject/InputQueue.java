@@ -0,0 +1,99 @@
+package finalProject;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**	Carries the players' commands from the thread that receives the key presses
+ * 	(Processing's event thread) to the thread that runs the match (SimulationThread).
+ *
+ * 	This is a bounded ring of timestamped commands for a single producer and a single
+ * 	consumer, without locks:  the producer only writes the tail, the consumer only
+ * 	writes the head.  A command is written in the ring before the tail moves past it,
+ * 	and the tail is read by the consumer before the command, so the consumer never sees
+ * 	a command that is half written.  Nothing is allocated once the queue is created.
+ *
+ */
+public class InputQueue
+{
+	// the commands in the ring:  slot k & mask_ holds the k-th command offered
+	private final int []player_, command_;
+	private final long []time_;
+	private final int mask_;
+
+	// number of commands offered so far (written by the producer only),
+	// and number of commands taken so far (written by the consumer only)
+	private final AtomicLong tail_ = new AtomicLong(), head_ = new AtomicLong();
+
+	/**	Creates an empty queue
+	 *
+	 * @param capacity	largest number of commands waiting at any time (rounded up to a power of 2)
+	 */
+	public InputQueue(int capacity)
+	{
+		int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+		player_ = new int[size];
+		command_ = new int[size];
+		time_ = new long[size];
+		mask_ = size - 1;
+	}
+
+	/**	Adds a command at the end of the queue.  Must only be called by the producer.
+	 *
+	 * @param player	PLAYER_ONE or PLAYER_TWO
+	 * @param command	one of the commands of a Simulation
+	 * @param time		when the command was given (System.nanoTime())
+	 * @return	true if the command was added, false if the queue is full
+	 */
+	public boolean offer(int player, int command, long time)
+	{
+		long tail = tail_.get();
+		if (tail - head_.get() > mask_)
+			return false;
+
+		int k = (int) tail & mask_;
+		player_[k] = player;
+		command_[k] = command;
+		time_[k] = time;
+		tail_.lazySet(tail + 1);
+		return true;
+	}
+
+	/**	Gives a match all the commands of the queue that were given before some time,
+	 * 	in the order they were given.  Must only be called by the consumer.
+	 *
+	 * @param time		commands given at this time (System.nanoTime()) or later stay in the queue
+	 * @param sim		the match the commands are given to
+	 * @return	the number of commands given to the match
+	 */
+	public int drain(long time, Simulation sim)
+	{
+		long head = head_.get(), tail = tail_.get();
+		int count = 0;
+		for (; head < tail; head++, count++)
+		{
+			int k = (int) head & mask_;
+			if (time_[k] - time >= 0)
+				break;
+			sim.command(player_[k], command_[k]);
+		}
+		head_.lazySet(head);
+		return count;
+	}
+
+	/** returns the number of commands waiting in the queue
+	 *
+	 * @return	the number of commands offered but not drained yet
+	 */
+	public int size()
+	{
+		return (int) (tail_.get() - head_.get());
+	}
+
+	/** returns the largest number of commands the queue can hold
+	 *
+	 * @return	the capacity of the queue
+	 */
+	public int getCapacity()
+	{
+		return mask_ + 1;
+	}
+}
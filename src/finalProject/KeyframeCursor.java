@@ -0,0 +1,20 @@
+package finalProject;
+
+/**	Remembers where a playback of a KeyframeTimeline is, so that the next
+ * 	lookup can resume from the last interval instead of searching from the start.
+ * 	Each playback (each figure playing a clip) should have its own cursor.
+ * 
+ */
+public class KeyframeCursor 
+{
+	// index of the first keyframe of the last interval found
+	int interval_ = 0;
+	
+	/**	Moves the cursor back to the first interval, e.g. when a clip restarts
+	 * 
+	 */
+	public void reset()
+	{
+		interval_ = 0;
+	}
+}
@@ -7,27 +7,95 @@ package finalProject;
  */
 public abstract class KeyframeInterpolator 
 {
-	protected float [][]keyframes_;
-	protected int T_INDEX;
+	protected KeyframeTimeline timeline_;
+	
+	// cursor used when the caller doesn't provide one
+	protected KeyframeCursor cursor_;
 
 	
 	public KeyframeInterpolator(float [][]keyframes) 
 	{
-		//	consider making a copy
-		keyframes_ = keyframes;
-		T_INDEX = keyframes_[0].length-1;
+		this(new KeyframeTimeline(keyframes));
+	}
+	
+	public KeyframeInterpolator(KeyframeTimeline timeline) 
+	{
+		timeline_ = timeline;
+		cursor_ = new KeyframeCursor();
+	}
+	
+	/**	Computes the state vector at time t in a newly allocated array
+	 * 
+	 * @param t	the time at which to evaluate the keyframes
+	 * @return	the interpolated state vector
+	 */
+	public float[] computeStateVector(float t)
+	{
+		float []stateVect = new float[getStateDimension()];
+		computeStateVector(t, stateVect, 0);
+		return stateVect;
+	}
+	
+	/**	Computes the state vector at time t into a caller-owned array, so
+	 * 	that nothing gets allocated on the animation path.
+	 * 
+	 * @param t			the time at which to evaluate the keyframes
+	 * @param out		array that receives the state vector
+	 * @param offset	index in out of the first component of the state vector
+	 */
+	public void computeStateVector(float t, float []out, int offset)
+	{
+		computeStateVector(t, out, offset, cursor_);
 	}
 	
-	public abstract float[] computeStateVector(float t);
+	/**	Computes the state vector at time t into a caller-owned array, for the
+	 * 	playback tracked by the cursor.  Use this version when several playbacks 
+	 * 	share the same interpolator.
+	 * 
+	 * @param t			the time at which to evaluate the keyframes
+	 * @param out		array that receives the state vector
+	 * @param offset	index in out of the first component of the state vector
+	 * @param cursor	the cursor of the playback
+	 */
+	public abstract void computeStateVector(float t, float []out, int offset, KeyframeCursor cursor);
+	
+	/**	Samples this interpolator once into a lookup table
+	 * 
+	 * @param sampleRate	the minimum number of samples per second
+	 * @return	an interpolator that serves lookups from the table
+	 */
+	public BakedKeyframeInterpolator bake(float sampleRate)
+	{
+		return new BakedKeyframeInterpolator(this, sampleRate);
+	}
+	
+	/**	returns the number of components of the state vector (time excluded)
+	 * 
+	 * @return	the dimension of the state vector
+	 */
+	public int getStateDimension()
+	{
+		return timeline_.getDimension();
+	}
+	
+	/**	returns the keyframes, stored by column
+	 * 
+	 * @return	the timeline of this interpolator
+	 */
+	public KeyframeTimeline getTimeline()
+	{
+		return timeline_;
+	}
 	
 	protected int getIntervalIndex(float t)
+	{
+		return getIntervalIndex(t, cursor_);
+	}
+	
+	protected int getIntervalIndex(float t, KeyframeCursor cursor)
 	{
 		//	First, find the index i such that t_i < t <= t_i+1
-		int i=0;
-		while (t > keyframes_[i+1][T_INDEX])
-			i++;
-
-		return i;
+		return timeline_.findInterval(t, cursor);
 	}
 	
 	protected float getTau(float t, int i)
@@ -35,11 +103,11 @@ public abstract class KeyframeInterpolator
 		//	Now we need to interpolate between frames i and i+1
 		//------------------------------------------------------
 		//	First, compute the fraction of the time interval already traveled
-		return (t - keyframes_[i][T_INDEX]) / (keyframes_[i+1][T_INDEX] - keyframes_[i][T_INDEX]);
+		return (t - timeline_.getTime(i)) / (timeline_.getTime(i+1) - timeline_.getTime(i));
 	}
 	
 	protected boolean animationIsFinished(float t) 
 	{
-		return (t >=  keyframes_[keyframes_.length-1][T_INDEX]);
+		return (t >=  timeline_.getEndTime());
 	}
 }
@@ -0,0 +1,147 @@
+package finalProject;
+
+/**	Column-oriented storage for a set of keyframes.
+ * 	The keyframes are given the way they are written in the figure classes, one row
+ * 	per keyframe with the time in the last column, but are stored one column per
+ * 	array: all the times are contiguous, and all the values of a channel are contiguous.
+ * 	Interpolating a channel then only reads two neighboring floats, and the search
+ * 	for the current interval only walks through the time column.
+ * 
+ */
+public class KeyframeTimeline 
+{
+	// time of each keyframe, in increasing order
+	private final float []times_;
+	
+	// channel-major values:  the value of channel k at keyframe i is at k*numFrames_ + i
+	private final float []channels_;
+	
+	private final int numFrames_;
+	private final int dimension_;
+	
+	/**	Creates a timeline from keyframes stored by row
+	 * 
+	 * @param keyframes	one row per keyframe, the time of the keyframe being in the last column
+	 */
+	public KeyframeTimeline(float [][]keyframes)
+	{
+		numFrames_ = keyframes.length;
+		dimension_ = keyframes[0].length-1;
+		times_ = new float[numFrames_];
+		channels_ = new float[dimension_*numFrames_];
+		
+		for (int i=0; i<numFrames_; i++)
+		{
+			times_[i] = keyframes[i][dimension_];
+			for (int k=0; k<dimension_; k++)
+				channels_[k*numFrames_ + i] = keyframes[i][k];
+		}
+	}
+	
+	/**	Finds the index i such that t_i < t <= t_i+1.  The search starts from the interval
+	 * 	stored in the cursor and from the one after it, which covers playback moving forward,
+	 * 	and falls back to a binary search when the time jumped (seek, rewind).
+	 *  The caller must make sure that t_0 < t <= t_n-1.
+	 * 
+	 * @param t			the time to look up
+	 * @param cursor	the playback cursor, updated with the interval found
+	 * @return	the index of the first keyframe of the interval
+	 */
+	public int findInterval(float t, KeyframeCursor cursor)
+	{
+		int i = cursor.interval_;
+		
+		if (i < numFrames_-1)
+		{
+			//	still in the same interval
+			if (t <= times_[i+1] && (i == 0 || times_[i] < t))
+				return i;
+			
+			//	moved to the next interval
+			if (i+2 < numFrames_ && times_[i+1] < t && t <= times_[i+2])
+			{
+				cursor.interval_ = i+1;
+				return i+1;
+			}
+		}
+		
+		//	binary search for the first i such that t <= t_i+1
+		int lo = 0, hi = numFrames_-2;
+		while (lo < hi)
+		{
+			int mid = (lo + hi) >>> 1;
+			if (t <= times_[mid+1])
+				hi = mid;
+			else
+				lo = mid+1;
+		}
+		cursor.interval_ = lo;
+		return lo;
+	}
+	
+	/**	returns the number of keyframes
+	 * 
+	 * @return	the number of keyframes
+	 */
+	public int getNumFrames()
+	{
+		return numFrames_;
+	}
+	
+	/**	returns the number of channels (time excluded)
+	 * 
+	 * @return	the dimension of the state vector
+	 */
+	public int getDimension()
+	{
+		return dimension_;
+	}
+	
+	/**	returns the time of a keyframe
+	 * 
+	 * @param i	index of the keyframe
+	 * @return	the time of keyframe i
+	 */
+	public float getTime(int i)
+	{
+		return times_[i];
+	}
+	
+	/**	returns the time of the first keyframe
+	 * 
+	 * @return	the start time of the timeline
+	 */
+	public float getStartTime()
+	{
+		return times_[0];
+	}
+	
+	/**	returns the time of the last keyframe
+	 * 
+	 * @return	the end time of the timeline
+	 */
+	public float getEndTime()
+	{
+		return times_[numFrames_-1];
+	}
+	
+	/**	returns the value of a channel at a keyframe
+	 * 
+	 * @param k	index of the channel
+	 * @param i	index of the keyframe
+	 * @return	the value of channel k at keyframe i
+	 */
+	public float getValue(int k, int i)
+	{
+		return channels_[k*numFrames_ + i];
+	}
+	
+	/**	gives direct access to the channel-major values, for the interpolators
+	 * 
+	 * @return	the array of values, channel k of keyframe i being at k*getNumFrames() + i
+	 */
+	float []getChannels()
+	{
+		return channels_;
+	}
+}
@@ -45,6 +45,7 @@ public class KeyframedStickFigure extends StickFigure {
 		y_ = state[Y_INDEX];
 		angle_ = state[A_INDEX]; 
 		updateAbsoluteBoxes_();
+		updatePose_();
 		time_ = t;
 	}
 }
@@ -0,0 +1,62 @@
+package finalProject;
+
+import java.util.BitSet;
+
+/**	Tests a set of points against the limbs of a posed skeleton.
+ * 
+ * 	There are two implementations:  a scalar one that tests the points one at a time,
+ * 	and one that uses the Vector API (jdk.incubator.vector) to test several points at
+ * 	once.  select() picks the vector implementation when the module is available at
+ * 	run time (java --add-modules jdk.incubator.vector ...), and the scalar one otherwise
+ * 	or when the system property finalProject.scalarHitTest is set to true.
+ * 
+ * 	The vector implementation is in the src-vector source folder, which build.sh only
+ * 	compiles when the JDK has the module (see VectorLimbKernel):  src itself compiles
+ * 	with a plain javac.
+ * 
+ * 	Both bring each point into the frame of the pose, the same way as StickFigure.contains,
+ * 	and give exactly the same results as Skeleton.limbsContain for each transformed point.
+ * 
+ */
+interface LimbKernel 
+{
+	/**	Marks the points that touch one of the limbs of a skeleton.  Bits already set 
+	 * 	in hits are left set.
+	 * 
+	 * @param skeleton		the skeleton
+	 * @param nodeX			x coordinate of each node, as computed by computePose
+	 * @param nodeY			y coordinate of each node, as computed by computePose
+	 * @param nodeOffset	index of the root in the node arrays
+	 * @param originX		x coordinate of the origin of the pose's frame, in the points' frame
+	 * @param originY		y coordinate of the origin of the pose's frame, in the points' frame
+	 * @param cosAngle		cosine of the rotation of the pose's frame
+	 * @param sinAngle		sine of the rotation of the pose's frame
+	 * @param xs			x coordinates of the points
+	 * @param ys			y coordinates of the points
+	 * @param count			number of points
+	 * @param hits			bit k gets set if point k touches a limb
+	 */
+	void limbsContain(Skeleton skeleton, float []nodeX, float []nodeY, int nodeOffset, 
+					  float originX, float originY, float cosAngle, float sinAngle,
+					  float []xs, float []ys, int count, BitSet hits);
+	
+	/**	Picks the fastest implementation available
+	 * 
+	 * @return	the vector kernel if the Vector API is there and allowed, the scalar kernel otherwise
+	 */
+	static LimbKernel select()
+	{
+		if (!Boolean.getBoolean("finalProject.scalarHitTest") && 
+			ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent())
+		{
+			//	loaded by name, so that nothing refers to the Vector API when the module is missing
+			try {
+				return (LimbKernel) Class.forName("finalProject.VectorLimbKernel").getDeclaredConstructor().newInstance();
+			} 
+			catch (ReflectiveOperationException | LinkageError e) {
+				//	falls back to the scalar kernel
+			}
+		}
+		return new ScalarLimbKernel();
+	}
+}
@@ -9,49 +9,49 @@ public class LinearKeyframeInterpolator extends KeyframeInterpolator {
 
 	public LinearKeyframeInterpolator(float[][] keyframes_) {
 		super(keyframes_);
-		// TODO Auto-generated constructor stub
 	}
 
-	public float[] computeStateVector(float t)
+	public LinearKeyframeInterpolator(KeyframeTimeline timeline) {
+		super(timeline);
+	}
+
+	public void computeStateVector(float t, float []stateVect, int offset, KeyframeCursor cursor)
 	{
-		final int T_INDEX = keyframes_[0].length-1;
-		final int DIM_STATE_VECT = keyframes_[0].length-1;
-		final int NUM_FRAMES = keyframes_.length;
+		final int DIM_STATE_VECT = timeline_.getDimension();
+		final int NUM_FRAMES = timeline_.getNumFrames();
+		final float []channels = timeline_.getChannels();
 		
-		double t0 = keyframes_[0][T_INDEX];
-		double tf = keyframes_[NUM_FRAMES-1][T_INDEX];
-
-		float []stateVect = new float[DIM_STATE_VECT];
+		float t0 = timeline_.getStartTime();
+		float tf = timeline_.getEndTime();
 
 		//	Before t0, the vehicle is at the first keyframe
 		if (t <= t0)
 		{
 			for (int k=0; k<DIM_STATE_VECT; k++)
-				stateVect[k] = keyframes_[0][k];
+				stateVect[offset+k] = channels[k*NUM_FRAMES];
 		}			
-		//	We are between two keyframes_  t0 < t ≤ t_n-1
+		//	We are between two keyframes  t0 < t ≤ t_n-1
 		else if (t <=  tf)
 		{
-			int i = getIntervalIndex(t);
+			int i = getIntervalIndex(t, cursor);
 			
 			//	Now we need to interpolate between frames i and i+1
 			//------------------------------------------------------
 			//	First, compute the fraction of the time interval already traveled
 			float tau= getTau(t, i);
 			
-			for (int k=0; k<DIM_STATE_VECT; k++)
+			//	the two values of a channel are next to each other in the timeline
+			for (int k=0, base=i; k<DIM_STATE_VECT; k++, base+=NUM_FRAMES)
 			{
-				stateVect[k] = keyframes_[i][k] + tau*(keyframes_[i+1][k]-keyframes_[i][k]);
+				stateVect[offset+k] = channels[base] + tau*(channels[base+1]-channels[base]);
 			}
 		}
 		//	After tf, the vehicle is at the last keyframe
 		else
 		{
 			for (int k=0; k<DIM_STATE_VECT; k++)
-				stateVect[k] = keyframes_[NUM_FRAMES-1][k];
+				stateVect[offset+k] = channels[k*NUM_FRAMES + NUM_FRAMES-1];
 		}		
-		
-		return stateVect;
 	}
 
 }
@@ -1,5 +1,8 @@
 package finalProject;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import processing.core.PApplet;
 import processing.core.PGraphics;
 import processing.core.PImage;
@@ -20,6 +23,7 @@ import processing.core.PImage;
 |		• 'f' displays the objects' reference frames						|
 |		• 'n' disables display of the objects' bounding boxes				|
 |		• 'l' makes the absolute boxes show 								|	
+|		• 'm' shows the frame governor's metrics							|
 |																			|
 |				 		Created using code by jyh							|
 |			  Revised by Sofia Rossi and Paige Courtemanche					|
@@ -29,12 +33,13 @@ import processing.core.PImage;
 public class MainClass extends PApplet implements ApplicationConstants 
 {
 	//-----------------------------
-	//	graphical objects
+	//	the match being played, on its own thread.  The sketch only
+	//	sends it commands and draws its snapshots, with its own
+	//	figures and faces.
 	//-----------------------------
-	KeyframedStickFigure player1_;
-	KeyframedStickFigure player2_;
-	PlayerFace playerOneHeadImage_;
-	PlayerFace playerTwoHeadImage_;
+	SimulationThread simulationThread_;
+	StickFigure []figures_;
+	PlayerFace []faces_;
 
 	//-----------------------------
 	//	Various status variables
@@ -44,7 +49,17 @@ public class MainClass extends PApplet implements ApplicationConstants
 	 */
 	static final float RENDERING_FRAME_RATE = 60;
 	
-	/**	Ratio of animation frames over rendering frames 
+	/**	Number of ticks of the match per second.  The match runs at this rate on its own
+	 * 	thread, whatever the rendering frame rate, and the frames are interpolated between 
+	 * 	the last two ticks.  A lower rate does change a few of the punches that land,
+	 * 	but the punches are swept (see GeometryCollisionEngine), which keeps them few: 
+	 * 	TickRateComparison measures how many, with and without the sweep.
+	 * 
+	 */
+	static final float SIMULATION_TICK_RATE = Simulation.TICK_RATE;
+	
+	/**	Ratio of animation frames over rendering frames to start with.  The frame
+	 * 	governor raises it when rendering can't keep up, and lowers it back when it can.
 	 * 
 	 */
 	static final int ANIMATION_RENDERING_FRAME_RATIO = 1;
@@ -55,12 +70,6 @@ public class MainClass extends PApplet implements ApplicationConstants
 	static final float ANIMATION_FRAME_RATE = RENDERING_FRAME_RATE * ANIMATION_RENDERING_FRAME_RATIO;
 	
 	
-	/**	Variable keeping track of the last time the update method was invoked.
-	 * 	The different between current time and last time is sent to the update
-	 * 	method of each object. 
-	 */
-	int lastUpdateTime_;
-	
 	/**	A counter for animation frames
 	 * 
 	 */
@@ -72,18 +81,57 @@ public class MainClass extends PApplet implements ApplicationConstants
 	AnimationMode animationMode_ = AnimationMode.BOX_WORLD;
 	boolean drawRefFrame_ = false;
 	boolean animate_ = true;
+	boolean showMetrics_ = false;
+	
+	//	the average cost of a rendered frame, shared by the governor and resolution_
+	FrameCost frameCost_;
+	
+	//	decides which frames are rendered
+	FrameGovernor governor_;
 	
-	//	Instead of rendering directly in the frame, we will draw in this object
+	/**	Number of frames of the world kept in the frame ring
+	 * 
+	 */
+	static final int FRAME_RING_SIZE = 3;
+	
+	//	Instead of rendering directly in the frame, we will draw in this object,
+	//	at the resolution chosen by resolution_, and stretch it over the window.
+	//	offScreenBuffer_ is a buffer of the frame ring, which keeps the last few 
+	//	frames (the previous one is frames_.getFrame(1)) without copying them.
 	PGraphics offScreenBuffer_;
-	boolean doDoubleBuffer = false;
-	PGraphics lastBuffer_;
+	FrameRing frames_;
+	ResolutionController resolution_;
+	boolean doDoubleBuffer = true;
+	
+	//	The layers that don't change every frame are drawn once, and then only copied
+	//	into the window:  the background, scaled to the window, the HUD (the background 
+	//	with the players' health over it), redrawn when the health changes, and a win 
+	//	screen for each player, drawn the first time it is shown.
+	PGraphics backgroundLayer_;
+	PGraphics hudLayer_;
+	int []hudHealth_ = {-1, -1};
+	PGraphics []winLayers_ = new PGraphics[Simulation.NUM_PLAYERS];
+	
+	/**	What the win screen of each player says, and where
+	 * 
+	 */
+	static final String []WIN_TEXT = {"The Rock Wins!", "John Cena Wins!"};
+	static final int []WIN_TEXT_X = {25, 20};
 	
-	PImage backgroundImage;
-	PImage winImage;
-	PImage playerOneHead;
-	PImage playerTwoHead;
+	/**	Images of the players' faces.  The faces are masked and resampled once, and kept
+	 * 	in a FaceCache, so that the next start doesn't decode and mask them again.
+	 * 
+	 */
+	static final String []HEAD_FILES = {"rockMan.jpg", "cenaMan.jpg"};
 	
-	boolean increaseScore;
+	//	The images are loaded on the asset manager's threads while a loading screen is
+	//	shown.  The match starts once the background and the faces are loaded;  the win
+	//	screen isn't needed before the end of the match, so it is loaded after them.
+	AssetManager assets_;
+	AssetManager.Asset<PImage> backgroundImage_;
+	AssetManager.Asset<PImage> winImage_;
+	List<AssetManager.Asset<FaceTexture>> heads_ = new ArrayList<>();
+	boolean loaded_ = false;
 
 	/** settings function
 	 * 
@@ -99,10 +147,18 @@ public class MainClass extends PApplet implements ApplicationConstants
 	 */
 	public void setup() 
 	{    
-		backgroundImage = loadImage("wrestlingRing.jpg");
-		winImage = loadImage("winScreen.png");
-		playerOneHead = loadImage("rockMan.jpg");
-		playerTwoHead = loadImage("cenaMan.jpg");
+		//	the images start loading first, on the asset manager's threads, while the
+		//	rest is set up
+		FaceCache faceCache = new FaceCache();
+		assets_ = new AssetManager();
+		backgroundImage_ = assets_.require("wrestlingRing.jpg", () -> loadImage("wrestlingRing.jpg"));
+		for (int p=0; p<Simulation.NUM_PLAYERS; p++)
+		{
+			String file = HEAD_FILES[p];
+			heads_.add(assets_.require(file, () -> faceCache.load(this, file, PlayerFace.getPixelWidth(StickFigure.HEAD_DIAMETER))));
+		}
+		winImage_ = assets_.defer("winScreen.png", () -> loadImage("winScreen.png"));
+		assets_.start();
 		
 		if (BAIL_OUT_IF_ASPECT_RATIOS_DONT_MATCH)
 		{
@@ -115,29 +171,68 @@ public class MainClass extends PApplet implements ApplicationConstants
 		
 		frameRate(ANIMATION_FRAME_RATE);
 		frameCount = 0;
+		frameCost_ = new FrameCost(ANIMATION_FRAME_RATE);
+		governor_ = new FrameGovernor(frameCost_, ANIMATION_RENDERING_FRAME_RATIO);
 
-		//	I allocate my off-screen buffer at the same dimensions as the window
-		offScreenBuffer_ = createGraphics(width, height);
+		//	I allocate the off-screen buffers of the frame ring:  for each frame kept, a 
+		//	buffer for each resolution the world can be drawn at
+		resolution_ = new ResolutionController(frameCost_);
+		PGraphics [][]buffers = new PGraphics[FRAME_RING_SIZE][ResolutionController.SCALES.length];
+		for (int f=0; f<FRAME_RING_SIZE; f++)
+			for (int k=0; k<ResolutionController.SCALES.length; k++)
+				buffers[f][k] = createGraphics(Math.round(width * ResolutionController.SCALES[k]),
+											   Math.round(height * ResolutionController.SCALES[k]));
+		frames_ = new FrameRing(buffers);
+		offScreenBuffer_ = frames_.getFrame(0);
 		
+		backgroundLayer_ = createGraphics(width, height);
+		hudLayer_ = createGraphics(width, height);
 
-		float [][]figureKeyFrames = { {  0,   0,  0.f,  255,  255,   0}};		
-		LinearKeyframeInterpolator figureInterpolator = new LinearKeyframeInterpolator(figureKeyFrames);
-		player1_ = new KeyframedStickFigure(figureInterpolator);
-		// moves player 1 to the left so they don't overlap
-		player1_.x_ = -7;
-		player2_ = new KeyframedStickFigure(figureInterpolator);
-		// moves player 2 to the right so they don't overlap
-		player2_.x_ = 7;
-		
-		float playerOneHeadX = player1_.getHeadX(), playerOneHeadY = player1_.getHeadY(), playerOneHeadSize = player1_.getHeadDiameter();
-		
-		float playerTwoHeadX = player2_.getHeadX(), playerTwoHeadY = player2_.getHeadY(), playerTwoHeadSize = player2_.getHeadDiameter();
-		
-		// the image in an ellipse that is overlaid player one's head
-		playerOneHeadImage_ = new PlayerFace(player1_.x_ + playerOneHeadX, player1_.y_ + playerOneHeadY, playerOneHead, playerOneHeadSize);
-		
-		// the image in an ellipse that is overlaid player two's head
-		playerTwoHeadImage_ = new PlayerFace(player2_.x_ + playerTwoHeadX, player2_.y_ + playerTwoHeadY, playerTwoHead, playerTwoHeadSize);
+		// the match owns the players, the renderer only draws them:  the match has
+		// no images, the faces drawn are the renderer's.  The match's thread is started
+		// once the assets are loaded.
+		Simulation simulation = new Simulation(null, null, new GeometryCollisionEngine(), SIMULATION_TICK_RATE);
+		figures_ = new StickFigure[Simulation.NUM_PLAYERS];
+		faces_ = new PlayerFace[Simulation.NUM_PLAYERS];
+		for (int p=0; p<Simulation.NUM_PLAYERS; p++)
+			figures_[p] = new StickFigure();
+		simulationThread_ = new SimulationThread(simulation);
+	}
+	
+	/** finishes the setup once the assets the first frame needs are loaded, and
+	 * 	starts the match
+	 * 
+	 */
+	private void finishSetup()
+	{
+		//	the background is scaled to the window once and for all.  The assets that
+		//	failed to load were reported by the asset manager, and are done without:  
+		//	a black background, and plain ellipses for the faces.
+		PImage background = backgroundImage_.get();
+		backgroundLayer_.beginDraw();
+		if (background != null)
+			backgroundLayer_.image(background, 0, 0, width, height);
+		else
+			backgroundLayer_.background(0);
+		backgroundLayer_.endDraw();
+
+		//	the faces are placed over the heads by the snapshots, like the figures
+		for (int p=0; p<Simulation.NUM_PLAYERS; p++)
+			faces_[p] = new PlayerFace(0, 0, heads_.get(p).get(), figures_[p].getHeadDiameter());
+		System.out.println(String.format("assets for the first frame loaded in %.1f ms", assets_.getReadyTime()));
+
+		loaded_ = true;
+		simulationThread_.start();
+	}
+	
+	/** stops the match's thread and the asset manager's when the sketch closes
+	 * 
+	 */
+	public void dispose()
+	{
+		simulationThread_.stop();
+		assets_.shutdownNow();
+		super.dispose();
 	}
 
 	/** draws everything
@@ -145,45 +240,61 @@ public class MainClass extends PApplet implements ApplicationConstants
 	 */
 	public void draw()
 	{
+		if (!loaded_)
+		{
+			if (!assets_.isReady())
+			{
+				drawLoadingScreen();
+				return;
+			}
+			finishSetup();
+		}
 		
-		if (frameCount % ANIMATION_RENDERING_FRAME_RATIO == 0)
+		if (governor_.shouldRender())
 		{
-			image(backgroundImage, 0, 0, width, height);
+			long frameStart = System.nanoTime();
+			
+			// the state of the match between its last two ticks
+			MatchSnapshot snapshot = simulationThread_.getSnapshot();
+			float alpha = snapshot.getInterpolation(System.nanoTime());
+			for (int p=0; p<Simulation.NUM_PLAYERS; p++)
+				snapshot.apply(p, figures_[p], faces_[p], alpha);
+			
+			// the static layers:  the win screen once a player has lost all their health
+			// (player 2's if both have), the HUD otherwise
+			int winner = snapshot.getHealth(Simulation.PLAYER_ONE) <= 0 ? Simulation.PLAYER_TWO :
+						 snapshot.getHealth(Simulation.PLAYER_TWO) <= 0 ? Simulation.PLAYER_ONE : -1;
+			if (winner >= 0)
+				image(getWinLayer(winner), 0, 0);
+			else
+			{
+				if (snapshot.getHealth(Simulation.PLAYER_ONE) != hudHealth_[Simulation.PLAYER_ONE] ||
+					snapshot.getHealth(Simulation.PLAYER_TWO) != hudHealth_[Simulation.PLAYER_TWO])
+					updateHudLayer(snapshot);
+				image(hudLayer_, 0, 0);
+			}
 			
 			PGraphics gc;
 			if (doDoubleBuffer) 
 			{
+				//	the world is drawn at the current resolution, over a transparent buffer,
+				//	in the slot of the oldest frame of the ring
+				offScreenBuffer_ = frames_.next(resolution_.getStep());
 				gc = offScreenBuffer_;
 				offScreenBuffer_.beginDraw();
+				offScreenBuffer_.clear();
+				offScreenBuffer_.scale(resolution_.getScale());
+				PlayerFace.setRenderScale(resolution_.getScale());
 			}
 			else
+			{
 				gc = this.g;
-
-			
-			// This displays the health of each player 
-			textSize(20);
-			fill(255);
-			text("The Rock's Health: " + player1_.health, 10, 30);
-			text("John Cena's Health: " + player2_.health, 575, 30);
-			
-			// If player 2 loses all their health then player 1's win screen is shown
-			if (player2_.health <= 0) {
-				image(winImage, 0, 0, width, height);
-				fill(255, 0, 0);
-				textSize(100);
-				text("The Rock Wins!", 25, 300);
+				PlayerFace.setRenderScale(1);
 			}
-
-			// If player 1 loses all their health then player 2's win screen is shown
-			if (player1_.health <= 0) {
-				image(winImage, 0, 0, width, height);
-				fill(255, 0, 0);
-				textSize(100);
-				text("John Cena Wins!", 20, 300);
-			}
-
+			
 			// The origin is placed at the window's center
 			// Then, the units are scaled to world units
+			gc.pushMatrix();
 			gc.translate(WORLD_X, WORLD_Y); 
 			gc.scale(DRAW_IN_WORLD_UNITS_SCALE, -DRAW_IN_WORLD_UNITS_SCALE);
 
@@ -192,92 +303,107 @@ public class MainClass extends PApplet implements ApplicationConstants
 
 			if (animationMode_ == AnimationMode.BOX_WORLD)
 			{
-				player1_.draw(gc);
-				player2_.draw(gc);
-				playerOneHeadImage_.draw(gc);
-				playerTwoHeadImage_.draw(gc);
+				for (int p=0; p<Simulation.NUM_PLAYERS; p++)
+					figures_[p].draw(gc);
+				for (int p=0; p<Simulation.NUM_PLAYERS; p++)
+					faces_[p].draw(gc);
 			}
+			gc.popMatrix();
 
 			if (doDoubleBuffer)
 			{
 				offScreenBuffer_.endDraw();
 
-				image(offScreenBuffer_, 0, 0);				
-	
-				lastBuffer_.beginDraw();
-				lastBuffer_.image(offScreenBuffer_, 0, 0);
-				lastBuffer_.endDraw();
-
-				int []pixelLB = lastBuffer_.pixels;
-				int []pixelOB = offScreenBuffer_.pixels;
-				for (int k=0; k<width*height; k++)
-					pixelLB[k] = pixelOB[k];
-				
-				lastBuffer_.updatePixels();
+				image(offScreenBuffer_, 0, 0, width, height);				
 			}
+			
+			//	over the world, in pixels of the window
+			if (showMetrics_)
+				drawMetrics();
+			
+			//	one cost for both controllers:  the resolution goes down first, frames are
+			//	only skipped once it is at its lowest, and it only goes up again once no
+			//	frame is skipped
+			frameCost_.frameRendered(System.nanoTime() - frameStart);
+			governor_.frameRendered(!doDoubleBuffer || resolution_.isLowest());
+			if (doDoubleBuffer && governor_.getRatio() == 1)
+				resolution_.frameRendered();
 		}
 
-		if (animate_)
-		{
-			update();
-		}
-		
 		frameCount++;
 	}
 	
-	/** the update function that updates all drawn objects
+	/** redraws the HUD layer:  the background, with the health of each player over it
 	 * 
+	 * @param snapshot	the state of the match
 	 */
-	public void update() {
-
-		int time = millis();
-
-		if (animate_)
-		{
-			float dt = (time - lastUpdateTime_)*0.001f;
-			
-			player1_.update(dt);
-			player2_.update(dt);
-			playerOneHeadImage_.update(dt);
-			playerTwoHeadImage_.update(dt);
-		}
-		
-		// state1 is the current state of player 1
-		int state1 = player1_.getState();
-		
-		// if player 1 is punching, then a check is done to see if the punch landed on player 2
-		switch (state1) {
-		case PUNCHING_RIGHT:
-			float []rightFist = player1_.getRightFist();
-			if (player2_.isInside(rightFist[0], rightFist[1]))
-				increaseScore = true;
-			break;
-		case PUNCHING_LEFT:
-			float []leftFist = player1_.getLeftFist();
-			if (player2_.isInside(leftFist[0], leftFist[1]))
-				increaseScore = true;
-			break;
-		}
-
-		// state2 is the current state of player 2
-		int state2 = player2_.getState();
+	private void updateHudLayer(MatchSnapshot snapshot)
+	{
+		for (int p=0; p<Simulation.NUM_PLAYERS; p++)
+			hudHealth_[p] = snapshot.getHealth(p);
 		
-
-		// if player 2 is punching, then a check is done to see if the punch landed on player 1
-		switch (state2) {
-		case PUNCHING_RIGHT:
-			float []rightFist = player2_.getRightFist();
-			if (player1_.isInside(rightFist[0], rightFist[1]))
-				increaseScore = true;
-			break;
-		case PUNCHING_LEFT:
-			float []leftFist = player2_.getLeftFist();
-			if (player1_.isInside(leftFist[0], leftFist[1]))
-				increaseScore = true;
-			break;
+		hudLayer_.beginDraw();
+		hudLayer_.image(backgroundLayer_, 0, 0);
+		hudLayer_.textSize(20);
+		hudLayer_.fill(255);
+		hudLayer_.text("The Rock's Health: " + hudHealth_[Simulation.PLAYER_ONE], 10, 30);
+		hudLayer_.text("John Cena's Health: " + hudHealth_[Simulation.PLAYER_TWO], 575, 30);
+		hudLayer_.endDraw();
+	}
+	
+	/** draws the loading screen:  a bar that fills up as the assets are loaded
+	 * 
+	 */
+	private void drawLoadingScreen()
+	{
+		background(0);
+		fill(255);
+		textSize(30);
+		text("Loading...", width/2 - 70, height/2 - 20);
+		noFill();
+		stroke(255);
+		rect(width/4, height/2, width/2, 20);
+		fill(255);
+		rect(width/4, height/2, width/2 * assets_.getLoadedCount() / Math.max(1, assets_.getRequiredCount()), 20);
+	}
+	
+	/** returns the win screen of a player, drawn the first time it is asked for
+	 * 
+	 * @param winner	PLAYER_ONE or PLAYER_TWO
+	 * @return	the layer of the player's win screen
+	 */
+	private PGraphics getWinLayer(int winner)
+	{
+		if (winLayers_[winner] == null)
+		{
+			PGraphics layer = createGraphics(width, height);
+			PImage winImage = winImage_.get();
+			layer.beginDraw();
+			if (winImage != null)
+				layer.image(winImage, 0, 0, width, height);
+			else
+				layer.background(0);
+			layer.fill(255, 0, 0);
+			layer.textSize(100);
+			layer.text(WIN_TEXT[winner], WIN_TEXT_X[winner], 300);
+			layer.endDraw();
+			winLayers_[winner] = layer;
 		}
-
-		lastUpdateTime_ = time;
+		return winLayers_[winner];
+	}
+	
+	/** displays what the frame governor does
+	 * 
+	 */
+	private void drawMetrics()
+	{
+		textSize(14);
+		fill(255, 255, 0);
+		text(String.format("render 1/%d  cost %.1f/%.1f ms  skipped %d  slower %d  faster %d  resolution %.0f%%",
+						   governor_.getRatio(), frameCost_.getAverageCost(), frameCost_.getBudget(),
+						   governor_.getSkippedFrames(), governor_.getSlowDowns(), governor_.getSpeedUps(),
+						   100 * (doDoubleBuffer ? resolution_.getScale() : 1)),
+			 10, height - 10);
 	}
 	
 	/** draws the reference frame
@@ -293,70 +419,23 @@ public class MainClass extends PApplet implements ApplicationConstants
 		g.line(0, 0, 0, WORLD_WIDTH/20);
 	}
 
-	/** the keyboard commands that control the players
+	/** the keyboard commands that control the players and the display
 	 * 
 	 */
 	public void keyPressed() {
-		if (key == CODED) {
-			switch(keyCode) {
-			case LEFT:
-				player1_.moveLeft();
-				playerOneHeadImage_.moveLeft();
-				break;
-			case RIGHT:
-				player1_.moveRight();
-				playerOneHeadImage_.moveRight();
-				break;
-			case UP: 
-				player1_.jump();
-				playerOneHeadImage_.jump();
-				break;
-			case SHIFT:
-				player1_.punchRight();
-				playerOneHeadImage_.punchRight();
-				if (increaseScore == true)
-					player2_.health -= 1;
-				increaseScore = false;
-				break;
-			}
-		} else switch(key) {
-			case '/':
-				player1_.punchLeft();
-				playerOneHeadImage_.punchLeft();
-				if (increaseScore == true)
-					player2_.health -= 1;
-				increaseScore = false;
-				break;
-			case 'a':
-				player2_.moveLeft();
-				playerTwoHeadImage_.moveLeft();
-				break;
-			case 'd': 
-				player2_.moveRight();
-				playerTwoHeadImage_.moveRight();
-				break;
-			case 'w':
-				player2_.jump();
-				playerTwoHeadImage_.jump();
-				break;
-			case 'q':
-				player2_.punchLeft();
-				playerTwoHeadImage_.punchLeft();
-				if (increaseScore == true)
-					player1_.health -= 1;
-				increaseScore = false;
-				break;
-			case 'e':
-				player2_.punchRight();
-				playerTwoHeadImage_.punchRight();
-				if (increaseScore == true)
-					player1_.health -= 1;
-				increaseScore = false;
-				break;
+		// the players' commands are queued for the match's thread
+		int command = gameCommand(key, keyCode);
+		if (command >= 0) {
+			// the match doesn't start before the assets are loaded
+			if (loaded_)
+				simulationThread_.command(command / Simulation.NUM_COMMANDS, command % Simulation.NUM_COMMANDS);
+			return;
+		}
+		
+		switch(key) {
 			case 'z':
 				animate_ = !animate_;
-				if (animate_)
-					lastUpdateTime_ = millis();
+				simulationThread_.setPaused(!animate_);
 				break;	
 			case 'n':
 				boxMode_ = BoundingBoxMode.NO_BOX;
@@ -368,6 +447,9 @@ public class MainClass extends PApplet implements ApplicationConstants
 			case 'f':
 				drawRefFrame_ = !drawRefFrame_;
 				break;
+			case 'm':
+				showMetrics_ = !showMetrics_;
+				break;
 			case 'b':
 				animationMode_ = AnimationMode.BOX_WORLD;
 				break;
@@ -376,6 +458,49 @@ public class MainClass extends PApplet implements ApplicationConstants
 		}
 	}
 	
+	/** Translates a key press into a command for the players of a match
+	 * 
+	 * @param sim		the match the command is sent to
+	 * @param key		the key that was pressed
+	 * @param keyCode	the code of the key, if key is CODED
+	 * @return	true if the key is one of the players' controls
+	 */
+	static boolean applyGameKey(Simulation sim, char key, int keyCode) {
+		int command = gameCommand(key, keyCode);
+		if (command < 0)
+			return false;
+		sim.command(command / Simulation.NUM_COMMANDS, command % Simulation.NUM_COMMANDS);
+		return true;
+	}
+	
+	/** Finds the player's command a key stands for
+	 * 
+	 * @param key		the key that was pressed
+	 * @param keyCode	the code of the key, if key is CODED
+	 * @return	player * NUM_COMMANDS + command (see Simulation), or -1 if the key 
+	 * 			isn't one of the players' controls
+	 */
+	static int gameCommand(char key, int keyCode) {
+		final int ONE = Simulation.PLAYER_ONE * Simulation.NUM_COMMANDS;
+		final int TWO = Simulation.PLAYER_TWO * Simulation.NUM_COMMANDS;
+		if (key == CODED) {
+			switch(keyCode) {
+			case LEFT:		return ONE + Simulation.MOVE_LEFT;
+			case RIGHT:		return ONE + Simulation.MOVE_RIGHT;
+			case UP: 		return ONE + Simulation.JUMP;
+			case SHIFT:		return ONE + Simulation.PUNCH_RIGHT;
+			}
+		} else switch(key) {
+			case '/':		return ONE + Simulation.PUNCH_LEFT;
+			case 'a':		return TWO + Simulation.MOVE_LEFT;
+			case 'd': 		return TWO + Simulation.MOVE_RIGHT;
+			case 'w':		return TWO + Simulation.JUMP;
+			case 'q':		return TWO + Simulation.PUNCH_LEFT;
+			case 'e':		return TWO + Simulation.PUNCH_RIGHT;
+		}
+		return -1;
+	}
+	
 
 	public static void main(String[] argv) {
 		PApplet.main("finalProject.MainClass");
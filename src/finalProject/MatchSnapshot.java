@@ -0,0 +1,176 @@
+package finalProject;
+
+/**	What the renderer needs to know about a match at the end of a tick:  where the
+ * 	players and their faces are, the pose of each figure, and the players' health.
+ * 	The positions and poses are also kept as they were before the tick, so that the
+ * 	renderer can draw the match anywhere between the last two ticks.
+ *
+ * 	A snapshot is filled by the thread that runs the match (capturePrevious, capture)
+ * 	and read by the thread that draws it (apply), never by both at the same time (see 
+ * 	SnapshotBuffer).  The renderer draws its own figures and faces, whose fields are 
+ * 	set from the snapshot, so it never reads the objects of the match while they are 
+ * 	being updated.
+ *
+ */
+public class MatchSnapshot implements ApplicationConstants
+{
+	// first index of the positions and poses:  before and after the tick
+	private static final int PREVIOUS = 0, CURRENT = 1;
+
+	// tick of the match the snapshot was taken at, and the simulated time then
+	private long tick_;
+	private float time_;
+
+	// when the tick was due (System.nanoTime()), and the duration of a tick (in nanoseconds)
+	private long tickTime_;
+	private long tickNanos_;
+
+	// health of each player, indexed by player
+	private final int []health_ = new int[Simulation.NUM_PLAYERS];
+
+	// position of each figure and face before and after the tick, indexed by [PREVIOUS or CURRENT][player]
+	private final float [][]figureX_ = new float[2][Simulation.NUM_PLAYERS];
+	private final float [][]figureY_ = new float[2][Simulation.NUM_PLAYERS];
+	private final float [][]figureAngle_ = new float[2][Simulation.NUM_PLAYERS];
+	private final float [][]faceX_ = new float[2][Simulation.NUM_PLAYERS];
+	private final float [][]faceY_ = new float[2][Simulation.NUM_PLAYERS];
+	private final float [][]faceAngle_ = new float[2][Simulation.NUM_PLAYERS];
+
+	// the joint angles (and clip channels) of each figure before and after the tick, 
+	// NUM_CHANNELS per player
+	private final float [][]joints_ = new float[2][Simulation.NUM_PLAYERS * StickFigure.NUM_CHANNELS];
+
+	/**	Copies the positions and poses of a match, before a tick, into the snapshot
+	 *
+	 * @param sim	the match
+	 */
+	public void capturePrevious(Simulation sim)
+	{
+		capture_(sim, PREVIOUS);
+	}
+
+	/**	Copies the state of a match, after a tick, into the snapshot
+	 *
+	 * @param sim		the match
+	 * @param tickTime	when the tick was due (System.nanoTime())
+	 */
+	public void capture(Simulation sim, long tickTime)
+	{
+		tick_ = sim.getTick();
+		time_ = sim.getTime();
+		tickTime_ = tickTime;
+		tickNanos_ = Math.round(sim.getTickDuration() * 1E9);
+		for (int p=0; p<Simulation.NUM_PLAYERS; p++)
+			health_[p] = sim.getFighter(p).health;
+		capture_(sim, CURRENT);
+	}
+
+	// copies the positions and poses of a match into one side of the snapshot
+	private void capture_(Simulation sim, int side)
+	{
+		for (int p=0; p<Simulation.NUM_PLAYERS; p++)
+		{
+			StickFigure figure = sim.getFighter(p);
+			PlayerFace face = sim.getFace(p);
+			figureX_[side][p] = figure.x_;
+			figureY_[side][p] = figure.y_;
+			figureAngle_[side][p] = figure.angle_;
+			faceX_[side][p] = face.x_;
+			faceY_[side][p] = face.y_;
+			faceAngle_[side][p] = face.angle_;
+			System.arraycopy(figure.joints_, 0, joints_[side], p * StickFigure.NUM_CHANNELS, StickFigure.NUM_CHANNELS);
+		}
+	}
+
+	/**	Places a player's figure and face as they are after the tick
+	 *
+	 * @param player	PLAYER_ONE or PLAYER_TWO
+	 * @param figure	the figure drawn for the player
+	 * @param face		the face drawn over the player's head
+	 */
+	public void apply(int player, StickFigure figure, PlayerFace face)
+	{
+		apply(player, figure, face, 1);
+	}
+
+	/**	Places a player's figure and face between where they were before the tick
+	 * 	and where they are after it
+	 *
+	 * @param player	PLAYER_ONE or PLAYER_TWO
+	 * @param figure	the figure drawn for the player
+	 * @param face		the face drawn over the player's head
+	 * @param alpha		0 for the state before the tick, 1 for the state after it
+	 */
+	public void apply(int player, StickFigure figure, PlayerFace face, float alpha)
+	{
+		figure.x_ = lerp_(figureX_, player, alpha);
+		figure.y_ = lerp_(figureY_, player, alpha);
+		figure.angle_ = lerp_(figureAngle_, player, alpha);
+		figure.health = health_[player];
+		float []previous = joints_[PREVIOUS], current = joints_[CURRENT];
+		for (int k=0, j=player * StickFigure.NUM_CHANNELS; k<StickFigure.NUM_CHANNELS; k++, j++)
+			figure.joints_[k] = previous[j] + alpha * (current[j] - previous[j]);
+		figure.updateAbsoluteBoxes_();
+		figure.updatePose_();
+
+		face.x_ = lerp_(faceX_, player, alpha);
+		face.y_ = lerp_(faceY_, player, alpha);
+		face.angle_ = lerp_(faceAngle_, player, alpha);
+		face.updateAbsoluteBoxes_();
+	}
+
+	// a value of a player between before and after the tick
+	private static float lerp_(float [][]value, int player, float alpha)
+	{
+		return value[PREVIOUS][player] + alpha * (value[CURRENT][player] - value[PREVIOUS][player]);
+	}
+
+	/**	Computes how far between the last two ticks the match should be drawn at some time.
+	 * 	The state after a tick is drawn a tick after the tick was due, so that there
+	 * 	always is a tick after the time drawn.
+	 *
+	 * @param time	the time of the frame (System.nanoTime())
+	 * @return	the fraction of the tick elapsed at that time, between 0 and 1
+	 */
+	public float getInterpolation(long time)
+	{
+		return Math.max(0, Math.min(1, (float) (time - tickTime_) / tickNanos_));
+	}
+
+	/** returns the health of a player
+	 *
+	 * @param player	PLAYER_ONE or PLAYER_TWO
+	 * @return	the remaining health of that player
+	 */
+	public int getHealth(int player)
+	{
+		return health_[player];
+	}
+
+	/** tells whether one of the players had lost all their health
+	 *
+	 * @return	true if the match was over
+	 */
+	public boolean isOver()
+	{
+		return health_[Simulation.PLAYER_ONE] <= 0 || health_[Simulation.PLAYER_TWO] <= 0;
+	}
+
+	/** returns the tick of the match the snapshot was taken at
+	 *
+	 * @return	the tick count of the match
+	 */
+	public long getTick()
+	{
+		return tick_;
+	}
+
+	/** returns the simulated time the snapshot was taken at
+	 *
+	 * @return	the simulated time (in seconds)
+	 */
+	public float getTime()
+	{
+		return time_;
+	}
+}
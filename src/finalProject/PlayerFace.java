@@ -17,16 +17,28 @@ import processing.core.PImage;
  *
  */
 public class PlayerFace extends GraphicObject {
+	// fraction of the window's resolution the faces are rendered at (see setRenderScale)
+	private static float renderScale_ = 1;
+	
 	// this will be the scale applied to the image
 	float scale_;
 	
-	// this will become a copy of a given image
+	// this will become a copy of a given image, masked, at its size in the window (the
+	// first level of the mip chain)
 	PImage copy_;
 	
+	// the masked face (see FaceTexture), and the scale applied to each level of its 
+	// mip chain (in world units per pixel)
+	private FaceTexture texture_;
+	private float []levelScale_;
+	
 	// the initial state is the same as that of a stick figure
 	private int state_ = DO_NOTHING;
 	private float animationTime_;
 	
+	// receives the state vector of the current clip (a single channel: y or vx)
+	private float []stateVector_ = new float[1];
+	
 	// there is an interpolator for each of the five moving state
 	private KeyframeInterpolator jumpInterpolator_;
 	private KeyframeInterpolator leftInterpolator_;
@@ -36,7 +48,7 @@ public class PlayerFace extends GraphicObject {
 	
 	// keyframes for when the stick figure jumps
 	//								 	y	   t
-	private float[][] jumpFrames = {{	0,     	0},
+	private static final float[][] jumpFrames = {{	0,     	0},
 									{   -1.f,   0.3f},
 									{	3.f,    0.6f},
 									{	0,		0.9f},
@@ -45,7 +57,7 @@ public class PlayerFace extends GraphicObject {
 
 	// keyframes for when the stick figure is walking left
 	//								 	vx	     t
-	private float[][] leftFrames = {{	-5.f,     0},
+	private static final float[][] leftFrames = {{	-5.f,     0},
 									{	-5.f,     0.1f}, 
 									{	-5.f,     0.2f}, 
 									{	-5.f,     0.3f}, 
@@ -57,7 +69,7 @@ public class PlayerFace extends GraphicObject {
 	
 	// keyframes for when the stick figure is walking right
 	//									vx	     t
-	private float[][] rightFrames = {{	5.f,     0},
+	private static final float[][] rightFrames = {{	5.f,     0},
 									{	5.f,     0.1f}, 
 									{	5.f,     0.2f}, 
 									{	5.f,     0.3f}, 
@@ -69,7 +81,7 @@ public class PlayerFace extends GraphicObject {
 	
 	// keyframes for when the stick figure punches to the left
 	// 								  y				t
-	private float[][] leftPunch = {{  0,			0},
+	private static final float[][] leftPunch = {{  0,			0},
 								   {  -0.5f,		0.04f},
 								   {  -0.5f,		0.08f},
 								   {  -0.5f,		0.12f},
@@ -83,7 +95,7 @@ public class PlayerFace extends GraphicObject {
 	
 	// keyframes for when the stick figure punches to the right
 	// 								  y				t
-	private float[][] rightPunch = {{  0,		0},
+	private static final float[][] rightPunch = {{  0,		0},
 				   					{  -0.5f,	0.04f},
 									{  -0.5f,	0.08f},
 									{  -0.5f,	0.12f},
@@ -98,42 +110,89 @@ public class PlayerFace extends GraphicObject {
 	
 	/**	Constructor. Initializes all instance variables to the values set by the arguments
 	 * 
-	 * @param img
-	 * @param ellipseWidth
+	 * @param x				x coordinate of the face's center (in world coordinates)
+	 * @param y				y coordinate of the face's center (in world coordinates)
+	 * @param img			image to fill the ellipse with (null for a plain ellipse)
+	 * @param ellipseWidth	width of the ellipse (in world units)
 	 */
 	public PlayerFace(float x, float y, PImage img, float ellipseWidth) {
+		this(x, y, img == null ? null : FaceTexture.create(img, getPixelWidth(ellipseWidth)), ellipseWidth);
+	}
+	
+	/**	Constructor for a face that was already masked (e.g. read from a FaceCache)
+	 * 
+	 * @param x				x coordinate of the face's center (in world coordinates)
+	 * @param y				y coordinate of the face's center (in world coordinates)
+	 * @param texture		masked face to fill the ellipse with (null for a plain ellipse)
+	 * @param ellipseWidth	width of the ellipse (in world units)
+	 */
+	public PlayerFace(float x, float y, FaceTexture texture, float ellipseWidth) {
 		super();
 		x_ = x;
 		y_ = y;
 		width_ = ellipseWidth;
-		height_ = (int)(img.height * ellipseWidth/img.width);
-		setupDefaultBoundingBoxes_();
-		scale_ = ellipseWidth/img.width;
-		copy_ = img.copy();
-		copy_.loadPixels();
 		vx_ = 0;
 		vy_ = 0;
 		angle_ = 3.2f; //this value makes the player face images appear upright
 		
-		//every pixel in the image that is outside the bounds of the ellipse becomes transparent
-		for (int i = 0; i < copy_.height; i++) {
-			for (int j = 0; j < copy_.width; j++){ 
-				if (isInside(j, i) == false) {
-					copy_.pixels[i*copy_.pixelWidth + j] = 0x01FFFFFF; //1 is the minimum transparency, so the image will be full transparent
-				}
-			}
+		// without an image (e.g. in a headless simulation) the face is a plain circle
+		if (texture == null) {
+			height_ = ellipseWidth;
+			scale_ = 1;
+			setupDefaultBoundingBoxes_();
+		}
+		else {
+			height_ = (int)(texture.getSourceHeight() * ellipseWidth/texture.getSourceWidth());
+			setupDefaultBoundingBoxes_();
+			
+			// the image was masked and resampled once, to the face's size in the window and to 
+			// smaller sizes for lower rendering resolutions, so drawing a face never scales 
+			// down a large image
+			texture_ = texture;
+			levelScale_ = new float[texture.getNumLevels()];
+			for (int k=0; k<levelScale_.length; k++)
+				levelScale_[k] = width_ / texture.getLevel(k).width;
+			copy_ = texture.getLevel(0);
+			scale_ = levelScale_[0];
 		}
-		copy_.updatePixels();
 		
 		// interpolators that interpret the keyframes
-		jumpInterpolator_ = new LinearKeyframeInterpolator(jumpFrames);
-		leftInterpolator_ = new LinearKeyframeInterpolator(leftFrames);
-		rightInterpolator_ = new LinearKeyframeInterpolator(rightFrames);
-		lPunchInterpolator_ = new LinearKeyframeInterpolator(leftPunch);
-		rPunchInterpolator_ = new LinearKeyframeInterpolator(rightPunch);
+		jumpInterpolator_ = createClipInterpolator_(jumpFrames);
+		leftInterpolator_ = createClipInterpolator_(leftFrames);
+		rightInterpolator_ = createClipInterpolator_(rightFrames);
+		lPunchInterpolator_ = createClipInterpolator_(leftPunch);
+		rPunchInterpolator_ = createClipInterpolator_(rightPunch);
+	}
+	
+	
+
+	/**	returns the width of a face in the window
+	 * 
+	 * @param ellipseWidth	width of the ellipse (in world units)
+	 * @return	the width of the face in the window (in pixels)
+	 */
+	public static int getPixelWidth(float ellipseWidth) {
+		return Math.round(ellipseWidth * WORLD_TO_PIXEL);
 	}
 	
+	/**	Sets the fraction of the window's resolution the faces are rendered at, so that
+	 * 	they are drawn from the level of their mip chain closest to that resolution
+	 * 
+	 * @param scale		1 at the window's resolution, 0.5 at half of it, and so on
+	 */
+	public static void setRenderScale(float scale) {
+		renderScale_ = scale;
+	}
 	
+	/**	returns the level of the mip chain closest to the rendering resolution
+	 * 
+	 * @return	the index of the level to draw
+	 */
+	int getMipLevel() {
+		//	level k is at 1/2^k of the window's resolution
+		int k = Math.round((float) (Math.log(1 / renderScale_) / Math.log(2)));
+		return Math.max(0, Math.min(levelScale_.length-1, k));
+	}
 
 	/**	Rendering code specific to ellipses
 	 * 
@@ -143,11 +202,14 @@ public class PlayerFace extends GraphicObject {
 		// the ellipse is filled with a color if there is no image
 		if (copy_  == null) {
 			g.ellipse(0,  0,  width_, height_);
-		// if there is an image, it is applied to the ellipse
+		// if there is an image, it is applied to the ellipse, from the level of its
+		// mip chain closest to the rendering resolution
 		} else {
+			int k = getMipLevel();
+			PImage level = texture_.getLevel(k);
 			g.pushMatrix();
-			g.scale(scale_, scale_);
-			g.image(copy_, -copy_.width/2, -copy_.height/2,  copy_.width, copy_.height);
+			g.scale(levelScale_[k], levelScale_[k]);
+			g.image(level, -level.width/2, -level.height/2,  level.width, level.height);
 			g.popMatrix();
 		}
 	}
@@ -223,42 +285,42 @@ public class PlayerFace extends GraphicObject {
 			
 		case JUMPING:
 			animationTime_ += dt;
-			float []jumpStateVector = jumpInterpolator_.computeStateVector(animationTime_);
-			y_ = jumpStateVector[0];
+			jumpInterpolator_.computeStateVector(animationTime_, stateVector_, 0);
+			y_ = stateVector_[0];
 			if (jumpInterpolator_.animationIsFinished(animationTime_))
 				state_ = DO_NOTHING;
 			break;
 			
 		case WALKING_LEFT:
 			animationTime_ += dt;
-			float []leftStateVector = leftInterpolator_.computeStateVector(animationTime_);		
-			vx_ = leftStateVector[0];
+			leftInterpolator_.computeStateVector(animationTime_, stateVector_, 0);
+			vx_ = stateVector_[0];
 			if (leftInterpolator_.animationIsFinished(animationTime_))
 				state_ = DO_NOTHING;
 			break;
 			
 		case WALKING_RIGHT:
 			animationTime_ += dt;
-			float []rightStateVector = rightInterpolator_.computeStateVector(animationTime_);	
-			vx_ = rightStateVector[0];
+			rightInterpolator_.computeStateVector(animationTime_, stateVector_, 0);
+			vx_ = stateVector_[0];
 			if (rightInterpolator_.animationIsFinished(animationTime_))
 				state_ = DO_NOTHING;
 			break;
 			
 		case PUNCHING_LEFT:
 			animationTime_ += dt;
-			float []lPunchStateVector = lPunchInterpolator_.computeStateVector(animationTime_);
-			y_ = lPunchStateVector[0];
-			vx_ = lPunchStateVector[0];
+			lPunchInterpolator_.computeStateVector(animationTime_, stateVector_, 0);
+			y_ = stateVector_[0];
+			vx_ = stateVector_[0];
 			if (lPunchInterpolator_.animationIsFinished(animationTime_))
 				state_ = DO_NOTHING;
 			break;
 			
 		case PUNCHING_RIGHT:
 			animationTime_ += dt;
-			float []rPunchStateVector = rPunchInterpolator_.computeStateVector(animationTime_);
-			y_ = rPunchStateVector[0];
-			vx_ = -rPunchStateVector[0];
+			rPunchInterpolator_.computeStateVector(animationTime_, stateVector_, 0);
+			y_ = stateVector_[0];
+			vx_ = -stateVector_[0];
 			if (rPunchInterpolator_.animationIsFinished(animationTime_))
 				state_ = DO_NOTHING;
 			break;
@@ -270,11 +332,12 @@ public class PlayerFace extends GraphicObject {
 	 * 
 	 */
 	protected void updateAbsoluteBoxes_() {
-            // could definitely be optimized
 			float cA = PApplet.cos(angle_), sA = PApplet.sin(angle_);
 			float hwidth = width_/2, hheight = height_/2;
-			float []cornerX;
-			float []cornerY;
+			
+			//	half dimensions of the box.  The box is symmetric about the center 
+			//	of the ellipse, so there is no need to build the four corners.
+			float halfX, halfY;
 			
 			//----------------------------------------------
 			//	General case first
@@ -286,56 +349,30 @@ public class PlayerFace extends GraphicObject {
 				float tV = (float) Math.atan(-(height_*sA)/(width_*cA));
 				float tH = (float) Math.atan((height_*cA)/(width_*sA));
 				
-//				float dxH = (float) (cA*hwidth*Math.cos(tH) - sA*hheight*Math.sin(tH));
 				float dyH = (float) (sA*hwidth*Math.cos(tH) + cA*hheight*Math.sin(tH));
 				float dxV = (float) (cA*hwidth*Math.cos(tV) - sA*hheight*Math.sin(tV));
-//				float dyV = (float) (sA*hwidth*Math.cos(tV) + cA*hheight*Math.sin(tV));
 				
-				float	[]tempCX = {	x_ - Math.abs(dxV),		//	upper left
-										x_ + Math.abs(dxV),		//	upper right
-										x_ + Math.abs(dxV),		//	lower right
-										x_ - Math.abs(dxV)};	//	lower left
-
-				float	[]tempCY = {	y_ + Math.abs(dyH),	//	upper left
-										y_ + Math.abs(dyH),	//	upper right
-										y_ - Math.abs(dyH),	//	lower right
-										y_ - Math.abs(dyH)};	//	lower left
-				cornerX = tempCX; cornerY = tempCY;
+				halfX = Math.abs(dxV);
+				halfY = Math.abs(dyH);
 			}
 			
 			//	case of ellipse rotated by ± π/2
 			else if (Math.abs(cA) <= 1E-4) {
-				float	[]tempCX = {	x_ - hheight,	//	upper left
-										x_ + hheight,	//	upper right
-										x_ + hheight,	//	lower right
-										x_ - hheight};	//	lower left
-
-				float	[]tempCY = {	y_ + hwidth,	//	upper left
-										y_ + hwidth,	//	upper right
-										y_ - hwidth,	//	lower right
-										y_ - hwidth};	//	lower left
-				cornerX = tempCX; cornerY = tempCY;
+				halfX = hheight;
+				halfY = hwidth;
 			}
 			
 			//	case of horizontal ellipse
 			else //	Math.abs(sA) ≤ 1E-4) 
 			{
-				float	[]tempCX = {	x_ - hwidth,	//	upper left
-										x_ + hwidth,	//	upper right
-										x_ + hwidth,	//	lower right
-										x_ - hwidth};	//	lower left
-
-				float	[]tempCY = {	y_ + hheight,	//	upper left
-										y_ + hheight,	//	upper right
-										y_ - hheight,	//	lower right
-										y_ - hheight};	//	lower left
-				cornerX = tempCX; cornerY = tempCY;
+				halfX = hwidth;
+				halfY = hheight;
 			}
 					
-			absoluteBox_[0].updatePosition(	PApplet.min(cornerX),	//	xmin
-											PApplet.max(cornerX),	//	xmax
-											PApplet.min(cornerY),	//	ymin
-											PApplet.max(cornerY));	//	ymax
+			absoluteBox_[0].updatePosition(	x_ - halfX,		//	xmin
+											x_ + halfX,		//	xmax
+											y_ - halfY,		//	ymin
+											y_ + halfY);	//	ymax
 		
 	}
 	
@@ -348,12 +385,10 @@ public class PlayerFace extends GraphicObject {
 	 * 	
 	 */
 	public boolean isInside(float pixelX, float pixelY) {
-		float distX = pixelX - copy_.width/2.0f;   // distance from pixel X to center of ellipse
-		float distY = pixelY - copy_.height/2.0f;  // distance from pixel Y to center of ellipse
-		float a = copy_.width/2.0f;				// half of the image's width
-		float b = copy_.height/2.0f;				// half of the image's height
-		float value = 1.0f/(a*a) * (distX*distX) + 1.0f/(b*b) * (distY*distY);  // this is the equation provided
-		return (value <= 1);
-//		System.out.println(value);
+		// a plain ellipse has no image to be inside of
+		if (texture_ == null)
+			return false;
+		// the pixels are those of the image the face was made from, not of a level of the mip chain
+		return FaceTexture.isInsideEllipse(pixelX, pixelY, texture_.getSourceWidth(), texture_.getSourceHeight());
 	}
 }
\ No newline at end of file
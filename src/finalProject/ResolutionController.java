@@ -0,0 +1,124 @@
+package finalProject;
+
+/**	Chooses the resolution the world is rendered at, from the cost of the last frames.
+ *
+ * 	The world (the fighters and their faces) is drawn into an off-screen buffer at a
+ * 	fraction of the window's size, one of SCALES, and the buffer is then stretched over
+ * 	the window.  The controller compares the average cost of a rendered frame (see
+ * 	FrameCost) with the time budget of a frame:
+ * 		- above LOWER of the budget, the next smaller scale is used;
+ * 		- under RAISE of the budget, the next larger scale is used.
+ * 	The scale changes at most once every HOLD_FRAMES rendered frames, so that the
+ * 	average has time to settle.  Lowering the resolution comes first:  the FrameGovernor
+ * 	only skips frames once the resolution is at its lowest (isLowest), and the
+ * 	resolution is only raised again once no frame is skipped.
+ *
+ */
+public class ResolutionController
+{
+	/**	Fractions of the window's size the world can be rendered at, largest first
+	 */
+	public static final float []SCALES = {1f, 0.875f, 0.75f, 0.625f, 0.5f};
+
+	/**	Fraction of the budget above which the resolution goes down
+	 */
+	public static final float LOWER = 0.75f;
+
+	/**	Fraction of the budget under which the resolution goes up
+	 */
+	public static final float RAISE = 0.4f;
+
+	/**	Number of rendered frames between two changes of the resolution
+	 */
+	public static final int HOLD_FRAMES = 20;
+
+	// the average cost of a rendered frame
+	private final FrameCost cost_;
+
+	// index of the current scale in SCALES
+	private int step_;
+
+	// rendered frames since the scale last changed
+	private int held_;
+
+	// number of times the resolution went down and up
+	private int lowered_, raised_;
+
+	/**	Creates a controller, that starts at full resolution
+	 *
+	 * @param cost		the average cost of a rendered frame, kept up to date by the caller
+	 */
+	public ResolutionController(FrameCost cost)
+	{
+		cost_ = cost;
+	}
+
+	/**	Records that a frame was rendered, once its cost was added to the average, and
+	 * 	adjusts the resolution if needed
+	 *
+	 */
+	public void frameRendered()
+	{
+		if (++held_ < HOLD_FRAMES)
+			return;
+
+		float averageCost = cost_.getAverageCost(), budget = cost_.getBudget();
+		if (averageCost > LOWER * budget && step_ < SCALES.length-1)
+		{
+			step_++;
+			lowered_++;
+			held_ = 0;
+		}
+		else if (averageCost < RAISE * budget && step_ > 0)
+		{
+			step_--;
+			raised_++;
+			held_ = 0;
+		}
+	}
+
+	/** returns the index of the current resolution
+	 *
+	 * @return	the index of the current scale in SCALES
+	 */
+	public int getStep()
+	{
+		return step_;
+	}
+
+	/** tells whether the resolution can't go any lower
+	 *
+	 * @return	true if the world is rendered at the smallest of SCALES
+	 */
+	public boolean isLowest()
+	{
+		return step_ == SCALES.length-1;
+	}
+
+	/** returns the current resolution
+	 *
+	 * @return	the fraction of the window's size the world is rendered at
+	 */
+	public float getScale()
+	{
+		return SCALES[step_];
+	}
+
+	/** returns the number of times the resolution went down
+	 *
+	 * @return	the number of times a smaller scale was chosen
+	 */
+	public int getLowered()
+	{
+		return lowered_;
+	}
+
+	/** returns the number of times the resolution went up
+	 *
+	 * @return	the number of times a larger scale was chosen
+	 */
+	public int getRaised()
+	{
+		return raised_;
+	}
+}
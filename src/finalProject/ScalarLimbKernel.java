@@ -0,0 +1,23 @@
+package finalProject;
+
+import java.util.BitSet;
+
+/**	Tests the points against the limbs one point at a time
+ * 
+ */
+class ScalarLimbKernel implements LimbKernel 
+{
+	public void limbsContain(Skeleton skeleton, float []nodeX, float []nodeY, int nodeOffset, 
+							 float originX, float originY, float cosAngle, float sinAngle,
+							 float []xs, float []ys, int count, BitSet hits)
+	{
+		for (int k=0; k<count; k++)
+		{
+			if (hits.get(k))
+				continue;
+			float dx = xs[k] - originX, dy = ys[k] - originY;
+			if (skeleton.limbsContain(nodeX, nodeY, nodeOffset, cosAngle*dx + sinAngle*dy, cosAngle*dy - sinAngle*dx))
+				hits.set(k);
+		}
+	}
+}
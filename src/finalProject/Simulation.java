@@ -0,0 +1,298 @@
+package finalProject;
+
+import processing.core.PImage;
+
+/**	The Simulation class owns everything that makes up a match: the two stick figures,
+ *  the faces that follow their heads, the hit detection and the health bookkeeping.
+ *
+ *  It does not know anything about windows, key codes or the wall clock.  The match
+ *  only moves forward when step() is called, and every call advances it by exactly
+ *  one fixed tick (TICK_DURATION seconds, unless the match was created with another 
+ *  tick rate).  This way a match can be played by the Processing sketch at 60 ticks 
+ *  per second, or stepped as fast as the CPU allows by a batch job on a headless 
+ *  machine, possibly at a lower tick rate.
+ *
+ *  Whether a punch lands is decided by the match's CollisionEngine, chosen when the
+ *  match is created (the geometry of the figures by default).  A punch is only tested
+ *  during the active window of its clip, and it lands at most once:  the opponent loses
+ *  health on the tick the punch lands.
+ *
+ * @author jyh, Sofia Rossi and PaigeCourtemanche
+ *
+ */
+public class Simulation implements ApplicationConstants
+{
+	/**	Number of simulation ticks per simulated second, by default
+	 *
+	 */
+	public static final float TICK_RATE = 60;
+
+	/**	Simulated time covered by a single tick (in seconds), by default
+	 *
+	 */
+	public static final float TICK_DURATION = 1.f / TICK_RATE;
+
+	/**	Indices of the two players
+	 */
+	public static final int PLAYER_ONE = 0, PLAYER_TWO = 1;
+	public static final int NUM_PLAYERS = 2;
+
+	/**	Commands a player can give (see command)
+	 */
+	public static final int MOVE_LEFT = 0, MOVE_RIGHT = 1, JUMP = 2, PUNCH_LEFT = 3, PUNCH_RIGHT = 4;
+	public static final int NUM_COMMANDS = 5;
+
+	/**	Health each player starts a match with
+	 */
+	public static final int STARTING_HEALTH = 10;
+
+	/**	Horizontal starting position of each player, so that they don't overlap
+	 */
+	private static final float []START_X = {-7, 7};
+
+	// the stick figures, indexed by player
+	private KeyframedStickFigure []fighters_;
+
+	// the faces drawn over the heads of the stick figures, indexed by player
+	private PlayerFace []faces_;
+
+	// simulated time covered by a single tick of this match (in seconds)
+	private final float tickDuration_;
+
+	// decides whether a punch lands
+	private final CollisionEngine collisionEngine_;
+
+	// set when the current punch of a player has landed, so that it only hurts once
+	private boolean []punchLanded_;
+
+	// number of ticks simulated since the start of the match
+	private long tick_;
+
+	/**	Creates a new match, with both players at their starting position, 
+	 * 	where punches are tested against the geometry of the figures
+	 *
+	 * @param playerOneHead		image of player one's face (may be null when running headless)
+	 * @param playerTwoHead		image of player two's face (may be null when running headless)
+	 */
+	public Simulation(PImage playerOneHead, PImage playerTwoHead)
+	{
+		this(playerOneHead, playerTwoHead, new GeometryCollisionEngine());
+	}
+
+	/**	Creates a new match, with both players at their starting position
+	 *
+	 * @param playerOneHead		image of player one's face (may be null when running headless)
+	 * @param playerTwoHead		image of player two's face (may be null when running headless)
+	 * @param collisionEngine	decides whether a punch lands
+	 */
+	public Simulation(PImage playerOneHead, PImage playerTwoHead, CollisionEngine collisionEngine)
+	{
+		this(playerOneHead, playerTwoHead, collisionEngine, TICK_RATE);
+	}
+
+	/**	Creates a new match, with both players at their starting position
+	 *
+	 * @param playerOneHead		image of player one's face (may be null when running headless)
+	 * @param playerTwoHead		image of player two's face (may be null when running headless)
+	 * @param collisionEngine	decides whether a punch lands
+	 * @param tickRate			number of ticks per simulated second
+	 */
+	public Simulation(PImage playerOneHead, PImage playerTwoHead, CollisionEngine collisionEngine, float tickRate)
+	{
+		tickDuration_ = 1.f / tickRate;
+		collisionEngine_ = collisionEngine;
+		PImage []heads = {playerOneHead, playerTwoHead};
+
+		float [][]figureKeyFrames = { {  0,   0,  0.f,  255,  255,   0}};
+		LinearKeyframeInterpolator figureInterpolator = new LinearKeyframeInterpolator(figureKeyFrames);
+
+		fighters_ = new KeyframedStickFigure[NUM_PLAYERS];
+		punchLanded_ = new boolean[NUM_PLAYERS];
+		faces_ = new PlayerFace[NUM_PLAYERS];
+		for (int p=0; p<NUM_PLAYERS; p++)
+		{
+			fighters_[p] = new KeyframedStickFigure(figureInterpolator);
+			fighters_[p].x_ = START_X[p];
+			fighters_[p].health = STARTING_HEALTH;
+
+			// the image in an ellipse that is overlaid the player's head
+			faces_[p] = new PlayerFace(fighters_[p].x_ + fighters_[p].getHeadX(),
+									   fighters_[p].y_ + fighters_[p].getHeadY(),
+									   heads[p], fighters_[p].getHeadDiameter());
+		}
+
+		tick_ = 0L;
+	}
+
+	/**	Advances the match by exactly one tick
+	 *
+	 */
+	public void step()
+	{
+		for (int p=0; p<NUM_PLAYERS; p++)
+		{
+			fighters_[p].update(tickDuration_);
+			faces_[p].update(tickDuration_);
+		}
+
+		// if a player's punch hasn't landed yet, a check is done to see if it lands on
+		// the other one (the engine only lets it land in the active window of the punch)
+		for (int p=0; p<NUM_PLAYERS; p++)
+		{
+			KeyframedStickFigure attacker = fighters_[p];
+			int state = attacker.getState();
+			if (state != PUNCHING_LEFT && state != PUNCHING_RIGHT)
+				punchLanded_[p] = false;
+			else if (!punchLanded_[p] && collisionEngine_.punchLands(attacker, fighters_[1-p]))
+			{
+				punchLanded_[p] = true;
+				fighters_[1-p].health -= 1;
+			}
+		}
+
+		tick_++;
+	}
+
+	/**	Gives a command to a player
+	 *
+	 * @param player	PLAYER_ONE or PLAYER_TWO
+	 * @param command	MOVE_LEFT, MOVE_RIGHT, JUMP, PUNCH_LEFT or PUNCH_RIGHT
+	 */
+	public void command(int player, int command)
+	{
+		switch (command) {
+		case MOVE_LEFT:		moveLeft(player); break;
+		case MOVE_RIGHT:	moveRight(player); break;
+		case JUMP:			jump(player); break;
+		case PUNCH_LEFT:	punchLeft(player); break;
+		case PUNCH_RIGHT:	punchRight(player); break;
+		default:
+			throw new IllegalArgumentException("unknown command " + command);
+		}
+	}
+
+	/**	Makes a player walk left
+	 *
+	 * @param player	PLAYER_ONE or PLAYER_TWO
+	 */
+	public void moveLeft(int player)
+	{
+		fighters_[player].moveLeft();
+		faces_[player].moveLeft();
+	}
+
+	/**	Makes a player walk right
+	 *
+	 * @param player	PLAYER_ONE or PLAYER_TWO
+	 */
+	public void moveRight(int player)
+	{
+		fighters_[player].moveRight();
+		faces_[player].moveRight();
+	}
+
+	/**	Makes a player jump
+	 *
+	 * @param player	PLAYER_ONE or PLAYER_TWO
+	 */
+	public void jump(int player)
+	{
+		fighters_[player].jump();
+		faces_[player].jump();
+	}
+
+	/**	Makes a player punch left
+	 *
+	 * @param player	PLAYER_ONE or PLAYER_TWO
+	 */
+	public void punchLeft(int player)
+	{
+		fighters_[player].punchLeft();
+		faces_[player].punchLeft();
+	}
+
+	/**	Makes a player punch right
+	 *
+	 * @param player	PLAYER_ONE or PLAYER_TWO
+	 */
+	public void punchRight(int player)
+	{
+		fighters_[player].punchRight();
+		faces_[player].punchRight();
+	}
+
+	/** returns the stick figure of a player
+	 *
+	 * @param player	PLAYER_ONE or PLAYER_TWO
+	 * @return	the stick figure of that player
+	 */
+	public KeyframedStickFigure getFighter(int player)
+	{
+		return fighters_[player];
+	}
+
+	/** returns the engine that decides whether a punch lands
+	 *
+	 * @return	the collision engine of the match
+	 */
+	public CollisionEngine getCollisionEngine()
+	{
+		return collisionEngine_;
+	}
+
+	/** returns the face of a player
+	 *
+	 * @param player	PLAYER_ONE or PLAYER_TWO
+	 * @return	the face drawn over that player's head
+	 */
+	public PlayerFace getFace(int player)
+	{
+		return faces_[player];
+	}
+
+	/** returns the health of a player
+	 *
+	 * @param player	PLAYER_ONE or PLAYER_TWO
+	 * @return	the remaining health of that player
+	 */
+	public int getHealth(int player)
+	{
+		return fighters_[player].health;
+	}
+
+	/** tells whether one of the players has lost all their health
+	 *
+	 * @return	true if the match is over
+	 */
+	public boolean isOver()
+	{
+		return fighters_[PLAYER_ONE].health <= 0 || fighters_[PLAYER_TWO].health <= 0;
+	}
+
+	/** returns the number of ticks simulated since the start of the match
+	 *
+	 * @return	the current tick count
+	 */
+	public long getTick()
+	{
+		return tick_;
+	}
+
+	/** returns the simulated time since the start of the match
+	 *
+	 * @return	the simulated time (in seconds)
+	 */
+	public float getTime()
+	{
+		return tick_ * tickDuration_;
+	}
+
+	/** returns the simulated time covered by a single tick of the match
+	 *
+	 * @return	the duration of a tick (in seconds)
+	 */
+	public float getTickDuration()
+	{
+		return tickDuration_;
+	}
+}
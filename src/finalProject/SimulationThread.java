@@ -0,0 +1,169 @@
+package finalProject;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**	Runs a match on a thread of its own, at its tick rate, whatever the renderer does.
+ *
+ * 	The thread is the only one that touches the match.  The players' commands reach it
+ * 	through an InputQueue, stamped with the time they were given:  before each tick, the
+ * 	commands given before the time the tick is due are applied.  After each tick, the
+ * 	state of the match is copied into a snapshot and published (see SnapshotBuffer), and
+ * 	the renderer draws the latest snapshot.  A slow frame doesn't delay the ticks, and the
+ * 	renderer never sees a match in the middle of a tick.
+ *
+ * 	The ticks are scheduled on System.nanoTime(), at the match's own tick rate, whatever
+ * 	the rendering frame rate:  the time elapsed is accumulated, a tick is run each time
+ * 	a whole tick's worth of time has passed, and the thread sleeps until the next one is
+ * 	due.  Each snapshot holds the match before and after its tick, and when the tick was
+ * 	due, so that the renderer can draw the match between the last two ticks.  If the
+ * 	thread falls more than MAX_TICKS_BEHIND ticks behind (e.g. when the machine was
+ * 	suspended), the late ticks are dropped instead of being run in a burst.
+ *
+ */
+public class SimulationThread implements Runnable
+{
+	/**	Largest number of commands waiting to be applied
+	 */
+	public static final int INPUT_CAPACITY = 64;
+
+	/**	Number of late ticks after which the schedule starts over from the current time
+	 */
+	public static final int MAX_TICKS_BEHIND = 30;
+
+	// the match, only touched by the thread once it is started
+	private final Simulation sim_;
+
+	// commands given by the players, and snapshots of the match
+	private final InputQueue input_;
+	private final SnapshotBuffer snapshots_;
+
+	// duration of a tick (in nanoseconds)
+	private final long tickNanos_;
+
+	private Thread thread_;
+	private volatile boolean running_, paused_;
+
+	// number of ticks dropped because the thread was too late
+	private volatile long droppedTicks_;
+
+	/**	Creates the thread of a match.  The match must not be used by anyone else
+	 * 	once the thread is started.
+	 *
+	 * @param sim	the match
+	 */
+	public SimulationThread(Simulation sim)
+	{
+		sim_ = sim;
+		input_ = new InputQueue(INPUT_CAPACITY);
+		snapshots_ = new SnapshotBuffer(sim);
+		tickNanos_ = Math.round(sim.getTickDuration() * 1E9);
+	}
+
+	/**	Starts running the match
+	 *
+	 */
+	public void start()
+	{
+		running_ = true;
+		thread_ = new Thread(this, "simulation");
+		thread_.setDaemon(true);
+		thread_.start();
+	}
+
+	/**	Stops running the match, and waits for the thread to end
+	 *
+	 */
+	public void stop()
+	{
+		running_ = false;
+		if (thread_ == null)
+			return;
+		LockSupport.unpark(thread_);
+		try {
+			thread_.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	public void run()
+	{
+		long next = System.nanoTime();
+		while (running_)
+		{
+			long now = System.nanoTime();
+			if (next - now > 0)
+			{
+				LockSupport.parkNanos(next - now);
+				continue;
+			}
+
+			input_.drain(next, sim_);
+			if (!paused_)
+			{
+				MatchSnapshot snapshot = snapshots_.getBack();
+				snapshot.capturePrevious(sim_);
+				sim_.step();
+				snapshot.capture(sim_, next);
+				snapshots_.publish();
+			}
+
+			next += tickNanos_;
+			long behind = (now - next) / tickNanos_;
+			if (behind > MAX_TICKS_BEHIND)
+			{
+				droppedTicks_ += behind;
+				next = now;
+			}
+		}
+	}
+
+	/**	Gives a command to a player, on the next tick.  Must only be called by a single
+	 * 	thread (the one that receives the key presses).
+	 *
+	 * @param player	PLAYER_ONE or PLAYER_TWO
+	 * @param command	one of the commands of a Simulation
+	 * @return	false if the command was dropped because too many commands are waiting
+	 */
+	public boolean command(int player, int command)
+	{
+		return input_.offer(player, command, System.nanoTime());
+	}
+
+	/** returns the state of the match after the last tick.  Must only be called by a
+	 * 	single thread (the renderer), and the snapshot must not be kept after the next call.
+	 *
+	 * @return	the latest snapshot of the match
+	 */
+	public MatchSnapshot getSnapshot()
+	{
+		return snapshots_.getLatest();
+	}
+
+	/**	Stops or resumes the ticks.  Commands are still applied while the match is paused.
+	 *
+	 * @param paused	true to stop the ticks, false to resume them
+	 */
+	public void setPaused(boolean paused)
+	{
+		paused_ = paused;
+	}
+
+	/** tells whether the ticks are stopped
+	 *
+	 * @return	true if the match is paused
+	 */
+	public boolean isPaused()
+	{
+		return paused_;
+	}
+
+	/** returns the number of ticks dropped because the thread was too late
+	 *
+	 * @return	the number of ticks dropped since the thread was started
+	 */
+	public long getDroppedTicks()
+	{
+		return droppedTicks_;
+	}
+}
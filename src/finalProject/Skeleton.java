@@ -0,0 +1,343 @@
+package finalProject;
+
+import java.util.BitSet;
+
+/**	A data-driven description of an articulated figure, and the forward kinematics
+ * 	that place its nodes.
+ *
+ * 	Each node is positioned in the reference frame of its parent node by a fixed offset.
+ * 	A node may carry a joint:  the reference frame of the node is then rotated by the
+ * 	angle of that joint, which moves all of the node's descendants.  Nodes must be listed
+ * 	after their parent, so that the whole pose is computed in a single pass.
+ *
+ * 	A limb is a capsule:  a segment between two nodes, and a radius.  Limbs are what the
+ * 	hit tests check against.  The hit tests work in whatever frame the pose was computed
+ * 	in:  a figure computes its pose in its own frame (root at the origin) and brings the
+ * 	query point into that frame, rather than moving every node into the world.
+ *
+ * 	The skeleton only stores the shape of the figure.  The pose (node positions) is
+ * 	written to caller-owned arrays, so that a single skeleton can be shared by any
+ * 	number of figures, and computing a pose doesn't allocate anything.
+ *
+ */
+public class Skeleton
+{
+	/**	Implementation of the test of many points at once
+	 */
+	private static final LimbKernel LIMB_KERNEL = LimbKernel.select();
+
+	// index of the parent of each node, -1 for the root
+	private final int []parent_;
+
+	// position of each node in the reference frame of its parent
+	private final float []offsetX_, offsetY_;
+
+	// index (in the joint angles vector) of the joint rotating each node's frame, -1 if none
+	private final int []joint_;
+
+	// nodes at the start and end of each limb
+	private final int []limbStart_, limbEnd_;
+
+	// radius of each limb, and its square
+	private final float []limbRadius_, limbRadius2_;
+
+	/**	Creates a skeleton
+	 *
+	 * @param parent		index of the parent of each node, -1 for the root.  Parents come first.
+	 * @param offsetX		x coordinate of each node in the reference frame of its parent
+	 * @param offsetY		y coordinate of each node in the reference frame of its parent
+	 * @param joint			index of the joint angle rotating the frame of each node, -1 if none
+	 * @param limbStart		node at the start of each limb
+	 * @param limbEnd		node at the end of each limb
+	 * @param limbRadius	radius of each limb:  how far from its segment a point still touches it
+	 */
+	public Skeleton(int []parent, float []offsetX, float []offsetY, int []joint,
+					int []limbStart, int []limbEnd, float []limbRadius)
+	{
+		for (int n=0; n<parent.length; n++)
+			if (parent[n] >= n)
+				throw new IllegalArgumentException("node " + n + " is listed before its parent");
+
+		parent_ = parent;
+		offsetX_ = offsetX;
+		offsetY_ = offsetY;
+		joint_ = joint;
+		limbStart_ = limbStart;
+		limbEnd_ = limbEnd;
+		limbRadius_ = limbRadius;
+		limbRadius2_ = new float[limbRadius.length];
+		for (int i=0; i<limbRadius.length; i++)
+			limbRadius2_[i] = limbRadius[i] * limbRadius[i];
+	}
+
+	/**	Forward kinematics:  computes the position of every node of the skeleton, in the
+	 * 	frame the root is placed in (the world, or the figure's own frame for a root at the origin).
+	 * 	The four output arrays are indexed by node, starting at nodeOffset.
+	 *
+	 * @param x				x coordinate of the root (in world units)
+	 * @param y				y coordinate of the root (in world units)
+	 * @param angle			orientation of the root (in rad)
+	 * @param joints		the joint angles
+	 * @param jointOffset	index in joints of the first joint angle
+	 * @param nodeX			receives the x coordinate of each node
+	 * @param nodeY			receives the y coordinate of each node
+	 * @param nodeCos		receives the cosine of the orientation of each node's frame
+	 * @param nodeSin		receives the sine of the orientation of each node's frame
+	 * @param nodeOffset	index of the root in the output arrays
+	 */
+	public void computePose(float x, float y, float angle, float []joints, int jointOffset,
+							float []nodeX, float []nodeY, float []nodeCos, float []nodeSin, int nodeOffset)
+	{
+		final int numNodes = parent_.length;
+
+		for (int n=0; n<numNodes; n++)
+		{
+			int k = nodeOffset + n;
+			float px, py, pc, ps;
+
+			if (parent_[n] < 0)
+			{
+				px = x;
+				py = y;
+				pc = (float) Math.cos(angle);
+				ps = (float) Math.sin(angle);
+			}
+			else
+			{
+				int p = nodeOffset + parent_[n];
+				px = nodeX[p];
+				py = nodeY[p];
+				pc = nodeCos[p];
+				ps = nodeSin[p];
+			}
+
+			//	position of the node:  its offset, rotated by the parent's orientation
+			nodeX[k] = px + pc*offsetX_[n] - ps*offsetY_[n];
+			nodeY[k] = py + ps*offsetX_[n] + pc*offsetY_[n];
+
+			//	orientation of the node's frame
+			if (joint_[n] < 0)
+			{
+				nodeCos[k] = pc;
+				nodeSin[k] = ps;
+			}
+			else
+			{
+				float jc = (float) Math.cos(joints[jointOffset + joint_[n]]);
+				float js = (float) Math.sin(joints[jointOffset + joint_[n]]);
+				nodeCos[k] = pc*jc - ps*js;
+				nodeSin[k] = ps*jc + pc*js;
+			}
+		}
+	}
+
+	/**	Checks whether a point touches one of the limbs
+	 *
+	 * @param nodeX			x coordinate of each node, as computed by computePose
+	 * @param nodeY			y coordinate of each node, as computed by computePose
+	 * @param nodeOffset	index of the root in the node arrays
+	 * @param x				x coordinate of the point
+	 * @param y				y coordinate of the point
+	 * @return	true if the point touches one of the limbs
+	 */
+	public boolean limbsContain(float []nodeX, float []nodeY, int nodeOffset, float x, float y)
+	{
+		for (int i=0; i<limbStart_.length; i++)
+		{
+			int s = nodeOffset + limbStart_[i], e = nodeOffset + limbEnd_[i];
+			float x0 = nodeX[s], y0 = nodeY[s], x1 = nodeX[e], y1 = nodeY[e];
+			float r = limbRadius_[i];
+
+			// rejects the points outside of the box around the limb
+			if (x < Math.min(x0, x1) - r || x > Math.max(x0, x1) + r ||
+				y < Math.min(y0, y1) - r || y > Math.max(y0, y1) + r)
+				continue;
+
+			if (capsuleContains(x0, y0, x1, y1, limbRadius2_[i], x, y))
+				return true;
+		}
+		return false;
+	}
+
+	/**	Checks whether a moving point touches one of the limbs anywhere along its path,
+	 * 	taken as the segment between its two positions
+	 *
+	 * @param nodeX			x coordinate of each node, as computed by computePose
+	 * @param nodeY			y coordinate of each node, as computed by computePose
+	 * @param nodeOffset	index of the root in the node arrays
+	 * @param x0			x coordinate of the start of the path
+	 * @param y0			y coordinate of the start of the path
+	 * @param x1			x coordinate of the end of the path
+	 * @param y1			y coordinate of the end of the path
+	 * @return	true if the path touches one of the limbs
+	 */
+	public boolean limbsIntersect(float []nodeX, float []nodeY, int nodeOffset, float x0, float y0, float x1, float y1)
+	{
+		float pathXmin = Math.min(x0, x1), pathXmax = Math.max(x0, x1);
+		float pathYmin = Math.min(y0, y1), pathYmax = Math.max(y0, y1);
+
+		for (int i=0; i<limbStart_.length; i++)
+		{
+			int s = nodeOffset + limbStart_[i], e = nodeOffset + limbEnd_[i];
+			float limbX0 = nodeX[s], limbY0 = nodeY[s], limbX1 = nodeX[e], limbY1 = nodeY[e];
+			float r = limbRadius_[i];
+
+			// rejects the paths whose box misses the box around the limb
+			if (pathXmax < Math.min(limbX0, limbX1) - r || pathXmin > Math.max(limbX0, limbX1) + r ||
+				pathYmax < Math.min(limbY0, limbY1) - r || pathYmin > Math.max(limbY0, limbY1) + r)
+				continue;
+
+			if (capsuleIntersects(limbX0, limbY0, limbX1, limbY1, limbRadius2_[i], x0, y0, x1, y1))
+				return true;
+		}
+		return false;
+	}
+
+	/**	Checks which of a set of points touch one of the limbs.  The points are given in
+	 * 	another frame than the pose (usually the world), and brought into the pose's frame
+	 * 	on the way.  Depending on what the JVM offers, the points are tested several at a 
+	 * 	time (see LimbKernel).
+	 *
+	 * @param nodeX			x coordinate of each node, as computed by computePose
+	 * @param nodeY			y coordinate of each node, as computed by computePose
+	 * @param nodeOffset	index of the root in the node arrays
+	 * @param originX		x coordinate of the origin of the pose's frame, in the points' frame
+	 * @param originY		y coordinate of the origin of the pose's frame, in the points' frame
+	 * @param cosAngle		cosine of the rotation of the pose's frame
+	 * @param sinAngle		sine of the rotation of the pose's frame
+	 * @param xs			x coordinates of the points
+	 * @param ys			y coordinates of the points
+	 * @param count			number of points
+	 * @param hits			bit k gets set if point k touches a limb;  bits already set are left set
+	 */
+	public void limbsContain(float []nodeX, float []nodeY, int nodeOffset,
+							 float originX, float originY, float cosAngle, float sinAngle,
+							 float []xs, float []ys, int count, BitSet hits)
+	{
+		LIMB_KERNEL.limbsContain(this, nodeX, nodeY, nodeOffset, originX, originY, cosAngle, sinAngle, 
+								 xs, ys, count, hits);
+	}
+
+	/**	tells whether the limbs are tested several points at a time
+	 *
+	 * @return	true if the Vector API kernel is in use, false if the points are tested one at a time
+	 */
+	public static boolean isVectorized()
+	{
+		return !(LIMB_KERNEL instanceof ScalarLimbKernel);
+	}
+
+	/**	Checks whether a point is inside a capsule:  within a distance r of a segment
+	 *
+	 * @param x0	x coordinate of the start of the segment
+	 * @param y0	y coordinate of the start of the segment
+	 * @param x1	x coordinate of the end of the segment
+	 * @param y1	y coordinate of the end of the segment
+	 * @param r2	square of the radius of the capsule
+	 * @param x		x coordinate of the point
+	 * @param y		y coordinate of the point
+	 * @return	true if the point is inside the capsule
+	 */
+	public static boolean capsuleContains(float x0, float y0, float x1, float y1, float r2, float x, float y)
+	{
+		//	limb vector
+		float limbX = x1 - x0;
+		float limbY = y1 - y0;
+		float n2 = limbX * limbX + limbY * limbY; //this is n^2
+
+		//	vector from the start of the limb to the point
+		float vectorX1 = x - x0;
+		float vectorY1 = y - y0;
+
+		//	position of the closest point of the segment (0 at the start, 1 at the end).
+		//	A limb of length 0 is treated as its start point.
+		float alpha = n2 > 0 ? (vectorX1 * limbX + vectorY1 * limbY) / n2 : 0;
+		alpha = Math.max(0, Math.min(1, alpha));
+
+		//	squared distance from the point to the closest point of the segment
+		float dx = vectorX1 - alpha * limbX;
+		float dy = vectorY1 - alpha * limbY;
+		return dx * dx + dy * dy < r2;
+	}
+
+	/**	Checks whether a segment touches a capsule:  whether the segment comes within a
+	 * 	distance r of the capsule's segment.  Either the two segments cross, or the closest
+	 * 	points are at an end of one of them.  For a segment of length 0, this is the same 
+	 * 	test as capsuleContains.
+	 *
+	 * @param x0	x coordinate of the start of the capsule's segment
+	 * @param y0	y coordinate of the start of the capsule's segment
+	 * @param x1	x coordinate of the end of the capsule's segment
+	 * @param y1	y coordinate of the end of the capsule's segment
+	 * @param r2	square of the radius of the capsule
+	 * @param u0	x coordinate of the start of the segment
+	 * @param v0	y coordinate of the start of the segment
+	 * @param u1	x coordinate of the end of the segment
+	 * @param v1	y coordinate of the end of the segment
+	 * @return	true if the segment touches the capsule
+	 */
+	public static boolean capsuleIntersects(float x0, float y0, float x1, float y1, float r2,
+											float u0, float v0, float u1, float v1)
+	{
+		//	ends of each segment against the other one
+		if (capsuleContains(x0, y0, x1, y1, r2, u0, v0) || capsuleContains(x0, y0, x1, y1, r2, u1, v1) ||
+			capsuleContains(u0, v0, u1, v1, r2, x0, y0) || capsuleContains(u0, v0, u1, v1, r2, x1, y1))
+			return true;
+
+		//	the segments cross if the ends of each one are strictly on both sides of the other one
+		float side0 = (x1 - x0) * (v0 - y0) - (y1 - y0) * (u0 - x0);
+		float side1 = (x1 - x0) * (v1 - y0) - (y1 - y0) * (u1 - x0);
+		float side2 = (u1 - u0) * (y0 - v0) - (v1 - v0) * (x0 - u0);
+		float side3 = (u1 - u0) * (y1 - v0) - (v1 - v0) * (x1 - u0);
+		return (side0 > 0 && side1 < 0 || side0 < 0 && side1 > 0) &&
+			   (side2 > 0 && side3 < 0 || side2 < 0 && side3 > 0);
+	}
+
+	/**	returns the number of nodes
+	 *
+	 * @return	the number of nodes of the skeleton
+	 */
+	public int getNumNodes()
+	{
+		return parent_.length;
+	}
+
+	/**	returns the number of limbs
+	 *
+	 * @return	the number of limbs of the skeleton
+	 */
+	public int getNumLimbs()
+	{
+		return limbStart_.length;
+	}
+
+	/**	returns the node at the start of a limb
+	 *
+	 * @param i	index of the limb
+	 * @return	index of the node at the start of limb i
+	 */
+	public int getLimbStart(int i)
+	{
+		return limbStart_[i];
+	}
+
+	/**	returns the radius of a limb
+	 *
+	 * @param i	index of the limb
+	 * @return	the radius of the capsule of limb i
+	 */
+	public float getLimbRadius(int i)
+	{
+		return limbRadius_[i];
+	}
+
+	/**	returns the node at the end of a limb
+	 *
+	 * @param i	index of the limb
+	 * @return	index of the node at the end of limb i
+	 */
+	public int getLimbEnd(int i)
+	{
+		return limbEnd_[i];
+	}
+}
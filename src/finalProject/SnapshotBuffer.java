@@ -0,0 +1,74 @@
+package finalProject;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**	Hands the snapshots of a match from the thread that runs it to the thread that
+ * 	draws it, without locks and without either thread ever waiting for the other.
+ *
+ * 	There are three snapshots:  the back one, that the writer fills, the front one,
+ * 	that the reader draws, and a spare one in the middle.  Publishing swaps the back
+ * 	snapshot with the spare one and marks the spare as fresh;  when the reader asks for
+ * 	the latest snapshot and the spare is fresh, it swaps its front snapshot with it.
+ * 	The swaps are a single atomic exchange, so the writer and the reader never hold
+ * 	the same snapshot, and the reader always gets the last snapshot published (the
+ * 	ones it was too slow to see are simply overwritten).
+ *
+ */
+public class SnapshotBuffer
+{
+	// set in middle_ when the spare snapshot was published after the reader last took one
+	private static final int FRESH = 4;
+	private static final int INDEX_MASK = 3;
+
+	private final MatchSnapshot []snapshots_ = new MatchSnapshot[3];
+
+	// index of the snapshot held by the writer, and of the one held by the reader
+	private int back_ = 0, front_ = 2;
+
+	// index of the spare snapshot, with the FRESH bit
+	private final AtomicInteger middle_ = new AtomicInteger(1);
+
+	/**	Creates the snapshots, all three of them showing the match as it is now
+	 *
+	 * @param sim	the match
+	 */
+	public SnapshotBuffer(Simulation sim)
+	{
+		for (int k=0; k<snapshots_.length; k++)
+		{
+			snapshots_[k] = new MatchSnapshot();
+			snapshots_[k].capturePrevious(sim);
+			snapshots_[k].capture(sim, System.nanoTime());
+		}
+	}
+
+	/** returns the snapshot the writer fills.  Must only be called by the writer.
+	 *
+	 * @return	the back snapshot
+	 */
+	public MatchSnapshot getBack()
+	{
+		return snapshots_[back_];
+	}
+
+	/**	Makes the back snapshot the latest one, and gives the writer another one to fill.
+	 * 	Must only be called by the writer.
+	 *
+	 */
+	public void publish()
+	{
+		back_ = middle_.getAndSet(back_ | FRESH) & INDEX_MASK;
+	}
+
+	/** returns the last snapshot published.  The snapshot stays valid until the next
+	 * 	call.  Must only be called by the reader.
+	 *
+	 * @return	the front snapshot
+	 */
+	public MatchSnapshot getLatest()
+	{
+		if ((middle_.get() & FRESH) != 0)
+			front_ = middle_.getAndSet(front_) & INDEX_MASK;
+		return snapshots_[front_];
+	}
+}
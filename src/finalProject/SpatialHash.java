@@ -0,0 +1,182 @@
+package finalProject;
+
+import java.util.Arrays;
+
+/**	A uniform grid over the world, stored as a hash table of cells, that tells which
+ * 	objects may contain a point.
+ *
+ * 	Each object is inserted with its bounds, into every cell the bounds overlap.  A point
+ * 	query then only has to look at the objects of the cell the point falls in, instead
+ * 	of testing every object.  The grid is meant to be cleared and rebuilt every tick:
+ * 	clearing is O(1), and once the entry arrays have grown to fit the crowd, rebuilding
+ * 	doesn't allocate anything.
+ *
+ * 	The entries of a cell are walked like this:
+ *
+ * 		for (int e=grid.find(x, y); e>=0; e=grid.next(e))
+ * 			... grid.getId(e) ...
+ *
+ */
+public class SpatialHash
+{
+	// side of a cell, and its inverse
+	private final float cellSize_, invCellSize_;
+
+	// first entry of each bucket, valid only if the bucket's stamp is the current stamp
+	private final int []bucketHead_;
+	private final int []bucketStamp_;
+	private final int bucketMask_;
+	private int stamp_;
+
+	// entries:  the id of the object, the cell it was inserted in, and the next entry of the bucket
+	private int []entryId_, entryCellX_, entryCellY_, entryNext_;
+	private int numEntries_;
+
+	/**	Creates an empty grid
+	 *
+	 * @param cellSize			side of a cell (in world units)
+	 * @param expectedEntries	number of (object, cell) pairs the grid is expected to hold
+	 */
+	public SpatialHash(float cellSize, int expectedEntries)
+	{
+		cellSize_ = cellSize;
+		invCellSize_ = 1.f / cellSize;
+
+		int numBuckets = Integer.highestOneBit(Math.max(2*expectedEntries - 1, 1)) << 1;
+		bucketHead_ = new int[numBuckets];
+		bucketStamp_ = new int[numBuckets];
+		bucketMask_ = numBuckets - 1;
+		stamp_ = 1;
+
+		int capacity = Math.max(expectedEntries, 16);
+		entryId_ = new int[capacity];
+		entryCellX_ = new int[capacity];
+		entryCellY_ = new int[capacity];
+		entryNext_ = new int[capacity];
+		numEntries_ = 0;
+	}
+
+	/**	Removes every object from the grid
+	 *
+	 */
+	public void clear()
+	{
+		// once in a (very) long while, the stamp wraps around and the buckets are reset
+		if (++stamp_ == 0)
+		{
+			Arrays.fill(bucketStamp_, 0);
+			stamp_ = 1;
+		}
+		numEntries_ = 0;
+	}
+
+	/**	Inserts an object in every cell its bounds overlap
+	 *
+	 * @param id	identifier of the object (e.g. its index in a FighterBatch)
+	 * @param xmin	left bound of the object
+	 * @param xmax	right bound of the object
+	 * @param ymin	lower bound of the object
+	 * @param ymax	upper bound of the object
+	 */
+	public void insert(int id, float xmin, float xmax, float ymin, float ymax)
+	{
+		int cxMin = cell_(xmin), cxMax = cell_(xmax);
+		int cyMin = cell_(ymin), cyMax = cell_(ymax);
+
+		for (int cy=cyMin; cy<=cyMax; cy++)
+			for (int cx=cxMin; cx<=cxMax; cx++)
+			{
+				if (numEntries_ == entryId_.length)
+					grow_();
+
+				int e = numEntries_++;
+				int b = bucket_(cx, cy);
+				entryId_[e] = id;
+				entryCellX_[e] = cx;
+				entryCellY_[e] = cy;
+				entryNext_[e] = bucketStamp_[b] == stamp_ ? bucketHead_[b] : -1;
+				bucketHead_[b] = e;
+				bucketStamp_[b] = stamp_;
+			}
+	}
+
+	/**	Finds the first entry of the cell containing a point
+	 *
+	 * @param x		x coordinate of the point
+	 * @param y		y coordinate of the point
+	 * @return	the first entry of the cell, -1 if the cell is empty
+	 */
+	public int find(float x, float y)
+	{
+		int cx = cell_(x), cy = cell_(y);
+		int b = bucket_(cx, cy);
+		if (bucketStamp_[b] != stamp_)
+			return -1;
+		return skipOtherCells_(bucketHead_[b], cx, cy);
+	}
+
+	/**	Moves to the next entry of the same cell
+	 *
+	 * @param entry		an entry returned by find or next
+	 * @return	the next entry of the cell, -1 if there is none
+	 */
+	public int next(int entry)
+	{
+		return skipOtherCells_(entryNext_[entry], entryCellX_[entry], entryCellY_[entry]);
+	}
+
+	/**	returns the object of an entry
+	 *
+	 * @param entry		an entry returned by find or next
+	 * @return	the id the object was inserted with
+	 */
+	public int getId(int entry)
+	{
+		return entryId_[entry];
+	}
+
+	/**	returns the side of a cell
+	 *
+	 * @return	the side of a cell (in world units)
+	 */
+	public float getCellSize()
+	{
+		return cellSize_;
+	}
+
+	/**	returns the number of (object, cell) pairs in the grid
+	 *
+	 * @return	the number of entries
+	 */
+	public int getNumEntries()
+	{
+		return numEntries_;
+	}
+
+	// several cells can share a bucket:  skips the entries that belong to another cell
+	private int skipOtherCells_(int e, int cx, int cy)
+	{
+		while (e >= 0 && (entryCellX_[e] != cx || entryCellY_[e] != cy))
+			e = entryNext_[e];
+		return e;
+	}
+
+	private int cell_(float v)
+	{
+		return (int) Math.floor(v * invCellSize_);
+	}
+
+	private int bucket_(int cx, int cy)
+	{
+		return ((cx * 73856093) ^ (cy * 19349663)) & bucketMask_;
+	}
+
+	private void grow_()
+	{
+		int capacity = 2 * entryId_.length;
+		entryId_ = Arrays.copyOf(entryId_, capacity);
+		entryCellX_ = Arrays.copyOf(entryCellX_, capacity);
+		entryCellY_ = Arrays.copyOf(entryCellY_, capacity);
+		entryNext_ = Arrays.copyOf(entryNext_, capacity);
+	}
+}
@@ -1,8 +1,9 @@
 package finalProject;
 
+import java.util.BitSet;
+
 import processing.core.PApplet;
 import processing.core.PGraphics;
-import processing.core.PMatrix2D;
 
 
 /** Graphic class to draw a stick figure
@@ -22,6 +23,12 @@ public class StickFigure extends GraphicObject implements ApplicationConstants
 	public static final int LEFT_HAND = 2;
 	public static final int RIGHT_HAND = 3;
 	public static final int NUM_OF_PARTS = 3;
+	
+	/**
+	 * Layout of the bounds of a box when the boxes are stored in a float array
+	 */
+	static final int XMIN_INDEX = 0, XMAX_INDEX = 1, YMIN_INDEX = 2, YMAX_INDEX = 3;
+	static final int BOX_SIZE = 4;
 	public static final int []PART_COLOR =  {	0xFFFFFF00,	//	HEAD
 												0xFF00FF00,	//	BODY
 												0xFF0000FF,	//	LEFT_HAND
@@ -49,6 +56,19 @@ public class StickFigure extends GraphicObject implements ApplicationConstants
 	public static final float HAND_DIAMETER = 2 * JOINT_DIAMETER;
 	public static final float STROKE_WEIGHT = 0.2f;
 	
+	/**
+	 * How far from its center (or from its limbs) a point is still on the figure, for the hit test.
+	 * Each limb is a capsule:  the points within LIMB_HIT_RADIUS of its segment.
+	 */
+	static final float HEAD_HIT_RADIUS = (HEAD_DIAMETER + HAND_DIAMETER)/2;
+	static final float HAND_HIT_RADIUS = HAND_DIAMETER;
+	static final float LIMB_HIT_RADIUS = HAND_DIAMETER/2;
+	
+	/**
+	 * Margin added to the hit bounds, so that rounding errors can't make them miss a hit
+	 */
+	static final float HIT_SLACK = 1/64f;
+	
 	/**
 	 * Body offsets
 	 */
@@ -66,8 +86,8 @@ public class StickFigure extends GraphicObject implements ApplicationConstants
 	/**
 	 * x and y values of the parts
 	 */
-	private static final float HEAD_X = 0f;
-	private static final float HEAD_Y = 0f;
+	static final float HEAD_X = 0f;
+	static final float HEAD_Y = 0f;
 	private static final float BODY_X = 0f;
 	private static final float BODY_Y = BODY_Y_OFFSET;
 	private static final float ARM_X = ARM_X_OFFSET;
@@ -83,6 +103,13 @@ public class StickFigure extends GraphicObject implements ApplicationConstants
 	private static final float FOREARM_X = 0f;
 	private static final float FOREARM_Y = FOREARM_Y_OFFSET;
 	
+	/**
+	 * centers of the hand circles of the hit test, in the figure's frame
+	 */
+	static final float LEFT_HAND_X = -ARM_X + ELBOW_X + FOREARM_X - BICEP_LENGTH;
+	static final float RIGHT_HAND_X = ARM_X - ELBOW_X + FOREARM_X + BICEP_LENGTH;
+	static final float HAND_Y = ARM_Y + ELBOW_Y + FOREARM_Y - BICEP_LENGTH;
+	
 	// The health counter for each player
 	// it gets reduced each time the player is hit
 	public int health = 10;
@@ -112,74 +139,203 @@ public class StickFigure extends GraphicObject implements ApplicationConstants
 	private static final int RIGHT_SHOULDER_INDEX = 5;
 	private static final int LEFT_FOREARM_INDEX = 6;
 	private static final int RIGHT_FOREARM_INDEX = 7;
-	private static final int NUM_JOINTS = 8;
+	static final int NUM_JOINTS = 8;
 	
-	// updates the drawn features using keyframes index
-	private float []joints_;
+	// index of the clip-specific channel (y or vx) that follows the joint angles in a state vector
+	static final int CLIP_CHANNEL_INDEX = NUM_JOINTS;
+	
+	// index of the channel that is 1 while the fist of a punch can hit, 0 during the wind-up and recovery
+	static final int ACTIVE_CHANNEL_INDEX = CLIP_CHANNEL_INDEX + 1;
+	
+	// number of values in a state vector of a clip, the time excepted
+	static final int NUM_CHANNELS = ACTIVE_CHANNEL_INDEX + 1;
+
+	/**
+	 * The nodes of the skeleton:  the figure's origin, and the start and end of each limb
+	 */
+	static final int ROOT_NODE = 0,
+							 NECK_NODE = 1, PELVIS_NODE = 2,
+							 LEFT_SHOULDER_NODE = 3, LEFT_ELBOW_NODE = 4, LEFT_FOREARM_NODE = 5, LEFT_FIST_NODE = 6,
+							 RIGHT_SHOULDER_NODE = 7, RIGHT_ELBOW_NODE = 8, RIGHT_FOREARM_NODE = 9, RIGHT_FIST_NODE = 10,
+							 LEFT_HIP_NODE = 11, LEFT_KNEE_NODE = 12, LEFT_SHIN_NODE = 13, LEFT_FOOT_NODE = 14,
+							 RIGHT_HIP_NODE = 15, RIGHT_KNEE_NODE = 16, RIGHT_SHIN_NODE = 17, RIGHT_FOOT_NODE = 18;
+	static final int NUM_NODES = 19;
+	
+	/**
+	 * The skeleton of the stick figure, which follows the way draw_ lays out the limbs.
+	 * 	Each node is placed relative to its parent, and a node with a joint rotates its
+	 * 	descendants by that joint's angle.
+	 */
+	static final Skeleton SKELETON = new Skeleton(
+		//	parent
+		new int[] {	-1,
+					ROOT_NODE, NECK_NODE,
+					ROOT_NODE, LEFT_SHOULDER_NODE, LEFT_ELBOW_NODE, LEFT_FOREARM_NODE,
+					ROOT_NODE, RIGHT_SHOULDER_NODE, RIGHT_ELBOW_NODE, RIGHT_FOREARM_NODE,
+					ROOT_NODE, LEFT_HIP_NODE, LEFT_KNEE_NODE, LEFT_SHIN_NODE,
+					ROOT_NODE, RIGHT_HIP_NODE, RIGHT_KNEE_NODE, RIGHT_SHIN_NODE},
+		//	x offset
+		new float[] {0,
+					BODY_X, 0,
+					-ARM_X, ELBOW_X, FOREARM_X, -BICEP_LENGTH,
+					ARM_X, -ELBOW_X, FOREARM_X, BICEP_LENGTH,
+					-THIGH_X, KNEE_X, SHIN_X, -SHIN_LENGTH/2,
+					THIGH_X, -KNEE_X, -SHIN_X, SHIN_LENGTH/2},
+		//	y offset
+		new float[] {0,
+					BODY_Y, -TORSO_LENGTH,
+					ARM_Y, ELBOW_Y, FOREARM_Y, -BICEP_LENGTH,
+					ARM_Y, ELBOW_Y, FOREARM_Y, -BICEP_LENGTH,
+					THIGH_Y, KNEE_Y, SHIN_Y, -SHIN_LENGTH,
+					THIGH_Y, KNEE_Y, SHIN_Y, -SHIN_LENGTH},
+		//	joint
+		new int[] {	-1,
+					-1, -1,
+					LEFT_SHOULDER_INDEX, -1, LEFT_FOREARM_INDEX, -1,
+					RIGHT_SHOULDER_INDEX, -1, RIGHT_FOREARM_INDEX, -1,
+					LEFT_HIP_INDEX, -1, LEFT_KNEE_INDEX, -1,
+					RIGHT_HIP_INDEX, -1, RIGHT_KNEE_INDEX, -1},
+		//	limbs:  torso, left upper arm, left forearm, right upper arm, right forearm,
+		//			left thigh, left shin, right thigh, right shin
+		new int[] {	NECK_NODE, LEFT_SHOULDER_NODE, LEFT_FOREARM_NODE, RIGHT_SHOULDER_NODE, RIGHT_FOREARM_NODE,
+					LEFT_HIP_NODE, LEFT_SHIN_NODE, RIGHT_HIP_NODE, RIGHT_SHIN_NODE},
+		new int[] {	PELVIS_NODE, LEFT_ELBOW_NODE, LEFT_FIST_NODE, RIGHT_ELBOW_NODE, RIGHT_FIST_NODE,
+					LEFT_KNEE_NODE, LEFT_FOOT_NODE, RIGHT_KNEE_NODE, RIGHT_FOOT_NODE},
+		//	limb radius
+		new float[] {LIMB_HIT_RADIUS, LIMB_HIT_RADIUS, LIMB_HIT_RADIUS, LIMB_HIT_RADIUS, LIMB_HIT_RADIUS,
+					LIMB_HIT_RADIUS, LIMB_HIT_RADIUS, LIMB_HIT_RADIUS, LIMB_HIT_RADIUS});
+	
+	// updates the drawn features using keyframes index.
+	// The interpolators write their whole state vector here, so the last slots hold the clip and active channels.
+	protected float []joints_;
 	
 	// keyframes for when the stick figure jumps
-	//								 L Hip   L Knee		R Hip	R Knee	L Should	R Should	L Fore	 R Fore		y	   t
-	private float[][] jumpFrames = {{	0,		0,    	 0,			0, 		0,			0, 			0,		0,		0,     0},
-									{-0.7f,	   1.5f,  	0.7f,	 -1.5f,		0.4f,		-0.4f,		-2.f,	2.f, 	-1.f,  0.3f},
-									{	0, 		0,		 0,			0,		-1.2f,		1.2f,		0,		0,		3.f,  0.6f},
-									{	0, 		0,		 0,			0,		-1.2f,		1.2f,		0,		0,		0, 	   0.9f},
-									{-0.4f,	   1.f,		0.4f,	 -1.f,		-0.8f,		0.8f,		0,		0,		-0.8f,  1.2f},
-									{	0, 		0,		 0,			0,		0,			0,			0,		0,		0, 	   1.4f}};
+	//								 L Hip   L Knee		R Hip	R Knee	L Should	R Should	L Fore	 R Fore		y	active	   t
+	private static final float[][] jumpFrames = {{	0,		0,    	 0,			0, 		0,			0, 			0,		0,		0,	0,     0},
+									{-0.7f,	   1.5f,  	0.7f,	 -1.5f,		0.4f,		-0.4f,		-2.f,	2.f, 	-1.f,	0,  0.3f},
+									{	0, 		0,		 0,			0,		-1.2f,		1.2f,		0,		0,		3.f,	0,  0.6f},
+									{	0, 		0,		 0,			0,		-1.2f,		1.2f,		0,		0,		0,	0, 	   0.9f},
+									{-0.4f,	   1.f,		0.4f,	 -1.f,		-0.8f,		0.8f,		0,		0,		-0.8f,	0,  1.2f},
+									{	0, 		0,		 0,			0,		0,			0,			0,		0,		0,	0, 	   1.4f}};
 	
 	// keyframes for when the stick figure is walking left
-	//								 L Hip   L Knee		R Hip	R Knee	 L Should	R Should 	L Fore	R Fore		vx	     t
-	private float[][] leftFrames = {{	0,		0,    	 0,			0, 		0,			0,			0,		0,		-5.f,     0},
-									{	0.5f,	0,    	 -0.7f,		1.5f, 	0.4f,		-0.4f,		-0.4f,	0,		-5.f,     0.1f}, 
-									{	0.5f,	0,    	 -1.5f,		1.0f, 	0.7f,		-0.7f,		-0.6f,	0,		-5.f,     0.2f}, 
-									{	0.8f,	0,    	 -1.f,		0, 		1.f,		-1.f,		0,		0,		-5.f,     0.3f}, 
-									{	0.5f,	0,    	 -0.5f,		0, 		1.2f,		-1.2f,		0,		0,		-5.f,     0.4f},
-									{	-0.2f,	1.5f,    0,			0, 		1.f,		-1.f,		0,		-0.4f,	-5.f,     0.5f},
-									{	-0.7f,	1.7f,    0,			0, 		0.7f,		-0.7f,		0,		-0.6f,	-5.f,     0.6f},
-									{	0,		0,    	 0,			0, 		0.4f,		-0.4f,		0,		0,		0,     0.69f},
-									{	0,		0,    	 0,			0, 		0,			0,			0,		0,		0,     0.7f}};
+	//								 L Hip   L Knee		R Hip	R Knee	 L Should	R Should 	L Fore	R Fore		vx	active	     t
+	private static final float[][] leftFrames = {{	0,		0,    	 0,			0, 		0,			0,			0,		0,		-5.f,	0,     0},
+									{	0.5f,	0,    	 -0.7f,		1.5f, 	0.4f,		-0.4f,		-0.4f,	0,		-5.f,	0,     0.1f}, 
+									{	0.5f,	0,    	 -1.5f,		1.0f, 	0.7f,		-0.7f,		-0.6f,	0,		-5.f,	0,     0.2f}, 
+									{	0.8f,	0,    	 -1.f,		0, 		1.f,		-1.f,		0,		0,		-5.f,	0,     0.3f}, 
+									{	0.5f,	0,    	 -0.5f,		0, 		1.2f,		-1.2f,		0,		0,		-5.f,	0,     0.4f},
+									{	-0.2f,	1.5f,    0,			0, 		1.f,		-1.f,		0,		-0.4f,	-5.f,	0,     0.5f},
+									{	-0.7f,	1.7f,    0,			0, 		0.7f,		-0.7f,		0,		-0.6f,	-5.f,	0,     0.6f},
+									{	0,		0,    	 0,			0, 		0.4f,		-0.4f,		0,		0,		0,	0,     0.69f},
+									{	0,		0,    	 0,			0, 		0,			0,			0,		0,		0,	0,     0.7f}};
 	
 	// keyframes for when the stick figure is walking right
-	//								 L Hip   L Knee		R Hip	R Knee	 L Should	R Should	L Fore	R Fore		vx	     t
-	private float[][] rightFrames = {{	0,		0,    	 0,			0, 		0,			0,			0,		0,		5.f,     0},
-									{	0.7f,	-1.5f,    -0.5f,	0, 		0.4f,		-0.4f,		0,		0.4f,	5.f,     0.1f}, 
-									{	1.5f,	-1.0f,    -0.5f,	0, 		0.7f,		-0.7f,		0,		0.6f,	5.f,     0.2f}, 
-									{	1.f,	0,    	 -0.8f,		0, 		1.f,		-1.f,		0,		0,		5.f,     0.3f}, 
-									{	0.5f,	0,    	 -0.5f,		0, 		1.2f,		-1.2f,		0,		0,		5.f,     0.4f},
-									{	0,		0,    0.2f,		-1.5f, 		1.f,		-1.f,		0.4f,	0,		5.f,     0.5f},
-									{	0,		0,    0.7f,		-1.7f, 		0.7f,		-0.7f,		0.6f,	0,		5.f,     0.6f},
-									{	0,		0,    	 0,			0, 		0.4f,		-0.4f,		0,		0,		0,     0.69f},
-									{	0,		0,    	 0,			0, 		0,			0,			0,		0,		0,     0.7f}};
+	//								 L Hip   L Knee		R Hip	R Knee	 L Should	R Should	L Fore	R Fore		vx	active	     t
+	private static final float[][] rightFrames = {{	0,		0,    	 0,			0, 		0,			0,			0,		0,		5.f,	0,     0},
+									{	0.7f,	-1.5f,    -0.5f,	0, 		0.4f,		-0.4f,		0,		0.4f,	5.f,	0,     0.1f}, 
+									{	1.5f,	-1.0f,    -0.5f,	0, 		0.7f,		-0.7f,		0,		0.6f,	5.f,	0,     0.2f}, 
+									{	1.f,	0,    	 -0.8f,		0, 		1.f,		-1.f,		0,		0,		5.f,	0,     0.3f}, 
+									{	0.5f,	0,    	 -0.5f,		0, 		1.2f,		-1.2f,		0,		0,		5.f,	0,     0.4f},
+									{	0,		0,    0.2f,		-1.5f, 		1.f,		-1.f,		0.4f,	0,		5.f,	0,     0.5f},
+									{	0,		0,    0.7f,		-1.7f, 		0.7f,		-0.7f,		0.6f,	0,		5.f,	0,     0.6f},
+									{	0,		0,    	 0,			0, 		0.4f,		-0.4f,		0,		0,		0,	0,     0.69f},
+									{	0,		0,    	 0,			0, 		0,			0,			0,		0,		0,	0,     0.7f}};
 	
 	// keyframes for when the stick figure punches to the left
-	// 								L Hip	  L Knee	R Hip 	R Knee	L Should	R Should	L Fore	  R Fore	y			t
-	private float[][] leftPunch = {{  0,	  	  0,	  0,	  0,		0,			0,			0,		0, 		0,			0},
-								   {  -0.5f,	  0.5f,	  0.1f,	  0.2f,		0.6f,		-0.2f,		-0.6f,	0, 		-0.5f,		0.04f},
-								   {  -0.5f,	  0.5f,	  0.1f,	  0.2f,		0.8f,		-0.2f,		-0.8f,	0, 		-0.5f,		0.08f},
-								   {  -0.5f,	  0.5f,	  0.1f,	  0.2f,		1.f,		-0.2f,		-1.f,	0, 		-0.5f,		0.12f},
-								   {  -0.65f,	  0.65f,  0.2f,	  0.4f,		1.2f,		-0.4f,		-1.4f,	0, 		-0.8f,		0.16f},
-								   {  -0.65f,	  0.65f,  0.2f,	  0.4f,		1.f,		-0.4f,		-1.8f,	0, 		-0.8f,		0.2f},
-								   {  -0.65f,	  0.65f,  0.3f,	  0.4f,		0.6f,		-0.4f,		-1.4f,	0, 		-0.8f,		0.24f},
-								   {  -0.65f,	  0.65f,  0.3f,	  0.4f,		0.2f,		-0.4f,		-1.f,	0, 		-0.8f,		0.28f},
-								   {  -0.5f,	  0.5f,	  0.2f,	  0.2f,		-0.3f,		 -0.2f,		-0.5f,	0, 		-0.5f,		0.32f},
-								   {  -0.5f,	  0.5f,	  0.2f,	  0.2f,		-0.8f,		-0.2f,		0,	    0, 		-0.5f,		0.36f},
-								   {  0,	  	  0,	  0,	  0,		0,			0,			0,		0, 		0,			0.4f}};
+	// 								L Hip	  L Knee	R Hip 	R Knee	L Should	R Should	L Fore	  R Fore	y	active			t
+	private static final float[][] leftPunch = {{  0,	  	  0,	  0,	  0,		0,			0,			0,		0, 		0,	0,			0},
+								   {  -0.5f,	  0.5f,	  0.1f,	  0.2f,		0.6f,		-0.2f,		-0.6f,	0, 		-0.5f,	0,		0.04f},
+								   {  -0.5f,	  0.5f,	  0.1f,	  0.2f,		0.8f,		-0.2f,		-0.8f,	0, 		-0.5f,	0,		0.08f},
+								   {  -0.5f,	  0.5f,	  0.1f,	  0.2f,		1.f,		-0.2f,		-1.f,	0, 		-0.5f,	1,		0.12f},
+								   {  -0.65f,	  0.65f,  0.2f,	  0.4f,		1.2f,		-0.4f,		-1.4f,	0, 		-0.8f,	1,		0.16f},
+								   {  -0.65f,	  0.65f,  0.2f,	  0.4f,		1.f,		-0.4f,		-1.8f,	0, 		-0.8f,	1,		0.2f},
+								   {  -0.65f,	  0.65f,  0.3f,	  0.4f,		0.6f,		-0.4f,		-1.4f,	0, 		-0.8f,	1,		0.24f},
+								   {  -0.65f,	  0.65f,  0.3f,	  0.4f,		0.2f,		-0.4f,		-1.f,	0, 		-0.8f,	1,		0.28f},
+								   {  -0.5f,	  0.5f,	  0.2f,	  0.2f,		-0.3f,		 -0.2f,		-0.5f,	0, 		-0.5f,	0,		0.32f},
+								   {  -0.5f,	  0.5f,	  0.2f,	  0.2f,		-0.8f,		-0.2f,		0,	    0, 		-0.5f,	0,		0.36f},
+								   {  0,	  	  0,	  0,	  0,		0,			0,			0,		0, 		0,	0,			0.4f}};
 	
 	// keyframes for when the stick figure punches to the right
-	// 								L Hip	  L Knee		R Hip 	R Knee	L Should	R Should	L Fore	 R Fore		y			t
-	private float[][] rightPunch = {{     0,	  0,	    0,	  	 0,		   0,	   0,	 0,     0, 		0,		0},
-			     				   {  -0.1f,  -0.2f,  	 0.5f,	 -0.5f,		0.2f,  -0.6f,	 0,	 0.6f, 	-0.5f,	0.04f},
-								   {  -0.1f,  -0.2f,  	 0.5f,   -0.5f,		0.2f,  -0.8f,  	 0,	 0.8f, 	-0.5f,	0.08f},
-								   {  -0.1f,  -0.2f,  	 0.5f,   -0.5f,		0.2f,	-1.f, 	 0,	  1.f, 	-0.5f,	0.12f},
-								   {  -0.2f,  -0.4f,  	0.65f,  -0.65f,	    0.4f,  -1.2f,	 0,	 1.4f, 	-0.8f,	0.16f},
-								   {  -0.2f,  -0.4f,    0.65f,	-0.65f,	    0.4f,	-1.f,	 0,	 1.8f, 	-0.8f,	 0.2f},
-								   {  -0.3f,  -0.4f,	0.65f,  -0.65f,  	0.4f,  -0.6f,	 0,	 1.4f, 	-0.8f,	0.24f},
-								   {  -0.3f,  -0.4f,    0.65f,  -0.65f, 	0.4f,  -0.2f,	 0,	  1.f, 	-0.8f,	0.28f},
-								   {  -0.2f,  -0.2f,	 0.5f,	 -0.5f,		0.2f,	0.3f,	 0,	 0.5f, 	-0.5f,	0.32f},
-								   {  -0.2f,  -0.2f,	 0.5f,	 -0.5f,		0.2f,	0.8f,	 0,	    0, 	-0.5f,	0.36f},
-								   {      0,      0,	    0,	     0,		   0,	   0,	 0,	    0, 		0,	 0.4f}};
-				
-	//          [INDEX][0:start, 1:end][0: x, 1:y] 
-	private float [][][]sxy_;;
+	// 								L Hip	  L Knee		R Hip 	R Knee	L Should	R Should	L Fore	 R Fore		y	active			t
+	private static final float[][] rightPunch = {{     0,	  0,	    0,	  	 0,		   0,	   0,	 0,     0, 		0,	0,		0},
+			     				   {  -0.1f,  -0.2f,  	 0.5f,	 -0.5f,		0.2f,  -0.6f,	 0,	 0.6f, 	-0.5f,	0,	0.04f},
+								   {  -0.1f,  -0.2f,  	 0.5f,   -0.5f,		0.2f,  -0.8f,  	 0,	 0.8f, 	-0.5f,	0,	0.08f},
+								   {  -0.1f,  -0.2f,  	 0.5f,   -0.5f,		0.2f,	-1.f, 	 0,	  1.f, 	-0.5f,	1,	0.12f},
+								   {  -0.2f,  -0.4f,  	0.65f,  -0.65f,	    0.4f,  -1.2f,	 0,	 1.4f, 	-0.8f,	1,	0.16f},
+								   {  -0.2f,  -0.4f,    0.65f,	-0.65f,	    0.4f,	-1.f,	 0,	 1.8f, 	-0.8f,	1,	 0.2f},
+								   {  -0.3f,  -0.4f,	0.65f,  -0.65f,  	0.4f,  -0.6f,	 0,	 1.4f, 	-0.8f,	1,	0.24f},
+								   {  -0.3f,  -0.4f,    0.65f,  -0.65f, 	0.4f,  -0.2f,	 0,	  1.f, 	-0.8f,	1,	0.28f},
+								   {  -0.2f,  -0.2f,	 0.5f,	 -0.5f,		0.2f,	0.3f,	 0,	 0.5f, 	-0.5f,	0,	0.32f},
+								   {  -0.2f,  -0.2f,	 0.5f,	 -0.5f,		0.2f,	0.8f,	 0,	    0, 	-0.5f,	0,	0.36f},
+								   {      0,      0,	    0,	     0,		   0,	   0,	 0,	    0, 		0,	0,	 0.4f}};
+
+	/**	returns the keyframes of the clip played in a given state
+	 *
+	 * @param state		one of the states of the figure
+	 * @return	the keyframes of that state's clip, null for DO_NOTHING
+	 */
+	static float[][] clipKeyframes(int state)
+	{
+		switch (state) {
+		case JUMPING:			return jumpFrames;
+		case WALKING_LEFT:		return leftFrames;
+		case WALKING_RIGHT:		return rightFrames;
+		case PUNCHING_LEFT:		return leftPunch;
+		case PUNCHING_RIGHT:	return rightPunch;
+		default:				return null;
+		}
+	}
+
+	// start and end time of the active window of each state's clip, null if it has none:
+	// the span of the keyframes whose active channel is set
+	private static final float [][]ACTIVE_WINDOWS = activeWindows_();
+
+	private static float [][]activeWindows_()
+	{
+		float [][]windows = new float[PUNCHING_RIGHT+1][];
+		for (int s=0; s<windows.length; s++)
+		{
+			float [][]keyframes = clipKeyframes(s);
+			if (keyframes == null)
+				continue;
+			int last = keyframes[0].length - 1;
+			for (float []keyframe : keyframes)
+				if (keyframe[last-1] >= 1)
+				{
+					if (windows[s] == null)
+						windows[s] = new float[] {keyframe[last], keyframe[last]};
+					windows[s][1] = keyframe[last];
+				}
+		}
+		return windows;
+	}
+
+	// absolute boxes computed by computeAbsoluteBoxes, before they are copied to absoluteBox_
+	private final float []boxes_ = new float[BOX_SIZE*(NUM_OF_PARTS+1)];
+	
+	// position and orientation of each node of the skeleton in the figure's frame, computed by updatePose_
+	private float []nodeX_, nodeY_, nodeCos_, nodeSin_;
+	
+	// cosine and sine of the figure's orientation, refreshed by updatePose_
+	private float cosAngle_ = 1, sinAngle_ = 0;
+	
+	// world position of the fists, computed when they are asked for
+	private float []leftFist_, rightFist_;
+	
+	// position of the figure and its animation time before the last update, saved by savePrevious_
+	private float previousX_, previousY_;
+	private float previousAnimationTime_;
+	
+	// pose of the figure at some point of the last update, computed by getSweptFist
+	private final float []sweptJoints_ = new float[NUM_CHANNELS];
+	private final float []sweptNodeX_ = new float[NUM_NODES], sweptNodeY_ = new float[NUM_NODES];
+	private final float []sweptNodeCos_ = new float[NUM_NODES], sweptNodeSin_ = new float[NUM_NODES];
+	private final float []sweptFist_ = new float[2];
+	private final KeyframeCursor sweptCursor_ = new KeyframeCursor();
+	
+	// bounds of everything the hit test accepts, in the figure's frame, refreshed by updatePose_
+	private final float []hitBounds_ = new float[BOX_SIZE];
 	
 
 	/** Constructor
@@ -207,216 +363,70 @@ public class StickFigure extends GraphicObject implements ApplicationConstants
 		// updates the absolute boxes
 		updateAbsoluteBoxes_();
 		
-		joints_ = new float[NUM_JOINTS];
+		joints_ = new float[NUM_CHANNELS];
 		joints_[0] = 0f;
 		
 		// feeds the frames to their respective interpolator
-		jumpInterpolator_ = new LinearKeyframeInterpolator(jumpFrames);
-		leftInterpolator_ = new LinearKeyframeInterpolator(leftFrames);
-		rightInterpolator_ = new LinearKeyframeInterpolator(rightFrames);
-		lPunchInterpolator_ = new LinearKeyframeInterpolator(leftPunch);
-		rPunchInterpolator_ = new LinearKeyframeInterpolator(rightPunch);
+		jumpInterpolator_ = createClipInterpolator_(jumpFrames);
+		leftInterpolator_ = createClipInterpolator_(leftFrames);
+		rightInterpolator_ = createClipInterpolator_(rightFrames);
+		lPunchInterpolator_ = createClipInterpolator_(leftPunch);
+		rPunchInterpolator_ = createClipInterpolator_(rightPunch);
 		
-		// defines the size of sxy_
-		// will record the x and y of the start and end of each limb
-		sxy_ = new float[9][2][];
-	}
-
-	/**	renders the StickFigure object
-	 * 
-	 * @param app		reference to the sketch
-	 * @param theMode	should the object be drawn with a bounding box?
-	 */
-	public void draw(PGraphics g, BoundingBoxMode boxMode, int quad)
-	{
-		if (quad >= NORTH && quad <= NORTH_EAST && shouldGetDrawnInQuadrant_[quad])
-		{
-			//	Invokes method declared in the parent class, that draws the object
-			draw_(g);
-
-			//	Then draw the boxes, if needed
-
-			if (boxMode == BoundingBoxMode.RELATIVE_BOX)
-			{
-				g.pushMatrix();
-
-				g.translate(x_,  y_);
-				g.rotate(angle_);		
-
-				for (BoundingBox box : relativeBox_)
-					box.draw(g);
-
-				g.popMatrix();	
-			}
-
-			else if (boxMode == BoundingBoxMode.ABSOLUTE_BOX)
-			{
-				for (BoundingBox box : absoluteBox_)
-					if (box != null)
-						box.draw(g);
-
-			}
-		}
+		// the pose is computed from the joint angles, independently of rendering
+		nodeX_ = new float[NUM_NODES];
+		nodeY_ = new float[NUM_NODES];
+		nodeCos_ = new float[NUM_NODES];
+		nodeSin_ = new float[NUM_NODES];
+		leftFist_ = new float[2];
+		rightFist_ = new float[2];
+		updatePose_();
+		
+		previousX_ = x_;
+		previousY_ = y_;
 	}
 
-	/**	renders the StickFigure object
+	/**	renders the StickFigure object from the pose of its skeleton (see updatePose_),
+	 * 	so that the figure is drawn exactly where the hit tests find it
 	 * 
 	 * @param app		reference to the sketch
 	 */
 	public void draw_(PGraphics g) {
-		// the matrix that keeps track of the start and end of each limb
-		PMatrix2D pm2D = new PMatrix2D(); //command+shift+m to activate?
-		
 		// the limb color and joint color of the stick man
 		g.stroke(80);
 		g.fill(255, 0, 0);
-		g.pushMatrix();
 		
 		// Head of stick figure
-		g.ellipse(HEAD_X, HEAD_Y, HEAD_DIAMETER, HEAD_DIAMETER);
-		
-		// Torso of stick figure
-		g.pushMatrix();
-		g.translate(BODY_X, BODY_Y);
-		g.getMatrix(pm2D);
-		float ix1 = pm2D.m02, iy1 = pm2D.m12;
-		sxy_[0][0] = pixelToWorld(ix1, iy1); // this is the beginning of the torso
+		g.ellipse(nodeX_[ROOT_NODE], nodeY_[ROOT_NODE], HEAD_DIAMETER, HEAD_DIAMETER);
+		
+		// Torso, arms and legs:  the limbs of the skeleton
 		g.strokeWeight(STROKE_WEIGHT);
-		g.line(0, 0, 0, -TORSO_LENGTH);
-		g.getMatrix(pm2D);
-		float ix2 = pm2D.m02, iy2 = pm2D.m12; 
-		sxy_[0][1] = pixelToWorld(ix2, iy2); // this is the end of the torso
-		g.popMatrix();
-		
-		// Shoulders
-		g.pushMatrix();
-		g.translate(0, ARM_Y);
-		g.line(-SHOULDER_WIDTH, 0, SHOULDER_WIDTH, 0);
-		g.popMatrix();
-		
-		// Left Arm
-		g.pushMatrix();
-		// First, the left upper arm
-		g.translate(-ARM_X, ARM_Y);
-		g.getMatrix(pm2D);
-		float ix3 = pm2D.m02, iy3 = pm2D.m12;
-		sxy_[1][0] = pixelToWorld(ix3, iy3);
-		g.rotate(joints_[LEFT_SHOULDER_INDEX]);
-		g.line(0, 0, -BICEP_LENGTH, -BICEP_LENGTH);
-		// Then, the elbow joint
-		g.translate(ELBOW_X, ELBOW_Y);
-		g.getMatrix(pm2D);
-		float ix4 = pm2D.m02, iy4 = pm2D.m12;
-		sxy_[1][1] = pixelToWorld(ix4, iy4);
-		g.ellipse(0, 0, JOINT_DIAMETER, JOINT_DIAMETER);
-		// Then, the left forearm
-		g.translate(FOREARM_X, FOREARM_Y);
-		g.getMatrix(pm2D);
-		float ix5 = pm2D.m02, iy5 = pm2D.m12;
-		sxy_[2][0] = pixelToWorld(ix5, iy5);
-		g.rotate(joints_[LEFT_FOREARM_INDEX]);
-		g.line(0, 0, -BICEP_LENGTH, -BICEP_LENGTH);
-		// Then, the left hand
-		g.translate(-BICEP_LENGTH, -BICEP_LENGTH);
-		g.getMatrix(pm2D);
-		float ix6 = pm2D.m02, iy6 = pm2D.m12;
-		sxy_[2][1] = pixelToWorld(ix6, iy6);
-		g.ellipse(0, 0, -HAND_DIAMETER, -HAND_DIAMETER);
-		g.popMatrix();
-		
-		// Right Arm
-		g.pushMatrix();
-		// First, the right upper arm
-		g.translate(ARM_X, ARM_Y);
-		g.getMatrix(pm2D);
-		float ix7 = pm2D.m02, iy7 = pm2D.m12;
-		sxy_[3][0] = pixelToWorld(ix7, iy7);
-		g.rotate(joints_[RIGHT_SHOULDER_INDEX]);
-		g.line(0, 0, BICEP_LENGTH, -BICEP_LENGTH);
-		// Then, the elbow joint
-		g.translate(-ELBOW_X, ELBOW_Y);
-		g.getMatrix(pm2D);
-		float ix8 = pm2D.m02, iy8 = pm2D.m12;
-		sxy_[3][1] = pixelToWorld(ix8, iy8);
-		g.ellipse(0, 0, JOINT_DIAMETER, JOINT_DIAMETER);
-		// Then, the right forearm
-		g.translate(FOREARM_X, FOREARM_Y);
-		g.getMatrix(pm2D);
-		float ix9 = pm2D.m02, iy9 = pm2D.m12;
-		sxy_[4][0] = pixelToWorld(ix9, iy9);
-		g.rotate(joints_[RIGHT_FOREARM_INDEX]);
-		g.line(0, 0, BICEP_LENGTH, -BICEP_LENGTH);
-		// Then, the left hand
-		g.translate(BICEP_LENGTH, -BICEP_LENGTH);
-		g.getMatrix(pm2D);
-		float ix10 = pm2D.m02, iy10 = pm2D.m12;
-		sxy_[4][1]= pixelToWorld(ix10, iy10);
-		g.ellipse(0, 0, HAND_DIAMETER, -HAND_DIAMETER);
-		g.popMatrix();
-		
-		// Hips
-		g.pushMatrix();
-		g.translate(0, THIGH_Y);
-		g.line(-HIP_WIDTH, 0, HIP_WIDTH, 0);
-		g.popMatrix();
-		
-		// Left Leg
-		// First, the left thigh
-		g.pushMatrix();
-		g.translate(-THIGH_X, THIGH_Y);
-		g.getMatrix(pm2D);
-		float ix11 = pm2D.m02, iy11 = pm2D.m12;
-		sxy_[5][0] = pixelToWorld(ix11, iy11);
-		g.rotate(joints_[LEFT_HIP_INDEX]);
-		g.line(0, 0, -THIGH_LENGTH/2, -THIGH_LENGTH);
-		// Then, the knee joint
-		g.translate(KNEE_X, KNEE_Y);
-		g.getMatrix(pm2D);
-		float ix12 = pm2D.m02, iy12 = pm2D.m12;
-		sxy_[5][1] = pixelToWorld(ix12, iy12);
-		g.ellipse(0, 0, JOINT_DIAMETER, JOINT_DIAMETER);
-		// Then, the left shin
-		g.translate(SHIN_X, SHIN_Y);
-		g.getMatrix(pm2D);
-		float ix13 = pm2D.m02, iy13 = pm2D.m12;
-		sxy_[6][0] = pixelToWorld(ix13, iy13);
-		g.rotate(joints_[LEFT_KNEE_INDEX]);
-		g.line(0, 0, -SHIN_LENGTH/2, -SHIN_LENGTH);
-		g.translate(-SHIN_LENGTH/2, -SHIN_LENGTH);
-		g.getMatrix(pm2D);
-		float ix14 = pm2D.m02, iy14 = pm2D.m12;
-		sxy_[6][1] = pixelToWorld(ix14, iy14);
-		g.popMatrix();
-		
-		// Right Leg
-		// First, the right thigh
-		g.pushMatrix();
-		g.translate(THIGH_X, THIGH_Y);
-		g.getMatrix(pm2D);
-		float ix15 = pm2D.m02, iy15 = pm2D.m12;
-		sxy_[7][0] = pixelToWorld(ix15, iy15);
-		g.rotate(joints_[RIGHT_HIP_INDEX]);
-		g.line(0, 0, THIGH_LENGTH/2, -THIGH_LENGTH);
-		// Then, the knee joint
-		g.translate(-KNEE_X, KNEE_Y);
-		g.getMatrix(pm2D);
-		float ix16 = pm2D.m02, iy16 = pm2D.m12;
-		sxy_[7][1] = pixelToWorld(ix16, iy16);
-		g.ellipse(0, 0, JOINT_DIAMETER, JOINT_DIAMETER);
-		// Then, the right shin
-		g.translate(-SHIN_X, SHIN_Y);
-		g.getMatrix(pm2D);
-		float ix17 = pm2D.m02, iy17 = pm2D.m12;
-		sxy_[8][0] = pixelToWorld(ix17, iy17);
-		g.rotate(joints_[RIGHT_KNEE_INDEX]);
-		g.line(0, 0, SHIN_LENGTH/2, -SHIN_LENGTH);
-		g.translate(SHIN_LENGTH/2, -SHIN_LENGTH);
-		g.getMatrix(pm2D);
-		float ix18 = pm2D.m02, iy18 = pm2D.m12;
-		sxy_[8][1] = pixelToWorld(ix18, iy18);
-		g.popMatrix();
-		
-		g.popMatrix();
+		for (int i=0; i<SKELETON.getNumLimbs(); i++)
+			line_(g, SKELETON.getLimbStart(i), SKELETON.getLimbEnd(i));
+		
+		// Shoulders and hips
+		line_(g, LEFT_SHOULDER_NODE, RIGHT_SHOULDER_NODE);
+		line_(g, LEFT_HIP_NODE, RIGHT_HIP_NODE);
+		
+		// Elbow and knee joints
+		circle_(g, LEFT_ELBOW_NODE, JOINT_DIAMETER);
+		circle_(g, RIGHT_ELBOW_NODE, JOINT_DIAMETER);
+		circle_(g, LEFT_KNEE_NODE, JOINT_DIAMETER);
+		circle_(g, RIGHT_KNEE_NODE, JOINT_DIAMETER);
+		
+		// Hands
+		circle_(g, LEFT_FIST_NODE, HAND_DIAMETER);
+		circle_(g, RIGHT_FIST_NODE, HAND_DIAMETER);
+	}
+	
+	// draws a line between two nodes of the pose
+	private void line_(PGraphics g, int from, int to) {
+		g.line(nodeX_[from], nodeY_[from], nodeX_[to], nodeY_[to]);
+	}
+	
+	// draws a circle centered on a node of the pose
+	private void circle_(PGraphics g, int node, float diameter) {
+		g.ellipse(nodeX_[node], nodeY_[node], diameter, diameter);
 	}
 	
 	/** converts from pixel to world coordinates
@@ -441,33 +451,106 @@ public class StickFigure extends GraphicObject implements ApplicationConstants
 	 */
 	protected void updateAbsoluteBoxes_()
 	{
-		float cA = PApplet.cos(angle_), sA = PApplet.sin(angle_);
+		computeAbsoluteBoxes(x_, y_, angle_, boxes_, 0);
+		for (int k=0; k<=NUM_OF_PARTS; k++)
+			absoluteBox_[k].updatePosition(boxes_[BOX_SIZE*k + XMIN_INDEX], boxes_[BOX_SIZE*k + XMAX_INDEX], 
+										   boxes_[BOX_SIZE*k + YMIN_INDEX], boxes_[BOX_SIZE*k + YMAX_INDEX]);
+	}
+	
+	/**
+	 * 	Computes the absolute bounding boxes of a stick figure (head, body and each hand)
+	 * into an array, BOX_SIZE values per box, in the order HEAD, BODY, LEFT_HAND, RIGHT_HAND.
+	 * This is shared by the figure objects and by the FighterBatch.
+	 * 
+	 * @param x			x coordinate of the figure
+	 * @param y			y coordinate of the figure
+	 * @param angle		orientation of the figure
+	 * @param box		receives the bounds of the boxes
+	 * @param offset	index in box of the first value
+	 */
+	static void computeAbsoluteBoxes(float x, float y, float angle, float []box, int offset)
+	{
+		float cA = PApplet.cos(angle), sA = PApplet.sin(angle);
 		float 	
-				centerLeftHandX = x_ + cA*(-ARM_X + ELBOW_X + FOREARM_X - BICEP_LENGTH) - sA*(ARM_Y + ELBOW_Y + FOREARM_Y - BICEP_LENGTH),
-				centerLeftHandY = y_ + cA*(ARM_Y + ELBOW_Y + FOREARM_Y - BICEP_LENGTH) + sA*(-ARM_X + ELBOW_X + FOREARM_X - BICEP_LENGTH),
-				centerRightHandX = x_ + cA*(ARM_X - ELBOW_X + FOREARM_X + BICEP_LENGTH) - sA*(ARM_Y + ELBOW_Y + FOREARM_Y - BICEP_LENGTH),
-				centerRightHandY = y_ + cA*(ARM_Y + ELBOW_Y + FOREARM_Y - BICEP_LENGTH) + sA*(ARM_X - ELBOW_X + FOREARM_X + BICEP_LENGTH);
-				
-		
-		absoluteBox_[HEAD].updatePosition(x_ - HEAD_DIAMETER/2,	//	xmin
-										  x_ + HEAD_DIAMETER/2,	//	xmax
-									      y_ - HEAD_DIAMETER/2,	//	ymin
-										  y_ + HEAD_DIAMETER/2);	//	ymax
-		
-		absoluteBox_[LEFT_HAND].updatePosition(centerLeftHandX - HAND_DIAMETER/2,	//	xmin
-										  	   centerLeftHandX + HAND_DIAMETER/2,	//	xmax
-										  	   centerLeftHandY - HAND_DIAMETER/2,	//	ymin
-										  	   centerLeftHandY + HAND_DIAMETER/2);	//	ymax
-		
-		absoluteBox_[RIGHT_HAND].updatePosition(centerRightHandX - HAND_DIAMETER/2,	//	xmin
-			  	   								centerRightHandX + HAND_DIAMETER/2,	//	xmax
-			  	   								centerRightHandY - HAND_DIAMETER/2,	//	ymin
-			  	   								centerRightHandY + HAND_DIAMETER/2);	//	ymax
-		
-		absoluteBox_[BODY].updatePosition(x_ + ELBOW_X_OFFSET - BICEP_LENGTH - JOINT_DIAMETER - HIP_WIDTH,	//	xmin
-										  x_ - ELBOW_X_OFFSET + BICEP_LENGTH + JOINT_DIAMETER + HIP_WIDTH,	//	xmax
-										  y_ + HEAD_DIAMETER/2,	//	ymin
-										  y_ - HEAD_DIAMETER/2 - TORSO_LENGTH - THIGH_LENGTH - SHIN_LENGTH - 2*JOINT_DIAMETER);	//	ymax
+				centerLeftHandX = x + cA*(-ARM_X + ELBOW_X + FOREARM_X - BICEP_LENGTH) - sA*(ARM_Y + ELBOW_Y + FOREARM_Y - BICEP_LENGTH),
+				centerLeftHandY = y + cA*(ARM_Y + ELBOW_Y + FOREARM_Y - BICEP_LENGTH) + sA*(-ARM_X + ELBOW_X + FOREARM_X - BICEP_LENGTH),
+				centerRightHandX = x + cA*(ARM_X - ELBOW_X + FOREARM_X + BICEP_LENGTH) - sA*(ARM_Y + ELBOW_Y + FOREARM_Y - BICEP_LENGTH),
+				centerRightHandY = y + cA*(ARM_Y + ELBOW_Y + FOREARM_Y - BICEP_LENGTH) + sA*(ARM_X - ELBOW_X + FOREARM_X + BICEP_LENGTH);
+		
+		setBox_(box, offset + BOX_SIZE*HEAD, 
+				x - HEAD_DIAMETER/2,	//	xmin
+				x + HEAD_DIAMETER/2,	//	xmax
+				y - HEAD_DIAMETER/2,	//	ymin
+				y + HEAD_DIAMETER/2);	//	ymax
+		
+		setBox_(box, offset + BOX_SIZE*LEFT_HAND,
+				centerLeftHandX - HAND_DIAMETER/2,	//	xmin
+				centerLeftHandX + HAND_DIAMETER/2,	//	xmax
+				centerLeftHandY - HAND_DIAMETER/2,	//	ymin
+				centerLeftHandY + HAND_DIAMETER/2);	//	ymax
+		
+		setBox_(box, offset + BOX_SIZE*RIGHT_HAND,
+				centerRightHandX - HAND_DIAMETER/2,	//	xmin
+				centerRightHandX + HAND_DIAMETER/2,	//	xmax
+				centerRightHandY - HAND_DIAMETER/2,	//	ymin
+				centerRightHandY + HAND_DIAMETER/2);	//	ymax
+		
+		setBox_(box, offset + BOX_SIZE*BODY,
+				x + ELBOW_X_OFFSET - BICEP_LENGTH - JOINT_DIAMETER - HIP_WIDTH,	//	xmin
+				x - ELBOW_X_OFFSET + BICEP_LENGTH + JOINT_DIAMETER + HIP_WIDTH,	//	xmax
+				y - HEAD_DIAMETER/2 - TORSO_LENGTH - THIGH_LENGTH - SHIN_LENGTH - 2*JOINT_DIAMETER,	//	ymin
+				y + HEAD_DIAMETER/2);	//	ymax
+	}
+	
+	/**
+	 * 	Computes bounds that contain every point the hit test (contains) accepts, in
+	 * the figure's frame:  the body box, grown to take in the head and hand circles 
+	 * and the limbs, wherever the joints have swung them.
+	 * 
+	 * @param nodeX			x coordinate of the figure's skeleton nodes, in the figure's frame
+	 * @param nodeY			y coordinate of the figure's skeleton nodes, in the figure's frame
+	 * @param nodeOffset	index of the figure's root node in nodeX and nodeY
+	 * @param bounds		receives xmin, xmax, ymin and ymax (same layout as a box)
+	 * @param offset		index in bounds of the first value
+	 */
+	static void computeHitBounds(float []nodeX, float []nodeY, int nodeOffset, float []bounds, int offset)
+	{
+		//	body box
+		float xmin = ELBOW_X_OFFSET - BICEP_LENGTH - JOINT_DIAMETER - HIP_WIDTH;
+		float xmax = -ELBOW_X_OFFSET + BICEP_LENGTH + JOINT_DIAMETER + HIP_WIDTH;
+		float ymin = -HEAD_DIAMETER/2 - TORSO_LENGTH - THIGH_LENGTH - SHIN_LENGTH - 2*JOINT_DIAMETER;
+		float ymax = HEAD_DIAMETER/2;
+		
+		//	head circle
+		xmin = Math.min(xmin, HEAD_X - HEAD_HIT_RADIUS);
+		xmax = Math.max(xmax, HEAD_X + HEAD_HIT_RADIUS);
+		ymin = Math.min(ymin, HEAD_Y - HEAD_HIT_RADIUS);
+		ymax = Math.max(ymax, HEAD_Y + HEAD_HIT_RADIUS);
+		
+		//	hand circles
+		xmin = Math.min(xmin, LEFT_HAND_X - HAND_HIT_RADIUS);
+		xmax = Math.max(xmax, RIGHT_HAND_X + HAND_HIT_RADIUS);
+		ymin = Math.min(ymin, HAND_Y - HAND_HIT_RADIUS);
+		ymax = Math.max(ymax, HAND_Y + HAND_HIT_RADIUS);
+		
+		//	limbs
+		for (int n=nodeOffset; n<nodeOffset+NUM_NODES; n++)
+		{
+			xmin = Math.min(xmin, nodeX[n] - LIMB_HIT_RADIUS);
+			xmax = Math.max(xmax, nodeX[n] + LIMB_HIT_RADIUS);
+			ymin = Math.min(ymin, nodeY[n] - LIMB_HIT_RADIUS);
+			ymax = Math.max(ymax, nodeY[n] + LIMB_HIT_RADIUS);
+		}
+		
+		setBox_(bounds, offset, xmin - HIT_SLACK, xmax + HIT_SLACK, ymin - HIT_SLACK, ymax + HIT_SLACK);
+	}
+	
+	private static void setBox_(float []box, int offset, float xmin, float xmax, float ymin, float ymax)
+	{
+		box[offset + XMIN_INDEX] = xmin;
+		box[offset + XMAX_INDEX] = xmax;
+		box[offset + YMIN_INDEX] = ymin;
+		box[offset + YMAX_INDEX] = ymax;
 	}
 
 	/**
@@ -530,6 +613,8 @@ public class StickFigure extends GraphicObject implements ApplicationConstants
 	 */
 	public void update(float dt)
 	{
+		savePrevious_();
+		
 		// handles the left and right movement of the player
 		x_ += vx_ * dt;
 		y_ += vy_ * dt;
@@ -540,62 +625,71 @@ public class StickFigure extends GraphicObject implements ApplicationConstants
 			
 		case JUMPING:
 			animationTime_ += dt;
-			float []jumpStateVector = jumpInterpolator_.computeStateVector(animationTime_);
-			for (int k=0; k < NUM_JOINTS; k++) {
-				joints_[k] = jumpStateVector[k];
-			}		
-			y_ = jumpStateVector[NUM_JOINTS];
+			jumpInterpolator_.computeStateVector(animationTime_, joints_, 0);
+			y_ = joints_[CLIP_CHANNEL_INDEX];
 			if (jumpInterpolator_.animationIsFinished(animationTime_))
 				state_ = DO_NOTHING;
 			break;
 			
 		case WALKING_LEFT:
 			animationTime_ += dt;
-			float []leftStateVector = leftInterpolator_.computeStateVector(animationTime_);
-			for (int k=0; k<NUM_JOINTS; k++) {
-				joints_[k] = leftStateVector[k];
-			}		
-			vx_ = leftStateVector[NUM_JOINTS];
+			leftInterpolator_.computeStateVector(animationTime_, joints_, 0);
+			vx_ = joints_[CLIP_CHANNEL_INDEX];
 			if (leftInterpolator_.animationIsFinished(animationTime_))
 				state_ = DO_NOTHING;
 			break;
 			
 		case WALKING_RIGHT:
 			animationTime_ += dt;
-			float []rightStateVector = rightInterpolator_.computeStateVector(animationTime_);
-			for (int k=0; k<NUM_JOINTS; k++) {
-				joints_[k] = rightStateVector[k];
-			}		
-			vx_ = rightStateVector[NUM_JOINTS];
+			rightInterpolator_.computeStateVector(animationTime_, joints_, 0);
+			vx_ = joints_[CLIP_CHANNEL_INDEX];
 			if (rightInterpolator_.animationIsFinished(animationTime_))
 				state_ = DO_NOTHING;
 			break;
 			
 		case PUNCHING_LEFT:
 			animationTime_ += dt;
-			float []lPunchStateVector = lPunchInterpolator_.computeStateVector(animationTime_);
-			for (int k=0; k<NUM_JOINTS; k++) {
-				joints_[k] = lPunchStateVector[k];
-			}	
-			y_ = lPunchStateVector[NUM_JOINTS];
-			vx_ = lPunchStateVector[NUM_JOINTS];
+			lPunchInterpolator_.computeStateVector(animationTime_, joints_, 0);
+			y_ = joints_[CLIP_CHANNEL_INDEX];
+			vx_ = joints_[CLIP_CHANNEL_INDEX];
 			if (lPunchInterpolator_.animationIsFinished(animationTime_))
 				state_ = DO_NOTHING;
 			break;
 			
 		case PUNCHING_RIGHT:
 			animationTime_ += dt;
-			float []rPunchStateVector = rPunchInterpolator_.computeStateVector(animationTime_);
-			for (int k=0; k<NUM_JOINTS; k++) {
-				joints_[k] = rPunchStateVector[k];
-			}	
-			y_ = rPunchStateVector[NUM_JOINTS];
-			vx_ = -rPunchStateVector[NUM_JOINTS];
+			rPunchInterpolator_.computeStateVector(animationTime_, joints_, 0);
+			y_ = joints_[CLIP_CHANNEL_INDEX];
+			vx_ = -joints_[CLIP_CHANNEL_INDEX];
 			if (rPunchInterpolator_.animationIsFinished(animationTime_))
 				state_ = DO_NOTHING;
 			break;
 		}	
 		updateAbsoluteBoxes_();
+		updatePose_();
+	}
+	
+	/**	Saves the position and the animation time of the figure before they are updated,
+	 * so that a fist can be swept from where it was to where it is (see getSweptFist)
+	 */
+	protected void savePrevious_()
+	{
+		previousX_ = x_;
+		previousY_ = y_;
+		previousAnimationTime_ = getAnimationTime();
+	}
+	
+	/**	Forward kinematics:  computes the position of the limbs in the figure's own frame
+	 * from the joint angles.  This doesn't depend on rendering, so the hit tests are valid
+	 * whether or not the figure was drawn.  Nothing is moved into the world:  the hit 
+	 * tests bring the query point into the figure's frame instead.
+	 */
+	protected void updatePose_()
+	{
+		SKELETON.computePose(0, 0, 0, joints_, 0, nodeX_, nodeY_, nodeCos_, nodeSin_, 0);
+		computeHitBounds(nodeX_, nodeY_, 0, hitBounds_, 0);
+		cosAngle_ = PApplet.cos(angle_);
+		sinAngle_ = PApplet.sin(angle_);
 	}
 	
 	/**	Performs a search to determine whether the point received
@@ -606,87 +700,214 @@ public class StickFigure extends GraphicObject implements ApplicationConstants
 	 * @return	    true if the point at (x, y) lies inside this face object.
 	 */
 	public boolean isInside(float x, float y) {
-		//checks to see if punch hit the head
-		float dx = x - (x_ + HEAD_X), dy = y - (y_ + HEAD_Y);
-		if (PApplet.sqrt(dx*dx + dy*dy) < (HEAD_DIAMETER + HAND_DIAMETER)/2)
-			return true;
-			
-		//checks to see if punch hit the left hand
-		float dxLeftHand = x - (x_ - ARM_X + ELBOW_X + FOREARM_X - BICEP_LENGTH), dyLeftHand = y - (y_ + ARM_Y + ELBOW_Y + FOREARM_Y - BICEP_LENGTH);
-		if (PApplet.sqrt(dxLeftHand*dxLeftHand + dyLeftHand*dyLeftHand) < (HAND_DIAMETER + HAND_DIAMETER)/2)
-			return true;
-			
-		//checks to see if punch hit the right hand
-		float dxRightHand = x - (x_ + ARM_X - ELBOW_X + FOREARM_X + BICEP_LENGTH), dyRightHand = y - (y_ + ARM_Y + ELBOW_Y + FOREARM_Y - BICEP_LENGTH);
-		if (PApplet.sqrt(dxRightHand*dxRightHand + dyRightHand*dyRightHand) < (HAND_DIAMETER + HAND_DIAMETER)/2)
+		return contains(x_, y_, cosAngle_, sinAngle_, nodeX_, nodeY_, 0, hitBounds_, 0, x, y);
+	}
+	
+	/**	Determines which of a set of points are on the man
+	 * 
+	 * @param xs		x coordinates of the points
+	 * @param ys		y coordinates of the points
+	 * @param count		number of points (the first count entries of xs and ys)
+	 * @param hits		bit k is set if point k lies on the man, cleared otherwise
+	 */
+	public void isInside(float []xs, float []ys, int count, BitSet hits) {
+		contains(x_, y_, cosAngle_, sinAngle_, nodeX_, nodeY_, 0, hitBounds_, 0, xs, ys, count, hits);
+	}
+	
+	/**	Hit test shared by the figure objects and by the FighterBatch.
+	 * 
+	 * 	The query point is brought into the figure's frame, where the limbs are 
+	 * 	described once, as capsules.  The test then goes from coarse to fine:  first 
+	 * 	the hit bounds of the whole figure, then the head and hand circles, and only 
+	 * 	then each limb.  Distances are compared squared, so there is no square root.
+	 * 
+	 * @param figureX		x coordinate of the figure
+	 * @param figureY		y coordinate of the figure
+	 * @param cosAngle		cosine of the orientation of the figure
+	 * @param sinAngle		sine of the orientation of the figure
+	 * @param nodeX			x coordinate of the figure's skeleton nodes, in the figure's frame
+	 * @param nodeY			y coordinate of the figure's skeleton nodes, in the figure's frame
+	 * @param nodeOffset	index of the figure's root node in nodeX and nodeY
+	 * @param bounds		hit bounds of the figure, as computed by computeHitBounds
+	 * @param boundsOffset	index in bounds of the figure's hit bounds
+	 * @param x				x coordinate of a point in the world reference frame
+	 * @param y				y coordinate of a point in the world reference frame
+	 * @return	true if the point at (x, y) lies on the figure
+	 */
+	static boolean contains(float figureX, float figureY, float cosAngle, float sinAngle, 
+							float []nodeX, float []nodeY, int nodeOffset,
+							float []bounds, int boundsOffset, float x, float y) {
+		// the point in the figure's frame
+		float dx = x - figureX, dy = y - figureY;
+		float localX = cosAngle*dx + sinAngle*dy, localY = cosAngle*dy - sinAngle*dx;
+		
+		// rejects the points that are away from the whole figure
+		if (!inBounds_(bounds, boundsOffset, localX, localY))
+			return false;
+		
+		if (circlesContain_(localX, localY))
 			return true;
 
 		// checks each limb to see if the punch landed
-		for(int i = 0; i < 9; ++i) {
-			//                 limbEndX        limbStartX
-			float limbX = sxy_[i][1][0] - sxy_[i][0][0];
-			//                 limbEndY        limbStartY
-			float limbY = sxy_[i][1][1] - sxy_[i][0][1];
-			float n2 = limbX * limbX + limbY * limbY; //this is n^2
-			
-			float alpha;
-			// this calculates the coordinates of m1p
-			
-			//  fist X coordinate - limbStartX
-			float vectorX1 = x - sxy_[i][0][0]; // vector from the origin to the segment
-			float newTotalX = vectorX1 * limbX;
-			
-			//   fist Y coordinate - limbStartY
-			float vectorY1 = y - sxy_[i][0][1];
-			float newTotalY = vectorY1 * limbY;
-
-			// updates the value of alpha
-			alpha = newTotalX + newTotalY;
-			alpha = alpha/n2;
-
-			// v is vector from m1 and m2
-
-			// depending on the value of alpha, the collision is checked against a certain part of the limb
-			// checks to see if the punch lands against the start of the limb
-			if (alpha < 0) {
-				//fist X coordinate - limbStartX
-				float X2 = x - sxy_[i][0][0];
-				X2 = X2 * X2; // this makes X2 squared
-				//fist Y coordinate - limbStartX
-				float Y2 = y - sxy_[i][0][1];
-				Y2 = Y2 * Y2; // this makes Y2 squared
-				float d2 = X2 + Y2;
-				if(d2 < HAND_DIAMETER/4) {
-					return true;
-				}
-				
-			// checks to see if the punch lands against the end of the limb
-			} else if (alpha > 1) {
-				//fist X coordinate - limbEndX
-				float X2 = x - sxy_[i][1][0];
-				X2 = X2 * X2;
-				//fist Y coordinate - limbEndY
-				float Y2 = y - sxy_[i][1][1];
-				Y2 = Y2 * Y2;
-				float d2 = X2 + Y2;
-				if(d2 < HAND_DIAMETER/4) {
-					return true;
-				}
-			// 0 <= alpha <= 1
-			// checks to see if the punch lands on the limb itself
-			} else {
-				//v is the vector orthogonal to  m1p
-				float vVarY = sxy_[i][0][1] - sxy_[i][1][1];
-				float vVarX = sxy_[i][1][0] - sxy_[i][0][0];
-				float dotProduct = vVarX * vectorX1 + vVarY * vectorY1;
-				float beta = dotProduct / PApplet.sqrt(n2);;
-				
-				if(beta < HAND_DIAMETER/2) {
-					return true;
-				}
+		return SKELETON.limbsContain(nodeX, nodeY, nodeOffset, localX, localY);
+	}
+	
+	/**	Determines whether a point moving in a straight line from (x0, y0) to (x1, y1) 
+	 * touches the man anywhere along the way
+	 * 
+	 * @param x0	x coordinate of the start of the path, in the world reference frame
+	 * @param y0	y coordinate of the start of the path, in the world reference frame
+	 * @param x1	x coordinate of the end of the path, in the world reference frame
+	 * @param y1	y coordinate of the end of the path, in the world reference frame
+	 * @return	true if the path touches the man
+	 */
+	public boolean isSweptInside(float x0, float y0, float x1, float y1) {
+		return sweptContains(x_, y_, cosAngle_, sinAngle_, nodeX_, nodeY_, 0, hitBounds_, 0, x0, y0, x1, y1);
+	}
+	
+	/**	Swept version of contains, shared by the figure objects and by the FighterBatch:
+	 * 	checks a path (a segment) rather than a point against the figure.  A path of 
+	 * 	length 0 gives the same result as contains.
+	 * 
+	 * 	The two ends of the path are brought into the figure's frame.  The box around 
+	 * 	the path is checked against the hit bounds, then the path against the head and 
+	 * 	hand circles, then against the capsule of each limb.
+	 * 
+	 * @param figureX		x coordinate of the figure
+	 * @param figureY		y coordinate of the figure
+	 * @param cosAngle		cosine of the orientation of the figure
+	 * @param sinAngle		sine of the orientation of the figure
+	 * @param nodeX			x coordinate of the figure's skeleton nodes, in the figure's frame
+	 * @param nodeY			y coordinate of the figure's skeleton nodes, in the figure's frame
+	 * @param nodeOffset	index of the figure's root node in nodeX and nodeY
+	 * @param bounds		hit bounds of the figure, as computed by computeHitBounds
+	 * @param boundsOffset	index in bounds of the figure's hit bounds
+	 * @param x0			x coordinate of the start of the path, in the world reference frame
+	 * @param y0			y coordinate of the start of the path, in the world reference frame
+	 * @param x1			x coordinate of the end of the path, in the world reference frame
+	 * @param y1			y coordinate of the end of the path, in the world reference frame
+	 * @return	true if the path touches the figure
+	 */
+	static boolean sweptContains(float figureX, float figureY, float cosAngle, float sinAngle, 
+								 float []nodeX, float []nodeY, int nodeOffset,
+								 float []bounds, int boundsOffset, float x0, float y0, float x1, float y1) {
+		// the path in the figure's frame
+		float dx0 = x0 - figureX, dy0 = y0 - figureY, dx1 = x1 - figureX, dy1 = y1 - figureY;
+		float localX0 = cosAngle*dx0 + sinAngle*dy0, localY0 = cosAngle*dy0 - sinAngle*dx0;
+		float localX1 = cosAngle*dx1 + sinAngle*dy1, localY1 = cosAngle*dy1 - sinAngle*dx1;
+		
+		// rejects the paths that stay away from the whole figure
+		if (Math.max(localX0, localX1) < bounds[boundsOffset + XMIN_INDEX] || 
+			Math.min(localX0, localX1) > bounds[boundsOffset + XMAX_INDEX] ||
+			Math.max(localY0, localY1) < bounds[boundsOffset + YMIN_INDEX] || 
+			Math.min(localY0, localY1) > bounds[boundsOffset + YMAX_INDEX])
+			return false;
+		
+		// the circles:  the path comes close enough to their center
+		if (Skeleton.capsuleContains(localX0, localY0, localX1, localY1, HEAD_HIT_RADIUS*HEAD_HIT_RADIUS, HEAD_X, HEAD_Y) ||
+			Skeleton.capsuleContains(localX0, localY0, localX1, localY1, HAND_HIT_RADIUS*HAND_HIT_RADIUS, LEFT_HAND_X, HAND_Y) ||
+			Skeleton.capsuleContains(localX0, localY0, localX1, localY1, HAND_HIT_RADIUS*HAND_HIT_RADIUS, RIGHT_HAND_X, HAND_Y))
+			return true;
+		
+		return SKELETON.limbsIntersect(nodeX, nodeY, nodeOffset, localX0, localY0, localX1, localY1);
+	}
+	
+	/**	Hit test of many points at once, shared by the figure objects and by the FighterBatch.
+	 * 	Gives the same result as contains for each point, but the limbs, which are most 
+	 * 	of the cost, are tested for all the points together (see LimbKernel).
+	 * 
+	 * @param figureX		x coordinate of the figure
+	 * @param figureY		y coordinate of the figure
+	 * @param cosAngle		cosine of the orientation of the figure
+	 * @param sinAngle		sine of the orientation of the figure
+	 * @param nodeX			x coordinate of the figure's skeleton nodes, in the figure's frame
+	 * @param nodeY			y coordinate of the figure's skeleton nodes, in the figure's frame
+	 * @param nodeOffset	index of the figure's root node in nodeX and nodeY
+	 * @param bounds		hit bounds of the figure, as computed by computeHitBounds
+	 * @param boundsOffset	index in bounds of the figure's hit bounds
+	 * @param xs			x coordinates of the points, in the world reference frame
+	 * @param ys			y coordinates of the points, in the world reference frame
+	 * @param count			number of points
+	 * @param hits			bit k is set if point k lies on the figure, cleared otherwise
+	 */
+	static void contains(float figureX, float figureY, float cosAngle, float sinAngle, 
+						 float []nodeX, float []nodeY, int nodeOffset,
+						 float []bounds, int boundsOffset, float []xs, float []ys, int count, BitSet hits) {
+		// without the vector kernel, testing the points one by one is faster (it stops at the first hit)
+		if (!Skeleton.isVectorized()) {
+			for (int k=0; k<count; k++)
+				hits.set(k, contains(figureX, figureY, cosAngle, sinAngle, nodeX, nodeY, nodeOffset, 
+									 bounds, boundsOffset, xs[k], ys[k]));
+			return;
+		}
+		
+		hits.clear(0, count);
+		
+		// the circles, one point at a time;  the points away from the whole figure are skipped
+		boolean anyInBounds = false;
+		for (int k=0; k<count; k++) {
+			float dx = xs[k] - figureX, dy = ys[k] - figureY;
+			float localX = cosAngle*dx + sinAngle*dy, localY = cosAngle*dy - sinAngle*dx;
+			if (inBounds_(bounds, boundsOffset, localX, localY)) {
+				anyInBounds = true;
+				if (circlesContain_(localX, localY))
+					hits.set(k);
 			}
-		}	
-		return false;
+		}
+		
+		// then the limbs, for all the points at once.  A point that touches a limb is 
+		// within the bounds, so the points out of bounds don't need to be filtered out.
+		if (anyInBounds)
+			SKELETON.limbsContain(nodeX, nodeY, nodeOffset, figureX, figureY, cosAngle, sinAngle, 
+								  xs, ys, count, hits);
+	}
+	
+	// checks whether a point is within hit bounds
+	private static boolean inBounds_(float []bounds, int offset, float x, float y) {
+		return x >= bounds[offset + XMIN_INDEX] && x <= bounds[offset + XMAX_INDEX] &&
+			   y >= bounds[offset + YMIN_INDEX] && y <= bounds[offset + YMAX_INDEX];
+	}
+	
+	/**	Checks whether a point is on the head or on one of the hands
+	 * 
+	 * @param x		x coordinate of a point in the figure's frame
+	 * @param y		y coordinate of a point in the figure's frame
+	 * @return	true if the point is within the head circle or one of the hand circles
+	 */
+	private static boolean circlesContain_(float x, float y) {
+		//checks to see if punch hit the head
+		if (inCircle_(x - HEAD_X, y - HEAD_Y, HEAD_HIT_RADIUS))
+			return true;
+			
+		//checks to see if punch hit either hand
+		return inCircle_(x - LEFT_HAND_X, y - HAND_Y, HAND_HIT_RADIUS) || 
+			   inCircle_(x - RIGHT_HAND_X, y - HAND_Y, HAND_HIT_RADIUS);
+	}
+	
+	/**	Checks whether a point is within a circle, without a square root
+	 * 
+	 * @param dx			x coordinate of the point relative to the center
+	 * @param dy			y coordinate of the point relative to the center
+	 * @param radius		radius of the circle
+	 * @return	true if the point is within the circle
+	 */
+	private static boolean inCircle_(float dx, float dy, float radius) {
+		// outside of the box around the circle
+		if (Math.abs(dx) >= radius || Math.abs(dy) >= radius)
+			return false;
+		return dx*dx + dy*dy < radius*radius;
+	}
+	
+	/**	Computes the world position of a node of the skeleton
+	 * 
+	 * @param node	index of the node
+	 * @param out	receives the x and y coordinates of the node
+	 * @return	out
+	 */
+	private float []nodeToWorld_(int node, float []out) {
+		out[0] = x_ + cosAngle_*nodeX_[node] - sinAngle_*nodeY_[node];
+		out[1] = y_ + sinAngle_*nodeX_[node] + cosAngle_*nodeY_[node];
+		return out;
 	}
 	
 	/** returns the private value of state
@@ -697,12 +918,61 @@ public class StickFigure extends GraphicObject implements ApplicationConstants
 		return state_;
 	}
 	
+	/** tells whether the figure is throwing a punch that can hit:  the active
+	 * 	window of the punch clip, between the wind-up and the recovery
+	 * 
+	 * @return true if the fist of the current punch can land
+	 */
+	public boolean isPunchActive() {
+		return (state_ == PUNCHING_LEFT || state_ == PUNCHING_RIGHT) && joints_[ACTIVE_CHANNEL_INDEX] >= 1;
+	}
+	
+	/** returns the fraction of the last update at which the active window of the
+	 * 	current punch starts:  0 if it was already active before the update
+	 * 
+	 * @return the start of the window in the update (between 0 and 1), greater than
+	 * 	getActiveSpanEnd() if the window doesn't overlap the update
+	 */
+	public float getActiveSpanStart() {
+		return activeSpan_(0);
+	}
+	
+	/** returns the fraction of the last update at which the active window of the
+	 * 	current punch ends:  1 if it is still active
+	 * 
+	 * @return the end of the window in the update (between 0 and 1), less than
+	 * 	getActiveSpanStart() if the window doesn't overlap the update
+	 */
+	public float getActiveSpanEnd() {
+		return activeSpan_(1);
+	}
+	
+	// one end of the active window, as a fraction of the last update (1 and 0 if they don't overlap)
+	private float activeSpan_(int end) {
+		int state = getState();
+		float []window = (state == PUNCHING_LEFT || state == PUNCHING_RIGHT) ? ACTIVE_WINDOWS[state] : null;
+		float t0 = previousAnimationTime_, t1 = getAnimationTime();
+		if (window == null || window[1] < t0 || window[0] > t1)
+			return 1 - end;
+		if (t1 <= t0)
+			return end;
+		return Math.max(0, Math.min(1, (window[end] - t0) / (t1 - t0)));
+	}
+	
+	/** returns the private value of animationTime
+	 * 
+	 * @return the time elapsed since the start of the current clip (in seconds)
+	 */
+	public float getAnimationTime() {
+		return animationTime_;
+	}
+	
 	/** returns the private value of the end of the right arm
 	 * 
 	 * @return the coordinates of the right fist
 	 */
 	public float []getRightFist() {
-		return sxy_[4][1];
+		return nodeToWorld_(RIGHT_FIST_NODE, rightFist_);
 	}
 	
 	/** returns the private value of the end of the left arm
@@ -710,7 +980,56 @@ public class StickFigure extends GraphicObject implements ApplicationConstants
 	 * @return the coordinates of the left fist
 	 */
 	public float []getLeftFist() {
-		return sxy_[2][1];
+		return nodeToWorld_(LEFT_FIST_NODE, leftFist_);
+	}
+	
+	/** returns the position a fist of a punching player had at some point of the last
+	 * 	update.  The pose and the height are taken from the punch clip at the matching 
+	 * 	animation time, and the player is taken to move at a steady pace sideways.
+	 * 
+	 * @param left		true for the left fist, false for the right one
+	 * @param fraction	point of the update (0 before it, 1 after it)
+	 * @return the coordinates of the fist at that point
+	 */
+	public float []getSweptFist(boolean left, float fraction) {
+		int state = getState();
+		if (state != PUNCHING_LEFT && state != PUNCHING_RIGHT)
+			return left ? getLeftFist() : getRightFist();
+		
+		float t = previousAnimationTime_ + fraction * (getAnimationTime() - previousAnimationTime_);
+		KeyframeInterpolator clip = state == PUNCHING_LEFT ? lPunchInterpolator_ : rPunchInterpolator_;
+		clip.computeStateVector(t, sweptJoints_, 0, sweptCursor_);
+		SKELETON.computePose(0, 0, 0, sweptJoints_, 0, sweptNodeX_, sweptNodeY_, sweptNodeCos_, sweptNodeSin_, 0);
+		
+		int node = left ? LEFT_FIST_NODE : RIGHT_FIST_NODE;
+		float x = previousX_ + fraction * (x_ - previousX_), y = sweptJoints_[CLIP_CHANNEL_INDEX];
+		sweptFist_[0] = x + cosAngle_*sweptNodeX_[node] - sinAngle_*sweptNodeY_[node];
+		sweptFist_[1] = y + sinAngle_*sweptNodeX_[node] + cosAngle_*sweptNodeY_[node];
+		return sweptFist_;
+	}
+	
+	/** returns the animation time of the player before the last update
+	 * 
+	 * @return the time elapsed since the start of its clip before the last update (in seconds)
+	 */
+	public float getPreviousAnimationTime() {
+		return previousAnimationTime_;
+	}
+	
+	/** returns the x coordinate of the player before the last update
+	 * 
+	 * @return the x coordinate the player had before the last update
+	 */
+	public float getPreviousX() {
+		return previousX_;
+	}
+	
+	/** returns the y coordinate of the player before the last update
+	 * 
+	 * @return the y coordinate the player had before the last update
+	 */
+	public float getPreviousY() {
+		return previousY_;
 	}
 	
 	/** returns the private value of the position of the player's head